@@ -0,0 +1,231 @@
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cliente de carga de lazo cerrado para comparar el modo de hilos de
+ * plataforma con el de hilos virtuales (perfil "virtual").
+ *
+ * Simula N usuarios concurrentes; cada uno envía una petición, espera la
+ * respuesta y envía la siguiente sin pausa. Las peticiones son asíncronas
+ * (HttpClient del JDK), así que 2000 usuarios no necesitan 2000 hilos en el
+ * cliente y el cuello de botella medido es el servidor.
+ *
+ * Se inicia sesión una vez por cada una de las sesiones configuradas y los
+ * usuarios se reparten sus cookies: iniciar sesión por usuario mediría
+ * BCrypt, no el manejo de peticiones.
+ *
+ * Uso (Java 17 o superior, sin compilar):
+ *   java -Dfile.encoding=UTF-8 benchmark/CargaConcurrente.java --usuarios 2000 --duracion 60 --etiqueta virtual
+ *
+ * Al terminar imprime el resumen y, con --salida, añade una línea JSON al
+ * archivo indicado para comparar ejecuciones.
+ */
+public class CargaConcurrente {
+
+    /** Resolución del histograma: 100 µs por casilla, hasta 60 s. */
+    private static final long MICROS_POR_CASILLA = 100;
+    private static final int CASILLAS = 600_001;
+
+    private final AtomicLongArray histograma = new AtomicLongArray(CASILLAS);
+    private final AtomicLong peticiones = new AtomicLong();
+    private final AtomicLong errores = new AtomicLong();
+    private final AtomicLong maximoMicros = new AtomicLong();
+
+    private final Map<String, String> opciones;
+    private final HttpClient cliente;
+    private final String base;
+    private final List<String> rutas;
+    private final int maxId;
+
+    private volatile long inicioMedicion;
+    private volatile long finMedicion;
+
+    public static void main(String[] args) throws Exception {
+        new CargaConcurrente(leerOpciones(args)).ejecutar();
+    }
+
+    private CargaConcurrente(Map<String, String> opciones) {
+        this.opciones = opciones;
+        this.base = opciones.get("url");
+        this.rutas = List.of(opciones.get("rutas").split(","));
+        this.maxId = Integer.parseInt(opciones.get("max-id"));
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    private static Map<String, String> leerOpciones(String[] args) {
+        Map<String, String> o = new LinkedHashMap<>();
+        o.put("url", "http://localhost:9090");
+        o.put("usuarios", "2000");
+        o.put("duracion", "60");
+        o.put("calentamiento", "15");
+        o.put("sesiones", "20");
+        o.put("usuario", "user");
+        o.put("clave", "user123");
+        o.put("rutas", "/productos,/productos/buscar?q=a,/api/productos,/api/productos/{id}");
+        o.put("max-id", "1000");
+        o.put("timeout", "30");
+        o.put("etiqueta", "sin-etiqueta");
+        o.put("salida", "");
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length || !o.containsKey(args[i].substring(2))) {
+                throw new IllegalArgumentException("Opción no reconocida: " + args[i] + " (opciones: " + o.keySet() + ")");
+            }
+            o.put(args[i].substring(2), args[++i]);
+        }
+        return o;
+    }
+
+    private void ejecutar() throws Exception {
+        int usuarios = Integer.parseInt(opciones.get("usuarios"));
+        long calentamiento = TimeUnit.SECONDS.toNanos(Long.parseLong(opciones.get("calentamiento")));
+        long duracion = TimeUnit.SECONDS.toNanos(Long.parseLong(opciones.get("duracion")));
+
+        List<String> cookies = new ArrayList<>();
+        for (int i = 0; i < Integer.parseInt(opciones.get("sesiones")); i++) {
+            cookies.add(iniciarSesion());
+        }
+
+        long ahora = System.nanoTime();
+        inicioMedicion = ahora + calentamiento;
+        finMedicion = inicioMedicion + duracion;
+        System.out.printf(Locale.ROOT, "[%s] %d usuarios, %d s de calentamiento, %d s medidos%n",
+                opciones.get("etiqueta"), usuarios, TimeUnit.NANOSECONDS.toSeconds(calentamiento),
+                TimeUnit.NANOSECONDS.toSeconds(duracion));
+
+        CountDownLatch terminados = new CountDownLatch(usuarios);
+        for (int u = 0; u < usuarios; u++) {
+            siguiente(cookies.get(u % cookies.size()), terminados);
+        }
+        long espera = TimeUnit.NANOSECONDS.toSeconds(finMedicion - System.nanoTime())
+                + Long.parseLong(opciones.get("timeout")) + 5;
+        if (!terminados.await(espera, TimeUnit.SECONDS)) {
+            System.out.println("Aviso: quedaron usuarios sin terminar al cerrar la medición");
+        }
+        informar(usuarios, duracion);
+    }
+
+    /**
+     * Envía la siguiente petición del usuario y encadena la posterior al
+     * recibir la respuesta, hasta que termina el tiempo de medición.
+     */
+    private void siguiente(String cookie, CountDownLatch terminados) {
+        if (System.nanoTime() >= finMedicion) {
+            terminados.countDown();
+            return;
+        }
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create(base + rutaAleatoria()))
+                .timeout(Duration.ofSeconds(Long.parseLong(opciones.get("timeout"))))
+                .header("Cookie", cookie)
+                .GET()
+                .build();
+        long inicio = System.nanoTime();
+        cliente.sendAsync(peticion, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((respuesta, error) -> {
+                    long fin = System.nanoTime();
+                    boolean correcta = error == null && respuesta.statusCode() < 400;
+                    registrar(inicio, fin, correcta);
+                    siguiente(cookie, terminados);
+                });
+    }
+
+    private String rutaAleatoria() {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        String ruta = rutas.get(aleatorio.nextInt(rutas.size()));
+        return ruta.replace("{id}", Integer.toString(1 + aleatorio.nextInt(maxId)));
+    }
+
+    private void registrar(long inicio, long fin, boolean correcta) {
+        // Sólo cuentan las peticiones que empezaron dentro de la ventana medida
+        if (inicio < inicioMedicion || inicio >= finMedicion) {
+            return;
+        }
+        if (!correcta) {
+            errores.incrementAndGet();
+            return;
+        }
+        long micros = (fin - inicio) / 1_000;
+        peticiones.incrementAndGet();
+        histograma.incrementAndGet((int) Math.min(micros / MICROS_POR_CASILLA, CASILLAS - 1));
+        maximoMicros.accumulateAndGet(micros, Math::max);
+    }
+
+    private double percentilMs(double percentil) {
+        long total = peticiones.get();
+        if (total == 0) {
+            return 0;
+        }
+        long objetivo = (long) Math.ceil(total * percentil);
+        long acumulado = 0;
+        for (int i = 0; i < CASILLAS; i++) {
+            acumulado += histograma.get(i);
+            if (acumulado >= objetivo) {
+                return (i + 1) * MICROS_POR_CASILLA / 1_000.0;
+            }
+        }
+        return maximoMicros.get() / 1_000.0;
+    }
+
+    private void informar(int usuarios, long duracion) throws IOException {
+        double segundos = duracion / 1e9;
+        String json = String.format(Locale.ROOT,
+                "{\"etiqueta\":\"%s\",\"usuarios\":%d,\"segundos\":%.0f,\"peticiones\":%d,\"errores\":%d,"
+                        + "\"rps\":%.1f,\"p50Ms\":%.1f,\"p95Ms\":%.1f,\"p99Ms\":%.1f,\"maxMs\":%.1f}",
+                opciones.get("etiqueta"), usuarios, segundos, peticiones.get(), errores.get(),
+                peticiones.get() / segundos, percentilMs(0.50), percentilMs(0.95), percentilMs(0.99),
+                maximoMicros.get() / 1_000.0);
+        System.out.printf(Locale.ROOT, "[%s] peticiones=%d errores=%d rps=%.1f p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms%n",
+                opciones.get("etiqueta"), peticiones.get(), errores.get(), peticiones.get() / segundos,
+                percentilMs(0.50), percentilMs(0.95), percentilMs(0.99), maximoMicros.get() / 1_000.0);
+        String salida = opciones.get("salida");
+        if (!salida.isEmpty()) {
+            Files.writeString(Path.of(salida), json + System.lineSeparator(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    /**
+     * Inicia sesión con el formulario y devuelve la cookie de la sesión.
+     */
+    private String iniciarSesion() throws IOException, InterruptedException {
+        String formulario = "username=" + URLEncoder.encode(opciones.get("usuario"), StandardCharsets.UTF_8)
+                + "&password=" + URLEncoder.encode(opciones.get("clave"), StandardCharsets.UTF_8);
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create(base + "/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(formulario))
+                .build();
+        HttpResponse<Void> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.discarding());
+        String destino = respuesta.headers().firstValue("Location").orElse("");
+        if (respuesta.statusCode() != 302 || destino.contains("error")) {
+            throw new IllegalStateException("No se pudo iniciar sesión como " + opciones.get("usuario")
+                    + " (estado " + respuesta.statusCode() + ", destino " + destino + ")");
+        }
+        return respuesta.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith("JSESSIONID="))
+                .map(c -> c.substring(0, c.indexOf(';') > 0 ? c.indexOf(';') : c.length()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("El login no devolvió JSESSIONID"));
+    }
+}
@@ -0,0 +1,376 @@
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Prueba de carga por recorridos de usuario, con resultados por paso.
+ *
+ * Cada usuario virtual es un hilo que repite su recorrido sin pausa (o con
+ * --pausa-ms entre pasos) hasta que termina la medición:
+ *
+ *   cliente: login -> /productos -> /carrito/agregar/{id} -> /carrito
+ *            -> /carrito/eliminar/{id}, o POST /carrito/confirmar cada
+ *            --confirmar-cada recorridos
+ *   admin:   login -> /admin/estadisticas -> /admin/categorias
+ *            -> crear -> listar -> editar -> eliminar una categoría
+ *
+ * El login se repite cada --recorridos-por-sesion recorridos (BCrypt es
+ * deliberadamente caro: repetirlo en cada recorrido sólo mediría el login).
+ * Un --pct-calientes de los productos añadidos al carrito sale de los
+ * --skus-calientes primeros ids, para medir la contención del stock.
+ *
+ * Los clientes usan los usuarios cliente1..clienteK que siembra el perfil
+ * "carga" (SembradorCarga); los administradores, admin/admin123.
+ *
+ * Uso (Java 17 o superior; con Java 21 los usuarios son hilos virtuales):
+ *   java -Dfile.encoding=UTF-8 benchmark/RecorridosCarga.java --clientes 200 --admins 2 --duracion 60
+ */
+public class RecorridosCarga {
+
+    private static final long MICROS_POR_CASILLA = 100;
+    private static final int CASILLAS = 600_001;
+    private static final Pattern ID_CATEGORIA = Pattern.compile("<td>(\\d+)</td>\\s*<td>([^<]*)</td>");
+
+    private final Map<String, String> opciones;
+    private final HttpClient cliente;
+    private final String base;
+    private final Map<String, Paso> pasos = new ConcurrentHashMap<>();
+    private final List<String> ordenPasos = List.of("login", "productos", "carrito_agregar", "carrito",
+            "carrito_eliminar", "carrito_confirmar", "admin_estadisticas", "categorias_listar",
+            "categorias_crear", "categorias_editar", "categorias_eliminar");
+
+    private volatile long inicioMedicion;
+    private volatile long finMedicion;
+
+    public static void main(String[] args) throws Exception {
+        new RecorridosCarga(leerOpciones(args)).ejecutar();
+    }
+
+    private RecorridosCarga(Map<String, String> opciones) {
+        this.opciones = opciones;
+        this.base = opciones.get("url");
+        this.cliente = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        for (String p : ordenPasos) {
+            pasos.put(p, new Paso());
+        }
+    }
+
+    private static Map<String, String> leerOpciones(String[] args) {
+        Map<String, String> o = new LinkedHashMap<>();
+        o.put("url", "http://localhost:9090");
+        o.put("clientes", "100");
+        o.put("admins", "2");
+        o.put("duracion", "60");
+        o.put("calentamiento", "15");
+        o.put("usuarios-sembrados", "100");
+        o.put("clave", "carga123");
+        o.put("productos", "10000");
+        o.put("skus-calientes", "10");
+        o.put("pct-calientes", "20");
+        o.put("recorridos-por-sesion", "20");
+        o.put("confirmar-cada", "5");
+        o.put("pausa-ms", "0");
+        o.put("timeout", "30");
+        o.put("semilla", "42");
+        o.put("etiqueta", "carga");
+        o.put("salida", "");
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length || !o.containsKey(args[i].substring(2))) {
+                throw new IllegalArgumentException("Opción no reconocida: " + args[i] + " (opciones: " + o.keySet() + ")");
+            }
+            o.put(args[i].substring(2), args[++i]);
+        }
+        return o;
+    }
+
+    private int entero(String opcion) {
+        return Integer.parseInt(opciones.get(opcion));
+    }
+
+    private void ejecutar() throws Exception {
+        int clientes = entero("clientes");
+        int admins = entero("admins");
+        long calentamiento = TimeUnit.SECONDS.toNanos(entero("calentamiento"));
+        long duracion = TimeUnit.SECONDS.toNanos(entero("duracion"));
+        inicioMedicion = System.nanoTime() + calentamiento;
+        finMedicion = inicioMedicion + duracion;
+
+        ThreadFactory fabrica = fabricaHilos();
+        System.out.printf(Locale.ROOT, "[%s] %d clientes + %d admins (%s), %d s de calentamiento, %d s medidos%n",
+                opciones.get("etiqueta"), clientes, admins,
+                fabrica == null ? "hilos de plataforma" : "hilos virtuales",
+                TimeUnit.NANOSECONDS.toSeconds(calentamiento), TimeUnit.NANOSECONDS.toSeconds(duracion));
+
+        List<Thread> hilos = new ArrayList<>();
+        long semilla = Long.parseLong(opciones.get("semilla"));
+        for (int i = 0; i < clientes + admins; i++) {
+            boolean admin = i >= clientes;
+            String usuario = admin ? "admin" : "cliente" + (1 + i % entero("usuarios-sembrados"));
+            String clave = admin ? "admin123" : opciones.get("clave");
+            SplittableRandom aleatorio = new SplittableRandom(semilla + i);
+            int numero = i;
+            Runnable tarea = () -> recorrer(numero, admin, usuario, clave, aleatorio);
+            Thread hilo = fabrica != null ? fabrica.newThread(tarea) : new Thread(tarea, "usuario-" + i);
+            hilo.setDaemon(true);
+            hilos.add(hilo);
+            hilo.start();
+        }
+        long limite = System.nanoTime() + duracion + calentamiento + TimeUnit.SECONDS.toNanos(entero("timeout") + 5);
+        for (Thread h : hilos) {
+            h.join(Math.max(1, TimeUnit.NANOSECONDS.toMillis(limite - System.nanoTime())));
+        }
+        informar(duracion / 1e9);
+    }
+
+    /**
+     * Hilos virtuales si la JVM los tiene (Java 21+), buscados por reflexión
+     * para que el programa siga funcionando con Java 17.
+     */
+    private static ThreadFactory fabricaHilos() {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Object constructor = ofVirtual.invoke(null);
+            Method factory = constructor.getClass().getMethod("factory");
+            factory.setAccessible(true);
+            return (ThreadFactory) factory.invoke(constructor);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private void recorrer(int numero, boolean admin, String usuario, String clave, SplittableRandom aleatorio) {
+        String sesion = null;
+        long recorridos = 0;
+        while (System.nanoTime() < finMedicion) {
+            try {
+                if (sesion == null || recorridos % entero("recorridos-por-sesion") == 0) {
+                    sesion = iniciarSesion(usuario, clave);
+                    if (sesion == null) {
+                        continue;
+                    }
+                }
+                if (admin) {
+                    recorridoAdmin(sesion, numero, recorridos);
+                } else {
+                    recorridoCliente(sesion, recorridos, aleatorio);
+                }
+            } catch (IOException e) {
+                // El error ya quedó contado en su paso; se empieza con una sesión nueva
+                sesion = null;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            recorridos++;
+        }
+    }
+
+    private void recorridoCliente(String sesion, long recorridos, SplittableRandom aleatorio)
+            throws IOException, InterruptedException {
+        int productos = entero("productos");
+        int calientes = Math.min(entero("skus-calientes"), productos);
+        int id = calientes > 0 && aleatorio.nextInt(100) < entero("pct-calientes")
+                ? 1 + aleatorio.nextInt(calientes)
+                : 1 + aleatorio.nextInt(productos);
+        get("productos", sesion, "/productos");
+        get("carrito_agregar", sesion, "/carrito/agregar/" + id);
+        get("carrito", sesion, "/carrito");
+        int confirmarCada = entero("confirmar-cada");
+        if (confirmarCada > 0 && recorridos % confirmarCada == confirmarCada - 1) {
+            post("carrito_confirmar", sesion, "/carrito/confirmar", "");
+        } else {
+            get("carrito_eliminar", sesion, "/carrito/eliminar/" + id);
+        }
+    }
+
+    private void recorridoAdmin(String sesion, int numero, long recorridos) throws IOException, InterruptedException {
+        get("admin_estadisticas", sesion, "/admin/estadisticas");
+        get("categorias_listar", sesion, "/admin/categorias");
+        String nombre = "carga-" + numero + "-" + recorridos;
+        post("categorias_crear", sesion, "/admin/categorias",
+                "nombre=" + codificar(nombre) + "&descripcion=" + codificar("Categoría de la prueba de carga"));
+        String listado = get("categorias_listar", sesion, "/admin/categorias");
+        String id = null;
+        Matcher m = ID_CATEGORIA.matcher(listado);
+        while (m.find()) {
+            if (m.group(2).equals(nombre)) {
+                id = m.group(1);
+                break;
+            }
+        }
+        if (id == null) {
+            pasos.get("categorias_crear").registrar(System.nanoTime(), System.nanoTime(), false, inicioMedicion, finMedicion);
+            return;
+        }
+        post("categorias_editar", sesion, "/admin/categorias/" + id,
+                "nombre=" + codificar(nombre + "-e") + "&descripcion=" + codificar("Editada"));
+        get("categorias_eliminar", sesion, "/admin/categorias/" + id + "/eliminar");
+    }
+
+    private String iniciarSesion(String usuario, String clave) throws IOException, InterruptedException {
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create(base + "/login"))
+                .timeout(Duration.ofSeconds(entero("timeout")))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=" + codificar(usuario) + "&password=" + codificar(clave)))
+                .build();
+        long inicio = System.nanoTime();
+        HttpResponse<Void> respuesta;
+        try {
+            respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            pasos.get("login").registrar(inicio, System.nanoTime(), false, inicioMedicion, finMedicion);
+            throw e;
+        }
+        String destino = respuesta.headers().firstValue("Location").orElse("");
+        boolean correcto = respuesta.statusCode() == 302 && !destino.contains("error");
+        pasos.get("login").registrar(inicio, System.nanoTime(), correcto, inicioMedicion, finMedicion);
+        if (!correcto) {
+            return null;
+        }
+        return respuesta.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith("JSESSIONID="))
+                .map(c -> c.substring(0, c.indexOf(';') > 0 ? c.indexOf(';') : c.length()))
+                .findFirst().orElse(null);
+    }
+
+    private String get(String paso, String sesion, String ruta) throws IOException, InterruptedException {
+        return enviar(paso, HttpRequest.newBuilder(URI.create(base + ruta)).header("Cookie", sesion).GET());
+    }
+
+    private String post(String paso, String sesion, String ruta, String formulario) throws IOException, InterruptedException {
+        return enviar(paso, HttpRequest.newBuilder(URI.create(base + ruta)).header("Cookie", sesion)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(formulario)));
+    }
+
+    /**
+     * Envía la petición del paso y registra su latencia. Una redirección al
+     * login significa que la sesión caducó y se cuenta como error.
+     */
+    private String enviar(String paso, HttpRequest.Builder constructor) throws IOException, InterruptedException {
+        HttpRequest peticion = constructor.timeout(Duration.ofSeconds(entero("timeout"))).build();
+        long inicio = System.nanoTime();
+        HttpResponse<String> respuesta;
+        try {
+            respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.ofString());
+        } catch (IOException e) {
+            pasos.get(paso).registrar(inicio, System.nanoTime(), false, inicioMedicion, finMedicion);
+            throw e;
+        }
+        long fin = System.nanoTime();
+        boolean correcto = respuesta.statusCode() < 400
+                && !respuesta.headers().firstValue("Location").orElse("").contains("/login");
+        pasos.get(paso).registrar(inicio, fin, correcto, inicioMedicion, finMedicion);
+        if (!correcto) {
+            throw new IOException(paso + ": estado " + respuesta.statusCode());
+        }
+        long pausa = Long.parseLong(opciones.get("pausa-ms"));
+        if (pausa > 0) {
+            Thread.sleep(pausa);
+        }
+        return respuesta.body();
+    }
+
+    private static String codificar(String valor) {
+        return URLEncoder.encode(valor, StandardCharsets.UTF_8);
+    }
+
+    private void informar(double segundos) throws IOException {
+        StringBuilder json = new StringBuilder();
+        System.out.printf(Locale.ROOT, "%n%-20s %9s %7s %9s %9s %9s %9s %9s%n",
+                "Paso", "Peticiones", "Errores", "Pet/s", "p50 ms", "p95 ms", "p99 ms", "Máx ms");
+        long totalPeticiones = 0;
+        long totalErrores = 0;
+        for (String nombre : ordenPasos) {
+            Paso p = pasos.get(nombre);
+            long n = p.peticiones.get();
+            long e = p.errores.get();
+            if (n == 0 && e == 0) {
+                continue;
+            }
+            totalPeticiones += n;
+            totalErrores += e;
+            System.out.printf(Locale.ROOT, "%-20s %9d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n", nombre, n, e, n / segundos,
+                    p.percentilMs(0.50), p.percentilMs(0.95), p.percentilMs(0.99), p.maximoMicros.get() / 1000.0);
+            json.append(String.format(Locale.ROOT,
+                    "{\"etiqueta\":\"%s\",\"paso\":\"%s\",\"peticiones\":%d,\"errores\":%d,\"rps\":%.1f,"
+                            + "\"p50Ms\":%.1f,\"p95Ms\":%.1f,\"p99Ms\":%.1f,\"maxMs\":%.1f}%n",
+                    opciones.get("etiqueta"), nombre, n, e, n / segundos, p.percentilMs(0.50), p.percentilMs(0.95),
+                    p.percentilMs(0.99), p.maximoMicros.get() / 1000.0));
+        }
+        System.out.printf(Locale.ROOT, "%-20s %9d %7d %9.1f%n", "TOTAL", totalPeticiones, totalErrores,
+                totalPeticiones / segundos);
+        String salida = opciones.get("salida");
+        if (!salida.isEmpty()) {
+            Files.writeString(Path.of(salida), json.toString(), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        }
+    }
+
+    /**
+     * Contadores e histograma (casillas de 100 µs hasta 60 s) de un paso.
+     */
+    private static final class Paso {
+        private final AtomicLongArray histograma = new AtomicLongArray(CASILLAS);
+        private final AtomicLong peticiones = new AtomicLong();
+        private final AtomicLong errores = new AtomicLong();
+        private final AtomicLong maximoMicros = new AtomicLong();
+
+        void registrar(long inicio, long fin, boolean correcto, long inicioMedicion, long finMedicion) {
+            // Sólo cuentan las peticiones que empezaron dentro de la ventana medida
+            if (inicio < inicioMedicion || inicio >= finMedicion) {
+                return;
+            }
+            if (!correcto) {
+                errores.incrementAndGet();
+                return;
+            }
+            long micros = (fin - inicio) / 1000;
+            peticiones.incrementAndGet();
+            histograma.incrementAndGet((int) Math.min(micros / MICROS_POR_CASILLA, CASILLAS - 1));
+            maximoMicros.accumulateAndGet(micros, Math::max);
+        }
+
+        double percentilMs(double q) {
+            long total = peticiones.get();
+            if (total == 0) {
+                return 0;
+            }
+            long objetivo = (long) Math.ceil(total * q);
+            long acumulado = 0;
+            for (int i = 0; i < CASILLAS; i++) {
+                acumulado += histograma.get(i);
+                if (acumulado >= objetivo) {
+                    return (i + 1) * MICROS_POR_CASILLA / 1000.0;
+                }
+            }
+            return maximoMicros.get() / 1000.0;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+#!/usr/bin/env bash
+# Compara el modo de hilos de plataforma con el de hilos virtuales bajo la
+# misma carga (por defecto 2000 usuarios concurrentes) y muestra rendimiento
+# y latencias p50/p95/p99 de cada modo.
+#
+# Requisitos: JDK 21 (para el modo virtual) y la base de datos configurada en
+# application.yml con los usuarios de prueba de ComponenteInicializacion.
+#
+# Uso: benchmark/comparar-hilos-virtuales.sh [usuarios] [segundos]
+# Variables opcionales:
+#   PERFILES_BASE  perfiles de Spring comunes a ambos modos (p. ej. "dev")
+#   REPETICIONES   ejecuciones por modo (por defecto 1)
+#   SALIDA         archivo JSON Lines con los resultados
+set -euo pipefail
+
+RAIZ="$(cd "$(dirname "$0")/.." && pwd)"
+USUARIOS="${1:-2000}"
+SEGUNDOS="${2:-60}"
+REPETICIONES="${REPETICIONES:-1}"
+PERFILES_BASE="${PERFILES_BASE:-}"
+SALIDA="${SALIDA:-$RAIZ/target/benchmark-hilos.jsonl}"
+PUERTO=9090
+JAR="$RAIZ/target/InventarioSpringBoot.jar"
+
+# Mismos ajustes en ambos modos: sin registro SQL ni DEBUG, que dominarían la medición
+OPCIONES_APP=(
+  --server.port=$PUERTO
+  --spring.jpa.show-sql=false
+  --logging.level.root=WARN
+  --logging.level.com.inventario=INFO
+  --logging.level.org.springframework.web=WARN
+  --logging.level.org.springframework.security=WARN
+  --logging.level.org.hibernate.SQL=WARN
+  --spring.thymeleaf.cache=true
+)
+
+(cd "$RAIZ" && mvn -B -q -Pjava21 -DskipTests package)
+mkdir -p "$(dirname "$SALIDA")"
+: > "$SALIDA"
+
+perfiles() {
+  local modo="$1"
+  local extra=""
+  [[ "$modo" == "virtual" ]] && extra="virtual"
+  echo "${PERFILES_BASE}${PERFILES_BASE:+${extra:+,}}${extra}"
+}
+
+esperar_arranque() {
+  for _ in $(seq 1 120); do
+    if curl -fs -o /dev/null "http://localhost:$PUERTO/login"; then
+      return 0
+    fi
+    sleep 1
+  done
+  echo "La aplicación no arrancó en 120 s" >&2
+  return 1
+}
+
+for modo in plataforma virtual; do
+  for rep in $(seq 1 "$REPETICIONES"); do
+    java -Djdk.tracePinnedThreads=short -jar "$JAR" \
+      --spring.profiles.active="$(perfiles "$modo")" "${OPCIONES_APP[@]}" \
+      > "$RAIZ/target/benchmark-$modo-$rep.log" 2>&1 &
+    PID=$!
+    trap 'kill $PID 2>/dev/null || true' EXIT
+    esperar_arranque
+    java -Dfile.encoding=UTF-8 "$RAIZ/benchmark/CargaConcurrente.java" \
+      --url "http://localhost:$PUERTO" --usuarios "$USUARIOS" --duracion "$SEGUNDOS" \
+      --etiqueta "$modo" --salida "$SALIDA"
+    kill "$PID"
+    wait "$PID" 2>/dev/null || true
+    trap - EXIT
+    if grep -q "Hilo virtual fijado" "$RAIZ/target/benchmark-$modo-$rep.log"; then
+      echo "[$modo] fijaciones detectadas: $(grep -c 'Hilo virtual fijado' "$RAIZ/target/benchmark-$modo-$rep.log")" \
+        "(ver target/benchmark-$modo-$rep.log)"
+    fi
+  done
+done
+
+echo
+echo "Resultados ($SALIDA):"
+cat "$SALIDA"
@@ -0,0 +1,91 @@
+#!/usr/bin/env bash
+# Mide el tiempo hasta la primera petición (desde el lanzamiento de la JVM
+# hasta el primer 200 de /login) del jar normal y del perfil "produccion"
+# (AOT de Spring + AppCDS), con pasos intermedios para ver qué aporta cada
+# técnica:
+#   base              jar ejecutable normal
+#   perfil            jar normal con el perfil de Spring "produccion" (sin
+#                     ddl-auto, usuarios de prueba en segundo plano)
+#   aot               jar delgado con el código AOT y el perfil "produccion"
+#   aot-cds           lo anterior con el archivo AppCDS del entrenamiento
+#   aot-cds-perezoso  lo anterior con todos los beans perezosos
+#
+# Uso: benchmark/medir-arranque.sh [repeticiones]
+# Variables opcionales:
+#   PERFILES_BASE   perfiles añadidos en todas las variantes, después de
+#                   "produccion" (p. ej. "carga" para medir sin MySQL; entonces
+#                   PERFILES_MAVEN=carga)
+#   PERFILES_MAVEN  perfiles de Maven añadidos a la compilación
+#   ARGS_EXTRA      argumentos de la aplicación comunes a todas las variantes
+#   SALIDA          archivo JSON Lines con los resultados
+set -euo pipefail
+
+RAIZ="$(cd "$(dirname "$0")/.." && pwd)"
+REPETICIONES="${1:-5}"
+PERFILES_BASE="${PERFILES_BASE:-}"
+PERFILES_MAVEN="${PERFILES_MAVEN:-}"
+ARGS_EXTRA="${ARGS_EXTRA:-}"
+SALIDA="${SALIDA:-$RAIZ/target/arranque.jsonl}"
+PUERTO=9090
+PRODUCCION="$RAIZ/target/produccion"
+PERFILES_PRODUCCION="produccion${PERFILES_BASE:+,$PERFILES_BASE}"
+
+# El jar normal se copia aparte: el build de producción reescribe target/classes
+(cd "$RAIZ" && mvn -B -q -DskipTests ${PERFILES_MAVEN:+-P$PERFILES_MAVEN} clean package)
+cp "$RAIZ/target/InventarioSpringBoot.jar" "$RAIZ/target/arranque-base.jar"
+(cd "$RAIZ" && mvn -B -q -DskipTests -Pproduccion${PERFILES_MAVEN:+,$PERFILES_MAVEN} \
+  -Daot.perfiles="$PERFILES_PRODUCCION" package)
+cp "$RAIZ/target/arranque-base.jar" "$RAIZ/target/InventarioSpringBoot.jar"
+mkdir -p "$(dirname "$SALIDA")"
+: > "$SALIDA"
+
+comando() {
+  case "$1" in
+    base) echo "java -jar $RAIZ/target/arranque-base.jar ${PERFILES_BASE:+--spring.profiles.active=$PERFILES_BASE}" ;;
+    perfil) echo "java -jar $RAIZ/target/arranque-base.jar --spring.profiles.active=$PERFILES_PRODUCCION" ;;
+    aot) echo "java -Dspring.aot.enabled=true -jar $PRODUCCION/InventarioSpringBoot-produccion.jar --spring.profiles.active=$PERFILES_PRODUCCION" ;;
+    aot-cds) echo "java -XX:SharedArchiveFile=$PRODUCCION/inventario.jsa -Dspring.aot.enabled=true -jar $PRODUCCION/InventarioSpringBoot-produccion.jar --spring.profiles.active=$PERFILES_PRODUCCION" ;;
+    aot-cds-perezoso) echo "$(comando aot-cds) --spring.main.lazy-initialization=true" ;;
+  esac
+}
+
+# Deja en MS los milisegundos hasta el primer 200 de /login
+PID=""
+MS=0
+medir() {
+  local variante="$1" rep="$2" registro="$RAIZ/target/arranque-$1-$2.log"
+  local inicio fin
+  inicio=$(date +%s%N)
+  # shellcheck disable=SC2046
+  $(comando "$variante") --server.port=$PUERTO $ARGS_EXTRA > "$registro" 2>&1 &
+  PID=$!
+  until [[ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PUERTO/login" || true)" == "200" ]]; do
+    if ! kill -0 "$PID" 2>/dev/null; then
+      echo "[$variante] la aplicación terminó antes de atender (ver $registro)" >&2
+      exit 1
+    fi
+    sleep 0.05
+  done
+  fin=$(date +%s%N)
+  kill "$PID"
+  wait "$PID" 2>/dev/null || true
+  PID=""
+  MS=$(( (fin - inicio) / 1000000 ))
+}
+
+trap '[[ -n "$PID" ]] && kill "$PID" 2>/dev/null || true' EXIT
+printf '%-18s %12s %10s %10s %14s\n' "Variante" "Mediana ms" "Mín ms" "Máx ms" "Spring (s)"
+for variante in base perfil aot aot-cds aot-cds-perezoso; do
+  tiempos=()
+  for rep in $(seq 1 "$REPETICIONES"); do
+    medir "$variante" "$rep"
+    tiempos+=("$MS")
+  done
+  ordenados=($(printf '%s\n' "${tiempos[@]}" | sort -n))
+  mediana=${ordenados[$(( ${#ordenados[@]} / 2 ))]}
+  spring=$(grep -ho 'Started [A-Za-z]* in [0-9.]* seconds' "$RAIZ/target/arranque-$variante-1.log" | grep -o '[0-9.]* seconds' | cut -d' ' -f1 || true)
+  printf '%-18s %12s %10s %10s %14s\n' "$variante" "$mediana" "${ordenados[0]}" "${ordenados[-1]}" "${spring:--}"
+  echo "{\"variante\":\"$variante\",\"medianaMs\":$mediana,\"minMs\":${ordenados[0]},\"maxMs\":${ordenados[-1]},\"tiemposMs\":[$(IFS=,; echo "${tiempos[*]}")]}" >> "$SALIDA"
+done
+echo
+echo "Resultados: $SALIDA"
@@ -0,0 +1,75 @@
+#!/usr/bin/env bash
+# Prueba de carga de extremo a extremo sin MySQL: arranca la aplicación con el
+# perfil "carga" (H2 en memoria en modo MySQL, catálogo sintético sembrado con
+# semilla fija) y ejecuta los recorridos de cliente y administrador de
+# RecorridosCarga, con latencias p50/p95/p99 por paso.
+#
+# Uso: benchmark/prueba-carga.sh [clientes] [segundos]
+# Variables opcionales:
+#   ADMINS          administradores concurrentes (por defecto 2)
+#   PRODUCTOS       productos sembrados (por defecto 10000)
+#   USUARIOS        clientes sembrados, cliente1..clienteN (por defecto 100)
+#   SKUS_CALIENTES  productos con stock alto que reciben PCT_CALIENTES % de las compras
+#   PCT_CALIENTES   (por defecto 10 y 20)
+#   PERFILES_EXTRA  perfiles añadidos a "carga" (p. ej. "virtual", con -Pjava21)
+#   PERFILES_MAVEN  perfiles de Maven añadidos a "carga" (p. ej. "java21")
+#   SALIDA          archivo JSON Lines con los resultados
+set -euo pipefail
+
+RAIZ="$(cd "$(dirname "$0")/.." && pwd)"
+CLIENTES="${1:-100}"
+SEGUNDOS="${2:-60}"
+ADMINS="${ADMINS:-2}"
+PRODUCTOS="${PRODUCTOS:-10000}"
+USUARIOS="${USUARIOS:-100}"
+SKUS_CALIENTES="${SKUS_CALIENTES:-10}"
+PCT_CALIENTES="${PCT_CALIENTES:-20}"
+PERFILES_EXTRA="${PERFILES_EXTRA:-}"
+PERFILES_MAVEN="${PERFILES_MAVEN:-}"
+SALIDA="${SALIDA:-$RAIZ/target/prueba-carga.jsonl}"
+PUERTO=9090
+JAR="$RAIZ/target/InventarioSpringBoot.jar"
+ETIQUETA="carga${PERFILES_EXTRA:+-$PERFILES_EXTRA}"
+
+(cd "$RAIZ" && mvn -B -q -Pcarga${PERFILES_MAVEN:+,$PERFILES_MAVEN} -DskipTests package)
+mkdir -p "$(dirname "$SALIDA")"
+
+java -jar "$JAR" \
+  --spring.profiles.active="carga${PERFILES_EXTRA:+,$PERFILES_EXTRA}" \
+  --server.port=$PUERTO \
+  --inventario.generador.productos="$PRODUCTOS" \
+  --inventario.generador.usuarios="$USUARIOS" \
+  --inventario.generador.skus-calientes="$SKUS_CALIENTES" \
+  > "$RAIZ/target/prueba-carga.log" 2>&1 &
+PID=$!
+trap 'kill $PID 2>/dev/null || true' EXIT
+
+# Tomcat atiende /login antes de que termine la siembra: se espera a que el
+# último cliente sembrado pueda iniciar sesión
+listo=""
+for _ in $(seq 1 180); do
+  destino="$(curl -s -o /dev/null -w '%{redirect_url}' \
+    -d "username=cliente$USUARIOS&password=carga123" "http://localhost:$PUERTO/login" || true)"
+  if [[ "$destino" == *"/productos"* ]]; then
+    listo=1
+    break
+  fi
+  sleep 1
+done
+if [[ -z "$listo" ]]; then
+  echo "La aplicación no quedó lista en 180 s (ver target/prueba-carga.log)" >&2
+  exit 1
+fi
+
+java -Dfile.encoding=UTF-8 "$RAIZ/benchmark/RecorridosCarga.java" \
+  --url "http://localhost:$PUERTO" --clientes "$CLIENTES" --admins "$ADMINS" --duracion "$SEGUNDOS" \
+  --usuarios-sembrados "$USUARIOS" --productos "$PRODUCTOS" \
+  --skus-calientes "$SKUS_CALIENTES" --pct-calientes "$PCT_CALIENTES" \
+  --etiqueta "$ETIQUETA" --salida "$SALIDA"
+
+# Métricas del lado del servidor (latencia por endpoint, SQL por petición, pool)
+curl -s -u admin:admin123 -o "$RAIZ/target/prueba-carga-metricas.txt" "http://localhost:$PUERTO/admin/metricas" || true
+
+echo
+echo "Resultados: $SALIDA"
+echo "Métricas del servidor: target/prueba-carga-metricas.txt; registro: target/prueba-carga.log"
@@ -0,0 +1,59 @@
+package com.inventario.benchmark;
+
+import com.inventario.dto.CarritoValorado;
+import com.inventario.dto.ResumenProducto;
+import com.inventario.service.CarritoService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Valoración del carrito tal como la hace {@code CarritoController.listarCarrito}
+ * a través de {@link CarritoService#valorar}: resolución de las líneas,
+ * estados y total, con el repositorio sustituido por uno en memoria.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CarritoBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int lineas;
+
+    private CarritoService servicio;
+    private Map<Integer, Integer> carrito;
+
+    @Setup
+    public void preparar() {
+        List<ResumenProducto> catalogo = RepositoriosEnMemoria.catalogo(10_000, 42L);
+        servicio = new CarritoService(RepositoriosEnMemoria.productos(catalogo));
+        SplittableRandom aleatorio = new SplittableRandom(7L);
+        carrito = new LinkedHashMap<>();
+        while (carrito.size() < lineas) {
+            // Algunas líneas apuntan a productos que ya no existen
+            carrito.put(aleatorio.nextInt(1, 10_500), aleatorio.nextInt(1, 5));
+        }
+    }
+
+    @Benchmark
+    public CarritoValorado valorar() {
+        return servicio.valorar(carrito);
+    }
+}
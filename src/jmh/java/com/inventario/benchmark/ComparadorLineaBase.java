@@ -0,0 +1,100 @@
+package com.inventario.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Compara un resultado JSON de JMH con una línea base guardada.
+ *
+ * Un benchmark empeora si su puntuación cambia en contra (más tiempo en
+ * modos de tiempo, menos operaciones en modo throughput) más que la
+ * tolerancia y más que la suma de los márgenes de error de ambas
+ * mediciones. Termina con código 1 si hay alguna regresión, así el build
+ * del perfil jmh falla.
+ *
+ * Uso: ComparadorLineaBase resultado.json linea-base.json [toleranciaPorcentaje]
+ * Para fijar una nueva línea base basta copiar el resultado sobre ella.
+ */
+public final class ComparadorLineaBase {
+
+    private ComparadorLineaBase() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: ComparadorLineaBase resultado.json linea-base.json [toleranciaPorcentaje]");
+            System.exit(2);
+        }
+        File resultado = new File(args[0]);
+        File lineaBase = new File(args[1]);
+        double tolerancia = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        if (!lineaBase.isFile()) {
+            System.out.println("Sin línea base en " + lineaBase + ": no se compara."
+                    + " Para fijarla, copie " + resultado + " a esa ruta.");
+            return;
+        }
+        ObjectMapper mapper = new ObjectMapper();
+        Map<String, JsonNode> actuales = indexar(mapper.readTree(resultado));
+        Map<String, JsonNode> base = indexar(mapper.readTree(lineaBase));
+
+        int regresiones = 0;
+        System.out.printf(Locale.ROOT, "%-70s %14s %14s %9s%n", "Benchmark", "Base", "Actual", "Cambio");
+        for (Map.Entry<String, JsonNode> e : actuales.entrySet()) {
+            JsonNode anterior = base.get(e.getKey());
+            if (anterior == null) {
+                System.out.printf(Locale.ROOT, "%-70s %14s %14s %9s%n", e.getKey(), "-", puntuacion(e.getValue()), "nuevo");
+                continue;
+            }
+            double a = e.getValue().path("primaryMetric").path("score").asDouble();
+            double b = anterior.path("primaryMetric").path("score").asDouble();
+            double errores = e.getValue().path("primaryMetric").path("scoreError").asDouble(0)
+                    + anterior.path("primaryMetric").path("scoreError").asDouble(0);
+            boolean menorEsMejor = !"thrpt".equals(e.getValue().path("mode").asText());
+            // Cambio positivo = peor, en cualquier modo
+            double cambio = b == 0 ? 0 : (menorEsMejor ? a - b : b - a) / b * 100.0;
+            boolean regresion = cambio > tolerancia && Math.abs(a - b) > errores;
+            if (regresion) {
+                regresiones++;
+            }
+            System.out.printf(Locale.ROOT, "%-70s %14s %14s %+8.1f%%%s%n", e.getKey(), puntuacion(anterior),
+                    puntuacion(e.getValue()), cambio, regresion ? "  REGRESIÓN" : "");
+        }
+        if (regresiones > 0) {
+            System.out.printf(Locale.ROOT, "%d regresiones por encima del %.1f %%%n", regresiones, tolerancia);
+            System.exit(1);
+        }
+        System.out.println("Sin regresiones respecto a la línea base");
+    }
+
+    /**
+     * Indexa los resultados por nombre de benchmark y parámetros.
+     */
+    private static Map<String, JsonNode> indexar(JsonNode resultados) {
+        Map<String, JsonNode> porClave = new LinkedHashMap<>();
+        for (JsonNode r : resultados) {
+            StringBuilder clave = new StringBuilder(r.path("benchmark").asText()
+                    .replace("com.inventario.benchmark.", ""));
+            Iterator<Map.Entry<String, JsonNode>> params = r.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> p = params.next();
+                clave.append(clave.indexOf("[") < 0 ? " [" : ", ").append(p.getKey()).append('=').append(p.getValue().asText());
+            }
+            if (clave.indexOf("[") >= 0) {
+                clave.append(']');
+            }
+            porClave.put(clave.toString(), r);
+        }
+        return porClave;
+    }
+
+    private static String puntuacion(JsonNode r) {
+        JsonNode m = r.path("primaryMetric");
+        return String.format(Locale.ROOT, "%.3f %s", m.path("score").asDouble(), m.path("scoreUnit").asText());
+    }
+}
@@ -0,0 +1,67 @@
+package com.inventario.benchmark;
+
+import com.inventario.cache.CacheUsuarios;
+import com.inventario.model.Usuario;
+import com.inventario.service.ServicioDetallesUsuario;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Login: {@link ServicioDetallesUsuario#loadUserByUsername} sobre un
+ * repositorio en memoria y la verificación BCrypt que le sigue.
+ *
+ * La fuerza 10 es la configurada por defecto (inventario.seguridad.bcrypt.fuerza);
+ * cada unidad más duplica el costo de la verificación.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoginBenchmark {
+
+    private static final String CLAVE = "user123";
+
+    @Param({"10"})
+    public int fuerza;
+
+    private ServicioDetallesUsuario servicio;
+    private BCryptPasswordEncoder codificador;
+
+    @Setup
+    public void preparar() {
+        codificador = new BCryptPasswordEncoder(fuerza);
+        Usuario usuario = new Usuario("user", "user@inventario.com", codificador.encode(CLAVE), "Usuario");
+        usuario.setRol("ROLE_USER");
+        usuario.setActivo(true);
+        servicio = new ServicioDetallesUsuario(RepositoriosEnMemoria.usuarios(Map.of("user", usuario)),
+                new CacheUsuarios(1000, 60));
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public UserDetails cargarUsuario() {
+        return servicio.loadUserByUsername("user");
+    }
+
+    @Benchmark
+    public boolean cargarYVerificar() {
+        UserDetails detalles = servicio.loadUserByUsername("user");
+        return codificador.matches(CLAVE, detalles.getPassword());
+    }
+}
@@ -0,0 +1,53 @@
+package com.inventario.benchmark;
+
+import com.inventario.model.Producto;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redondeo del precio en {@link Producto#setPrecio} y cálculo de
+ * {@link Producto#getValorTotal()}.
+ *
+ * Los precios rotan entre varios valores no triviales para que el JIT no
+ * pueda plegar el redondeo a una constante.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductoBenchmark {
+
+    private static final double[] PRECIOS = {19.999, 0.005, 1234.5678, 7.0, 99.994999, 0.1 + 0.2, 4999.995, 12.345};
+
+    private Producto producto;
+    private int indice;
+
+    @Setup
+    public void preparar() {
+        producto = new Producto(1, "P1", "Producto 1", "General", 10.0, 37, true);
+    }
+
+    @Benchmark
+    public Double setPrecio() {
+        producto.setPrecio(PRECIOS[indice++ & (PRECIOS.length - 1)]);
+        return producto.getPrecio();
+    }
+
+    @Benchmark
+    public Double getValorTotal() {
+        producto.setStock(indice++ & 511);
+        return producto.getValorTotal();
+    }
+}
@@ -0,0 +1,99 @@
+package com.inventario.benchmark;
+
+import com.inventario.dto.ResumenProducto;
+import com.inventario.model.Producto;
+import com.inventario.repository.ProductoRepository;
+import com.inventario.service.ProductoService;
+import com.inventario.service.RankingsProductos;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métodos de ranking de {@link ProductoService} (más costosos, más baratos,
+ * mayor y menor stock) sobre un repositorio en memoria, más el
+ * mantenimiento incremental de los rankings al actualizar un producto y la
+ * recarga completa desde el repositorio.
+ *
+ * Sólo se usan las dependencias del servicio que intervienen en los
+ * rankings; el resto se pasa como null.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RankingsBenchmark {
+
+    @Param({"10000"})
+    public int productos;
+
+    @Param({"10"})
+    public int limite;
+
+    private RankingsProductos rankings;
+    private ProductoService servicio;
+    private Producto[] actualizaciones;
+    private int indice;
+
+    @Setup
+    public void preparar() {
+        List<ResumenProducto> catalogo = RepositoriosEnMemoria.catalogo(productos, 42L);
+        ProductoRepository repositorio = RepositoriosEnMemoria.productos(catalogo);
+        rankings = new RankingsProductos(repositorio, 50);
+        rankings.recargar();
+        servicio = new ProductoService(repositorio, null, null, null, rankings, null, null);
+        // Cambios de precio y stock sobre productos al azar, dentro y fuera de los rankings
+        SplittableRandom aleatorio = new SplittableRandom(7L);
+        actualizaciones = new Producto[1024];
+        for (int i = 0; i < actualizaciones.length; i++) {
+            int id = aleatorio.nextInt(1, productos + 1);
+            actualizaciones[i] = new Producto(id, "P" + id, "Producto " + id, "General",
+                    Math.round(aleatorio.nextDouble(1, 5000) * 100.0) / 100.0, aleatorio.nextInt(0, 500), true);
+        }
+    }
+
+    @Benchmark
+    public List<ResumenProducto> obtenerMasCostosos() {
+        return servicio.obtenerMasCostosos(limite);
+    }
+
+    @Benchmark
+    public List<ResumenProducto> obtenerMasBaratos() {
+        return servicio.obtenerMasBaratos(limite);
+    }
+
+    @Benchmark
+    public List<ResumenProducto> obtenerMayorStock() {
+        return servicio.obtenerMayorStock(limite);
+    }
+
+    @Benchmark
+    public List<ResumenProducto> obtenerMenorStock() {
+        return servicio.obtenerMenorStock(limite);
+    }
+
+    @Benchmark
+    public void actualizarProducto() {
+        rankings.actualizar(actualizaciones[indice++ & (actualizaciones.length - 1)]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void recargar() {
+        rankings.recargar();
+    }
+}
@@ -0,0 +1,162 @@
+package com.inventario.benchmark;
+
+import com.inventario.dto.ResumenProducto;
+import com.inventario.model.Usuario;
+import com.inventario.repository.ProductoRepository;
+import com.inventario.repository.UsuarioRepository;
+import org.springframework.data.domain.Pageable;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.SplittableRandom;
+
+/**
+ * Sustitutos en memoria de los repositorios para medir la lógica de los
+ * servicios sin base de datos.
+ *
+ * Son proxies dinámicos que implementan sólo las consultas que usan los
+ * benchmarks, con la misma semántica (orden, desempate por id y límite)
+ * que las consultas JPQL; cualquier otro método lanza
+ * UnsupportedOperationException para que un benchmark no mida por
+ * accidente algo que no existe.
+ */
+public final class RepositoriosEnMemoria {
+
+    private RepositoriosEnMemoria() {}
+
+    /**
+     * Genera un catálogo determinista de productos.
+     *
+     * @param cantidad Número de productos (ids 1..cantidad)
+     * @param semilla Semilla del generador
+     * @return Resúmenes de los productos
+     */
+    public static List<ResumenProducto> catalogo(int cantidad, long semilla) {
+        SplittableRandom aleatorio = new SplittableRandom(semilla);
+        List<ResumenProducto> productos = new ArrayList<>(cantidad);
+        for (int id = 1; id <= cantidad; id++) {
+            double precio = Math.round(aleatorio.nextDouble(1, 5000) * 100.0) / 100.0;
+            productos.add(new Resumen(id, "P" + id, "Producto " + id, precio,
+                    aleatorio.nextInt(0, 500), aleatorio.nextInt(20) != 0));
+        }
+        return productos;
+    }
+
+    public static ProductoRepository productos(List<ResumenProducto> catalogo) {
+        Map<Integer, ResumenProducto> porId = new HashMap<>(catalogo.size() * 2);
+        for (ResumenProducto p : catalogo) {
+            porId.put(p.getId(), p);
+        }
+        Comparator<ResumenProducto> porPrecio = Comparator.comparingDouble(ResumenProducto::getPrecio)
+                .thenComparing(ResumenProducto::getId);
+        Comparator<ResumenProducto> porStock = Comparator.comparingInt(ResumenProducto::getStock)
+                .thenComparing(ResumenProducto::getId);
+        // Ordenados una sola vez: el costo de la consulta no debe contar en el benchmark
+        List<ResumenProducto> masCostosos = ordenar(catalogo, porPrecio.reversed());
+        List<ResumenProducto> masBaratos = ordenar(catalogo, porPrecio);
+        List<ResumenProducto> mayorStock = ordenar(catalogo, porStock.reversed());
+        List<ResumenProducto> menorStock = ordenar(catalogo, porStock);
+        return (ProductoRepository) Proxy.newProxyInstance(RepositoriosEnMemoria.class.getClassLoader(),
+                new Class<?>[]{ProductoRepository.class}, (proxy, metodo, args) -> {
+                    switch (metodo.getName()) {
+                        case "buscarResumenesPorIds": {
+                            List<ResumenProducto> r = new ArrayList<>();
+                            for (Object id : (Collection<?>) args[0]) {
+                                ResumenProducto p = porId.get(id);
+                                if (p != null) {
+                                    r.add(p);
+                                }
+                            }
+                            return r;
+                        }
+                        case "buscarMasCostosos":
+                            return primeros(masCostosos, (Pageable) args[0]);
+                        case "buscarMasBaratos":
+                            return primeros(masBaratos, (Pageable) args[0]);
+                        case "buscarMayorStock":
+                            return primeros(mayorStock, (Pageable) args[0]);
+                        case "buscarMenorStock":
+                            return primeros(menorStock, (Pageable) args[0]);
+                        case "toString":
+                            return "ProductoRepository en memoria";
+                        default:
+                            throw new UnsupportedOperationException(metodo.getName());
+                    }
+                });
+    }
+
+    public static UsuarioRepository usuarios(Map<String, Usuario> usuarios) {
+        return (UsuarioRepository) Proxy.newProxyInstance(RepositoriosEnMemoria.class.getClassLoader(),
+                new Class<?>[]{UsuarioRepository.class}, (proxy, metodo, args) -> {
+                    switch (metodo.getName()) {
+                        case "findByUsername":
+                            return Optional.ofNullable(usuarios.get((String) args[0]));
+                        case "toString":
+                            return "UsuarioRepository en memoria";
+                        default:
+                            throw new UnsupportedOperationException(metodo.getName());
+                    }
+                });
+    }
+
+    private static List<ResumenProducto> ordenar(List<ResumenProducto> catalogo, Comparator<ResumenProducto> orden) {
+        List<ResumenProducto> copia = new ArrayList<>(catalogo);
+        copia.sort(orden);
+        return copia;
+    }
+
+    private static List<ResumenProducto> primeros(List<ResumenProducto> ordenados, Pageable limite) {
+        return new ArrayList<>(ordenados.subList(0, Math.min(limite.getPageSize(), ordenados.size())));
+    }
+
+    /**
+     * Proyección inmutable equivalente a la que devuelve Spring Data.
+     */
+    static final class Resumen implements ResumenProducto {
+        private final Integer id;
+        private final String codigo;
+        private final String nombre;
+        private final Double precio;
+        private final Integer stock;
+        private final Boolean activo;
+
+        Resumen(Integer id, String codigo, String nombre, Double precio, Integer stock, Boolean activo) {
+            this.id = id;
+            this.codigo = codigo;
+            this.nombre = nombre;
+            this.precio = precio;
+            this.stock = stock;
+            this.activo = activo;
+        }
+
+        public Integer getId() {
+            return id;
+        }
+
+        public String getCodigo() {
+            return codigo;
+        }
+
+        public String getNombre() {
+            return nombre;
+        }
+
+        public Double getPrecio() {
+            return precio;
+        }
+
+        public Integer getStock() {
+            return stock;
+        }
+
+        public Boolean getActivo() {
+            return activo;
+        }
+    }
+}
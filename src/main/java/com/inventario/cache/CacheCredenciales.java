@@ -0,0 +1,80 @@
+package com.inventario.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+
+/**
+ * Caché de corta duración de las verificaciones de contraseña correctas.
+ *
+ * Con HTTP Basic (API REST) cada petición trae las credenciales y Spring
+ * Security no guarda la autenticación entre peticiones, así que sin esta
+ * caché cada sondeo costaría una verificación BCrypt completa en el pool de
+ * login. Se guarda sólo un resumen SHA-256, con una sal aleatoria por
+ * arranque, de la contraseña en claro junto con el hash almacenado: nunca la
+ * contraseña. Si el usuario cambia de contraseña el hash almacenado cambia y
+ * la entrada deja de coincidir. Los intentos fallidos no se guardan, así que
+ * probar contraseñas sigue costando una verificación BCrypt cada vez.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Component
+public class CacheCredenciales {
+
+    private final CacheLimitada<String, Boolean> cache;
+    private final byte[] sal = new byte[16];
+
+    /**
+     * @param tamanoMaximo Número máximo de credenciales en caché
+     * @param ttlSegundos Tiempo de vida de cada entrada en segundos
+     */
+    public CacheCredenciales(@Value("${inventario.cache.credenciales.tamano-maximo:1000}") int tamanoMaximo,
+                             @Value("${inventario.cache.credenciales.ttl-segundos:60}") long ttlSegundos) {
+        this.cache = new CacheLimitada<>(tamanoMaximo, ttlSegundos * 1000L);
+        new SecureRandom().nextBytes(sal);
+    }
+
+    /**
+     * @param contrasena Contraseña en claro recibida
+     * @param hashAlmacenado Hash guardado del usuario
+     * @return true si esta misma pareja se verificó correctamente hace poco
+     */
+    public boolean verificada(CharSequence contrasena, String hashAlmacenado) {
+        return cache.obtener(clave(contrasena, hashAlmacenado)) != null;
+    }
+
+    /**
+     * Anota una verificación correcta.
+     *
+     * @param contrasena Contraseña en claro recibida
+     * @param hashAlmacenado Hash guardado del usuario
+     */
+    public void registrar(CharSequence contrasena, String hashAlmacenado) {
+        cache.guardar(clave(contrasena, hashAlmacenado), Boolean.TRUE);
+    }
+
+    /**
+     * @return Estadísticas de la caché de credenciales
+     */
+    public EstadisticasCache estadisticas() {
+        return cache.estadisticas();
+    }
+
+    private String clave(CharSequence contrasena, String hashAlmacenado) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(sal);
+            sha.update(String.valueOf(hashAlmacenado).getBytes(StandardCharsets.UTF_8));
+            sha.update((byte) 0);
+            sha.update(contrasena.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(sha.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.inventario.cache;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Caché en memoria acotada por tamaño y por tiempo de vida (TTL).
+ *
+ * Usa un LinkedHashMap en orden de acceso (LRU): al superar el tamaño máximo
+ * se descarta la entrada menos usada, y las entradas cuyo TTL expiró se
+ * descartan al leerlas. Lleva contadores de aciertos, fallos y desalojos.
+ *
+ * Es segura para hilos: todas las operaciones sobre el mapa se sincronizan
+ * sobre la propia instancia, y los contadores usan LongAdder.
+ *
+ * @param <K> Tipo de la clave
+ * @param <V> Tipo del valor
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+public class CacheLimitada<K, V> {
+
+    private final int tamanoMaximo;
+    private final long ttlNanos;
+    private final LongSupplier reloj;
+    private final LinkedHashMap<K, Entrada<V>> entradas;
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder desalojos = new LongAdder();
+
+    /**
+     * Crea una caché con el reloj del sistema.
+     *
+     * @param tamanoMaximo Número máximo de entradas
+     * @param ttlMillis Tiempo de vida de cada entrada en milisegundos
+     */
+    public CacheLimitada(int tamanoMaximo, long ttlMillis) {
+        this(tamanoMaximo, ttlMillis, System::nanoTime);
+    }
+
+    /**
+     * Crea una caché con un reloj dado (en nanosegundos).
+     *
+     * @param tamanoMaximo Número máximo de entradas
+     * @param ttlMillis Tiempo de vida de cada entrada en milisegundos
+     * @param reloj Fuente de tiempo en nanosegundos
+     */
+    public CacheLimitada(int tamanoMaximo, long ttlMillis, LongSupplier reloj) {
+        if (tamanoMaximo <= 0) {
+            throw new IllegalArgumentException("El tamaño máximo debe ser mayor a 0");
+        }
+        this.tamanoMaximo = tamanoMaximo;
+        this.ttlNanos = ttlMillis * 1_000_000L;
+        this.reloj = reloj;
+        this.entradas = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entrada<V>> mayor) {
+                if (size() > CacheLimitada.this.tamanoMaximo) {
+                    desalojos.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Obtiene un valor si está en caché y no expiró.
+     *
+     * @param clave Clave a buscar
+     * @return Valor en caché o null si no existe o expiró
+     */
+    public V obtener(K clave) {
+        synchronized (this) {
+            Entrada<V> entrada = entradas.get(clave);
+            if (entrada != null) {
+                if (reloj.getAsLong() - entrada.creadaEn < ttlNanos) {
+                    aciertos.increment();
+                    return entrada.valor;
+                }
+                entradas.remove(clave);
+                desalojos.increment();
+            }
+        }
+        fallos.increment();
+        return null;
+    }
+
+    /**
+     * Guarda (o reemplaza) un valor en caché.
+     *
+     * @param clave Clave
+     * @param valor Valor, no nulo
+     */
+    public void guardar(K clave, V valor) {
+        Entrada<V> entrada = new Entrada<>(valor, reloj.getAsLong());
+        synchronized (this) {
+            entradas.put(clave, entrada);
+        }
+    }
+
+    /**
+     * Elimina una entrada de la caché.
+     *
+     * @param clave Clave a invalidar
+     * @return Valor que estaba en caché o null
+     */
+    public V invalidar(K clave) {
+        synchronized (this) {
+            Entrada<V> entrada = entradas.remove(clave);
+            return entrada != null ? entrada.valor : null;
+        }
+    }
+
+    /**
+     * Vacía la caché por completo.
+     */
+    public synchronized void limpiar() {
+        entradas.clear();
+    }
+
+    /**
+     * @return Número de entradas actualmente en caché
+     */
+    public synchronized int tamano() {
+        return entradas.size();
+    }
+
+    public int getTamanoMaximo() {
+        return tamanoMaximo;
+    }
+
+    /**
+     * Obtiene una instantánea de los contadores de la caché.
+     *
+     * @return Estadísticas de aciertos, fallos, desalojos y tamaño
+     */
+    public EstadisticasCache estadisticas() {
+        return new EstadisticasCache(aciertos.sum(), fallos.sum(), desalojos.sum(), tamano(), tamanoMaximo);
+    }
+
+    private static final class Entrada<V> {
+        private final V valor;
+        private final long creadaEn;
+
+        private Entrada(V valor, long creadaEn) {
+            this.valor = valor;
+            this.creadaEn = creadaEn;
+        }
+    }
+}
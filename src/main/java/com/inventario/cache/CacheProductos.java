@@ -0,0 +1,166 @@
+package com.inventario.cache;
+
+import com.inventario.model.Producto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caché de productos por id y por código delante de ProductoRepository.
+ *
+ * Guarda copias desacopladas de las entidades: quien lee recibe siempre una
+ * copia nueva, de modo que modificar el objeto devuelto nunca altera la caché
+ * ni el contexto de persistencia. ProductoService invalida la entrada tras el
+ * commit de cada escritura y la vuelve a llenar en la siguiente lectura.
+ *
+ * Una lectura que falló en la caché puede haber leído la fila antes de un
+ * commit y guardarla después de la invalidación; por eso las lecturas toman
+ * {@link #generacion()} antes de consultar la base de datos y guardan con
+ * {@link #guardarLeido(Producto, long)}, que descarta la copia si hubo alguna
+ * invalidación entretanto.
+ *
+ * El índice por código guarda sólo el id; la entrada por id es la fuente de
+ * los datos, así una invalidación por id basta para ambas búsquedas.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Component
+public class CacheProductos {
+
+    private final CacheLimitada<Integer, Producto> porId;
+    private final CacheLimitada<String, Integer> idPorCodigo;
+    // Aumenta con cada invalidación
+    private final AtomicLong generacion = new AtomicLong();
+
+    /**
+     * @param tamanoMaximo Número máximo de productos en caché
+     * @param ttlSegundos Tiempo de vida de cada entrada en segundos
+     */
+    public CacheProductos(@Value("${inventario.cache.productos.tamano-maximo:10000}") int tamanoMaximo,
+                          @Value("${inventario.cache.productos.ttl-segundos:300}") long ttlSegundos) {
+        this.porId = new CacheLimitada<>(tamanoMaximo, ttlSegundos * 1000L);
+        this.idPorCodigo = new CacheLimitada<>(tamanoMaximo, ttlSegundos * 1000L);
+    }
+
+    /**
+     * Busca un producto por id.
+     *
+     * @param id Identificador del producto
+     * @return Copia del producto en caché o null
+     */
+    public Producto obtenerPorId(Integer id) {
+        Producto p = porId.obtener(id);
+        return p != null ? copiar(p) : null;
+    }
+
+    /**
+     * Busca el id de un producto por su código.
+     *
+     * @param codigo Código del producto
+     * @return Id en caché o null
+     */
+    public Integer obtenerIdPorCodigo(String codigo) {
+        return idPorCodigo.obtener(codigo);
+    }
+
+    /**
+     * Guarda (o reemplaza) un producto en ambas búsquedas.
+     *
+     * @param p Producto persistido (con id)
+     */
+    private void guardar(Producto p) {
+        if (p == null || p.getId() == null) {
+            return;
+        }
+        Producto anterior = porId.invalidar(p.getId());
+        if (anterior != null && anterior.getCodigo() != null && !anterior.getCodigo().equals(p.getCodigo())) {
+            idPorCodigo.invalidar(anterior.getCodigo());
+        }
+        porId.guardar(p.getId(), copiar(p));
+        if (p.getCodigo() != null) {
+            idPorCodigo.guardar(p.getCodigo(), p.getId());
+        }
+    }
+
+    /**
+     * @return Generación actual; se toma antes de leer de la base de datos
+     */
+    public long generacion() {
+        return generacion.get();
+    }
+
+    /**
+     * Guarda un producto leído de la base de datos si desde que se tomó
+     * {@code generacionLeida} no hubo ninguna invalidación; si la hubo, la
+     * copia puede ser anterior a un commit y se descarta.
+     *
+     * @param p Producto leído
+     * @param generacionLeida Valor de {@link #generacion()} antes de la lectura
+     */
+    public void guardarLeido(Producto p, long generacionLeida) {
+        if (generacion.get() != generacionLeida) {
+            return;
+        }
+        if (p == null || p.getId() == null) {
+            return;
+        }
+        guardar(p);
+        // Una invalidación concurrente con el guardado también la descarta
+        if (generacion.get() != generacionLeida) {
+            invalidar(p.getId());
+        }
+    }
+
+    /**
+     * Invalida un producto por id (y su código si estaba en caché).
+     *
+     * @param id Identificador del producto
+     */
+    public void invalidar(Integer id) {
+        generacion.incrementAndGet();
+        Producto anterior = porId.invalidar(id);
+        if (anterior != null && anterior.getCodigo() != null) {
+            idPorCodigo.invalidar(anterior.getCodigo());
+        }
+    }
+
+    /**
+     * Invalida la entrada del índice por código.
+     *
+     * @param codigo Código a invalidar
+     */
+    public void invalidarCodigo(String codigo) {
+        idPorCodigo.invalidar(codigo);
+    }
+
+    /**
+     * Vacía la caché por completo.
+     */
+    public void limpiar() {
+        generacion.incrementAndGet();
+        porId.limpiar();
+        idPorCodigo.limpiar();
+    }
+
+    /**
+     * @return Estadísticas de la búsqueda por id
+     */
+    public EstadisticasCache estadisticasPorId() {
+        return porId.estadisticas();
+    }
+
+    /**
+     * @return Estadísticas del índice por código
+     */
+    public EstadisticasCache estadisticasPorCodigo() {
+        return idPorCodigo.estadisticas();
+    }
+
+    private static Producto copiar(Producto p) {
+        Producto copia = new Producto(p.getId(), p.getCodigo(), p.getNombre(), p.getCategoria(),
+                p.getPrecio(), p.getStock(), p.getActivo());
+        copia.setVersion(p.getVersion());
+        return copia;
+    }
+}
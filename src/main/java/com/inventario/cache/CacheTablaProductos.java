@@ -0,0 +1,148 @@
+package com.inventario.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Caché de las filas ya renderizadas de la tabla del listado de productos.
+ *
+ * La clave combina la página (filtros, orden, cursor, tamaño) y el rol; cada
+ * entrada pertenece a una versión del catálogo ({@link VersionCatalogo}).
+ * Al ver una versión más nueva se descarta todo lo anterior, que ya no
+ * puede volver a usarse.
+ *
+ * Las filas se guardan como bytes UTF-8 y el límite es en bytes: al
+ * superarlo se desalojan las entradas menos usadas recientemente (LRU).
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Component
+public class CacheTablaProductos {
+
+    /**
+     * Coste fijo estimado por entrada (objetos, clave, nodo del mapa).
+     */
+    private static final int SOBRECARGA_ENTRADA = 200;
+
+    private final long bytesMaximo;
+    private final LinkedHashMap<String, Tabla> entradas = new LinkedHashMap<>(64, 0.75f, true);
+    private long version = -1;
+    private long bytes;
+    private long aciertos;
+    private long fallos;
+    private long desalojos;
+
+    /**
+     * @param bytesMaximo Memoria máxima ocupada por las filas renderizadas
+     */
+    public CacheTablaProductos(@Value("${inventario.cache.tabla-productos.bytes-maximo:33554432}") long bytesMaximo) {
+        this.bytesMaximo = bytesMaximo;
+    }
+
+    /**
+     * Busca la tabla renderizada de una página.
+     *
+     * @param versionCatalogo Versión del catálogo leída antes de consultar datos
+     * @param clave Página y rol
+     * @return Tabla renderizada o null
+     */
+    public synchronized Tabla obtener(long versionCatalogo, String clave) {
+        descartarVersionesAnteriores(versionCatalogo);
+        Tabla t = versionCatalogo == version ? entradas.get(clave) : null;
+        if (t == null) {
+            fallos++;
+        } else {
+            aciertos++;
+        }
+        return t;
+    }
+
+    /**
+     * Guarda la tabla renderizada de una página.
+     *
+     * @param versionCatalogo Versión del catálogo leída antes de consultar datos
+     * @param clave Página y rol
+     * @param tabla Filas renderizadas y datos de paginación
+     */
+    public synchronized void guardar(long versionCatalogo, String clave, Tabla tabla) {
+        descartarVersionesAnteriores(versionCatalogo);
+        if (versionCatalogo != version || tabla.coste(clave) > bytesMaximo) {
+            return; // El catálogo ya cambió, o la tabla no cabe
+        }
+        Tabla anterior = entradas.put(clave, tabla);
+        if (anterior != null) {
+            bytes -= anterior.coste(clave);
+        }
+        bytes += tabla.coste(clave);
+        Iterator<Map.Entry<String, Tabla>> it = entradas.entrySet().iterator();
+        while (bytes > bytesMaximo && it.hasNext()) {
+            Map.Entry<String, Tabla> masAntigua = it.next();
+            bytes -= masAntigua.getValue().coste(masAntigua.getKey());
+            it.remove();
+            desalojos++;
+        }
+    }
+
+    private void descartarVersionesAnteriores(long versionCatalogo) {
+        if (versionCatalogo > version) {
+            desalojos += entradas.size();
+            entradas.clear();
+            bytes = 0;
+            version = versionCatalogo;
+        }
+    }
+
+    /**
+     * Estadísticas de la caché; tamaño y máximo se expresan en KB.
+     *
+     * @return Contadores actuales
+     */
+    public synchronized EstadisticasCache estadisticas() {
+        return new EstadisticasCache(aciertos, fallos, desalojos, (int) (bytes / 1024), (int) (bytesMaximo / 1024));
+    }
+
+    /**
+     * Filas renderizadas de una página más los datos que la plantilla
+     * necesita sin volver a consultar la base de datos.
+     */
+    public static final class Tabla {
+
+        private final byte[] filas;
+        private final int cantidad;
+        private final String siguienteCursor;
+        private final int tamano;
+
+        public Tabla(String filasHtml, int cantidad, String siguienteCursor, int tamano) {
+            this.filas = filasHtml.getBytes(StandardCharsets.UTF_8);
+            this.cantidad = cantidad;
+            this.siguienteCursor = siguienteCursor;
+            this.tamano = tamano;
+        }
+
+        public String getFilasHtml() {
+            return new String(filas, StandardCharsets.UTF_8);
+        }
+
+        public int getCantidad() {
+            return cantidad;
+        }
+
+        public String getSiguienteCursor() {
+            return siguienteCursor;
+        }
+
+        public int getTamano() {
+            return tamano;
+        }
+
+        private long coste(String clave) {
+            return filas.length + 2L * clave.length() + SOBRECARGA_ENTRADA
+                    + (siguienteCursor != null ? 2L * siguienteCursor.length() : 0);
+        }
+    }
+}
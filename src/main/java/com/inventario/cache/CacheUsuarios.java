@@ -0,0 +1,63 @@
+package com.inventario.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caché de corta duración de los UserDetails cargados en el login.
+ *
+ * La usa DaoAuthenticationProvider para no consultar la tabla de usuarios
+ * en cada intento de login. Si la contraseña no coincide con la versión en
+ * caché, Spring Security vuelve a cargar el usuario desde la base de datos.
+ * Un usuario desactivado directamente en la base puede seguir entrando con
+ * la misma contraseña hasta que vence su entrada (ttl-segundos).
+ *
+ * Guarda y devuelve copias: ProviderManager borra las credenciales del
+ * principal autenticado, y sin copias eso vaciaría la contraseña en caché.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Component
+public class CacheUsuarios implements UserCache {
+
+    private final CacheLimitada<String, UserDetails> cache;
+
+    /**
+     * @param tamanoMaximo Número máximo de usuarios en caché
+     * @param ttlSegundos Tiempo de vida de cada entrada en segundos
+     */
+    public CacheUsuarios(@Value("${inventario.cache.usuarios.tamano-maximo:1000}") int tamanoMaximo,
+                         @Value("${inventario.cache.usuarios.ttl-segundos:60}") long ttlSegundos) {
+        this.cache = new CacheLimitada<>(tamanoMaximo, ttlSegundos * 1000L);
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String username) {
+        UserDetails u = cache.obtener(username);
+        return u != null ? copiar(u) : null;
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        cache.guardar(user.getUsername(), copiar(user));
+    }
+
+    @Override
+    public void removeUserFromCache(String username) {
+        cache.invalidar(username);
+    }
+
+    /**
+     * @return Estadísticas de la caché de usuarios
+     */
+    public EstadisticasCache estadisticas() {
+        return cache.estadisticas();
+    }
+
+    private static UserDetails copiar(UserDetails u) {
+        return User.withUserDetails(u).build();
+    }
+}
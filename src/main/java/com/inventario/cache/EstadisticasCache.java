@@ -0,0 +1,51 @@
+package com.inventario.cache;
+
+/**
+ * Instantánea de los contadores de una {@link CacheLimitada}.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+public class EstadisticasCache {
+
+    private final long aciertos;
+    private final long fallos;
+    private final long desalojos;
+    private final int tamano;
+    private final int tamanoMaximo;
+
+    public EstadisticasCache(long aciertos, long fallos, long desalojos, int tamano, int tamanoMaximo) {
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+        this.desalojos = desalojos;
+        this.tamano = tamano;
+        this.tamanoMaximo = tamanoMaximo;
+    }
+
+    public long getAciertos() {
+        return aciertos;
+    }
+
+    public long getFallos() {
+        return fallos;
+    }
+
+    public long getDesalojos() {
+        return desalojos;
+    }
+
+    public int getTamano() {
+        return tamano;
+    }
+
+    public int getTamanoMaximo() {
+        return tamanoMaximo;
+    }
+
+    /**
+     * @return Proporción de aciertos entre 0 y 1 (0 si no hubo lecturas)
+     */
+    public double getTasaAciertos() {
+        long total = aciertos + fallos;
+        return total == 0 ? 0.0 : (double) aciertos / total;
+    }
+}
@@ -0,0 +1,47 @@
+package com.inventario.cache;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador global de versión del catálogo de productos.
+ *
+ * Cada escritura sobre productos lo incrementa; lo que se guarda en caché
+ * con la versión leída antes de consultar la base de datos deja de usarse
+ * en cuanto el catálogo cambia. Dentro de una transacción el incremento se
+ * aplica tras el commit, para que nadie cachee datos todavía no confirmados
+ * con la versión nueva.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Component
+public class VersionCatalogo {
+
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * @return Versión actual del catálogo
+     */
+    public long actual() {
+        return version.get();
+    }
+
+    /**
+     * Marca que el catálogo cambió (tras el commit si hay transacción activa).
+     */
+    public void incrementar() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.inventario.config;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Calcula la fuerza (work factor) de BCrypt adecuada para el hardware actual.
+ *
+ * Cada unidad de fuerza duplica el costo de BCrypt. Se mide el tiempo de
+ * codificación con una fuerza base baja y se extrapola para elegir la mayor
+ * fuerza cuyo tiempo estimado no supere la latencia objetivo.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+public final class CalibradorBCrypt {
+
+    /**
+     * Fuerza con la que se mide (rápida, pero suficiente para medir bien).
+     */
+    private static final int FUERZA_BASE = 8;
+
+    private static final int MEDICIONES = 5;
+
+    private CalibradorBCrypt() {}
+
+    /**
+     * Elige la fuerza de BCrypt para una latencia objetivo.
+     *
+     * @param latenciaObjetivoMs Latencia máxima deseada por verificación
+     * @param fuerzaMinima Fuerza mínima aceptable (por seguridad)
+     * @param fuerzaMaxima Fuerza máxima permitida
+     * @return Fuerza elegida dentro de [fuerzaMinima, fuerzaMaxima]
+     */
+    public static int calibrar(long latenciaObjetivoMs, int fuerzaMinima, int fuerzaMaxima) {
+        BCryptPasswordEncoder base = new BCryptPasswordEncoder(FUERZA_BASE);
+        // Calentamiento para que el JIT compile el algoritmo antes de medir
+        base.encode("calibracion");
+        long mejorNanos = Long.MAX_VALUE;
+        for (int i = 0; i < MEDICIONES; i++) {
+            long inicio = System.nanoTime();
+            base.encode("calibracion");
+            mejorNanos = Math.min(mejorNanos, System.nanoTime() - inicio);
+        }
+        return fuerzaParaObjetivo(mejorNanos, latenciaObjetivoMs, fuerzaMinima, fuerzaMaxima);
+    }
+
+    /**
+     * Extrapola la fuerza a partir de una medición con la fuerza base.
+     *
+     * @param nanosFuerzaBase Tiempo medido con FUERZA_BASE
+     * @param latenciaObjetivoMs Latencia máxima deseada
+     * @param fuerzaMinima Fuerza mínima aceptable
+     * @param fuerzaMaxima Fuerza máxima permitida
+     * @return Fuerza elegida dentro de [fuerzaMinima, fuerzaMaxima]
+     */
+    static int fuerzaParaObjetivo(long nanosFuerzaBase, long latenciaObjetivoMs, int fuerzaMinima, int fuerzaMaxima) {
+        long objetivoNanos = latenciaObjetivoMs * 1_000_000L;
+        int fuerza = FUERZA_BASE;
+        double estimado = Math.max(nanosFuerzaBase, 1);
+        while (fuerza < fuerzaMaxima && estimado * 2 <= objetivoNanos) {
+            estimado *= 2;
+            fuerza++;
+        }
+        return Math.max(fuerzaMinima, Math.min(fuerza, fuerzaMaxima));
+    }
+}
@@ -0,0 +1,212 @@
+package com.inventario.config;
+
+import com.inventario.cache.CacheCredenciales;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.security.authentication.AuthenticationServiceException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Codificador de contraseñas que verifica en un pool de hilos acotado.
+ *
+ * BCrypt consume del orden de 100 ms de CPU por verificación. Durante una
+ * ráfaga de logins, esta clase limita cuántas verificaciones se ejecutan a
+ * la vez (hilos del pool) y cuántas esperan (cola acotada); cuando ambos se
+ * llenan, el intento se rechaza de inmediato en lugar de acumular trabajo.
+ * Así los logins no pueden consumir toda la CPU ni crecer sin límite.
+ *
+ * El hilo de Tomcat que procesa el login sigue esperando el resultado (hasta
+ * el timeout), pero nunca hay más de hilos + cola esperando a la vez.
+ *
+ * Las verificaciones correctas recientes se responden desde
+ * {@link CacheCredenciales} sin pasar por el pool: así los clientes de la API
+ * con HTTP Basic, que envían las credenciales en cada petición, no compiten
+ * con los logins interactivos.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+public class CodificadorContrasenaAcotado implements PasswordEncoder, DisposableBean {
+
+    private final Logger registrador = LoggerFactory.getLogger(CodificadorContrasenaAcotado.class);
+
+    private final PasswordEncoder delegado;
+    private final CacheCredenciales credenciales;
+    private final ThreadPoolExecutor pool;
+    private final long timeoutMillis;
+
+    private final LongAdder enviadas = new LongAdder();
+    private final LongAdder rechazadas = new LongAdder();
+    private final LongAdder expiradas = new LongAdder();
+    private final LongAdder nanosEnCola = new LongAdder();
+
+    /**
+     * @param delegado Codificador real (BCrypt)
+     * @param credenciales Caché de verificaciones correctas recientes
+     * @param hilos Número de hilos dedicados a verificar contraseñas
+     * @param capacidadCola Número máximo de verificaciones en espera
+     * @param timeoutMillis Tiempo máximo de espera por una verificación
+     */
+    public CodificadorContrasenaAcotado(PasswordEncoder delegado, CacheCredenciales credenciales,
+                                        int hilos, int capacidadCola, long timeoutMillis) {
+        this.delegado = delegado;
+        this.credenciales = credenciales;
+        this.timeoutMillis = timeoutMillis;
+        AtomicInteger contador = new AtomicInteger();
+        ThreadFactory fabrica = r -> {
+            Thread t = new Thread(r, "verificacion-contrasena-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        };
+        this.pool = new ThreadPoolExecutor(hilos, hilos, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacidadCola), fabrica, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Codifica directamente en el hilo llamador (sólo se usa al crear usuarios).
+     */
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return delegado.encode(rawPassword);
+    }
+
+    /**
+     * Verifica la contraseña en el pool acotado, salvo que la misma pareja se
+     * haya verificado correctamente hace poco.
+     *
+     * @throws AuthenticationServiceException si el pool está saturado o se agota el tiempo
+     */
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return delegado.matches(rawPassword, encodedPassword);
+        }
+        if (credenciales.verificada(rawPassword, encodedPassword)) {
+            return true;
+        }
+        boolean correcta = verificarEnPool(rawPassword, encodedPassword);
+        if (correcta) {
+            credenciales.registrar(rawPassword, encodedPassword);
+        }
+        return correcta;
+    }
+
+    private boolean verificarEnPool(CharSequence rawPassword, String encodedPassword) {
+        long encolada = System.nanoTime();
+        Future<Boolean> resultado;
+        try {
+            resultado = pool.submit(() -> {
+                nanosEnCola.add(System.nanoTime() - encolada);
+                return delegado.matches(rawPassword, encodedPassword);
+            });
+            enviadas.increment();
+        } catch (RejectedExecutionException e) {
+            rechazadas.increment();
+            registrador.warn("Verificación de contraseña rechazada: pool de login saturado");
+            throw new AuthenticationServiceException("Servicio de login saturado, intente de nuevo", e);
+        }
+        try {
+            return resultado.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            resultado.cancel(true);
+            expiradas.increment();
+            throw new AuthenticationServiceException("Tiempo de verificación de contraseña agotado", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AuthenticationServiceException("Verificación de contraseña interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new AuthenticationServiceException("Error al verificar la contraseña", e.getCause());
+        }
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegado.upgradeEncoding(encodedPassword);
+    }
+
+    /**
+     * Obtiene una instantánea de las métricas del pool.
+     *
+     * @return Métricas de verificaciones enviadas, rechazadas, en cola, etc.
+     */
+    public MetricasPoolLogin metricas() {
+        long completadas = pool.getCompletedTaskCount();
+        long esperaMediaMicros = completadas == 0 ? 0 : nanosEnCola.sum() / completadas / 1000;
+        return new MetricasPoolLogin(enviadas.sum(), rechazadas.sum(), expiradas.sum(), completadas,
+                pool.getActiveCount(), pool.getQueue().size(), pool.getMaximumPoolSize(), esperaMediaMicros);
+    }
+
+    @Override
+    public void destroy() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Instantánea de las métricas del pool de verificación de contraseñas.
+     */
+    public static class MetricasPoolLogin {
+        private final long enviadas;
+        private final long rechazadas;
+        private final long expiradas;
+        private final long completadas;
+        private final int activas;
+        private final int enCola;
+        private final int hilos;
+        private final long esperaMediaMicros;
+
+        public MetricasPoolLogin(long enviadas, long rechazadas, long expiradas, long completadas,
+                                 int activas, int enCola, int hilos, long esperaMediaMicros) {
+            this.enviadas = enviadas;
+            this.rechazadas = rechazadas;
+            this.expiradas = expiradas;
+            this.completadas = completadas;
+            this.activas = activas;
+            this.enCola = enCola;
+            this.hilos = hilos;
+            this.esperaMediaMicros = esperaMediaMicros;
+        }
+
+        public long getEnviadas() {
+            return enviadas;
+        }
+
+        public long getRechazadas() {
+            return rechazadas;
+        }
+
+        public long getExpiradas() {
+            return expiradas;
+        }
+
+        public long getCompletadas() {
+            return completadas;
+        }
+
+        public int getActivas() {
+            return activas;
+        }
+
+        public int getEnCola() {
+            return enCola;
+        }
+
+        public int getHilos() {
+            return hilos;
+        }
+
+        public long getEsperaMediaMicros() {
+            return esperaMediaMicros;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.inventario.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Comando que genera un catálogo sintético grande y termina (perfil
+ * "generador").
+ *
+ * Se ejecuta después de los demás CommandLineRunner (así ya existen los
+ * usuarios admin y user) y cierra la aplicación antes de ApplicationReadyEvent,
+ * sin construir el índice de búsqueda ni las cachés sobre millones de filas.
+ *
+ * Uso:
+ *   java -jar target/InventarioSpringBoot.jar --spring.profiles.active=generador \
+ *        --inventario.generador.productos=2000000 --inventario.generador.vaciar=true
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Component
+@Profile("generador")
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class ComandoGeneradorDatos implements CommandLineRunner {
+
+    private final GeneradorCatalogo generador;
+    private final ConfigurableApplicationContext contexto;
+    private final boolean vaciar;
+
+    private final Logger registrador = LoggerFactory.getLogger(ComandoGeneradorDatos.class);
+
+    public ComandoGeneradorDatos(GeneradorCatalogo generador, ConfigurableApplicationContext contexto,
+                                 @Value("${inventario.generador.vaciar:false}") boolean vaciar) {
+        this.generador = generador;
+        this.contexto = contexto;
+        this.vaciar = vaciar;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        int codigo = 0;
+        try {
+            if (vaciar) {
+                generador.vaciar();
+            }
+            long existentes = generador.contarProductos();
+            if (existentes > 0) {
+                throw new Exception("El catálogo ya tiene " + existentes
+                        + " productos; use --inventario.generador.vaciar=true para reemplazarlo");
+            }
+            generador.generar();
+        } catch (Exception e) {
+            registrador.error("No se pudo generar el catálogo: {}", e.getMessage(), e);
+            codigo = 1;
+        }
+        int salida = codigo;
+        System.exit(SpringApplication.exit(contexto, () -> salida));
+    }
+}
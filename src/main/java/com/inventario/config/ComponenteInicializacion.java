@@ -4,6 +4,7 @@ import com.inventario.model.Usuario;
 import com.inventario.repository.UsuarioRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
@@ -12,12 +13,17 @@ import org.springframework.stereotype.Component;
  * Componente de inicialización para crear usuarios de prueba.
  * 
  * Se ejecuta automáticamente cuando la aplicación inicia. Crea usuarios
- * de prueba si no existen, con contraseñas encriptadas usando BCrypt.
+ * de prueba si no existen, con contraseñas encriptadas usando BCrypt
+ * con la fuerza configurada en inventario.seguridad.bcrypt.
  * 
  * Usuarios creados:
  * - admin / admin123 (Rol: ROLE_ADMIN)
  * - user / user123 (Rol: ROLE_USER)
  * 
+ * Con inventario.inicializacion.diferida (perfil "produccion") la creación
+ * se hace en un hilo aparte y no retrasa el arranque: cada BCrypt cuesta
+ * cientos de milisegundos con la fuerza de producción.
+ * 
  * @author Sistema de Inventario - Sexto Semestre
  * @version 1.0
  * @since 2025
@@ -34,6 +40,11 @@ public class ComponenteInicializacion implements CommandLineRunner {
      * Codificador de contraseñas para encriptar con BCrypt.
      */
     private final PasswordEncoder codificadorContrasenas;
+
+    /**
+     * Si la creación de usuarios se hace fuera del camino de arranque.
+     */
+    private final boolean diferida;
     
     private final Logger registrador = LoggerFactory.getLogger(ComponenteInicializacion.class);
 
@@ -42,16 +53,20 @@ public class ComponenteInicializacion implements CommandLineRunner {
      *
      * @param repositorioUsuarios Repositorio de usuarios
      * @param codificadorContrasenas   Codificador de contraseñas (BCrypt)
+     * @param diferida Crear los usuarios en un hilo aparte
      */
-    public ComponenteInicializacion(UsuarioRepository repositorioUsuarios, PasswordEncoder codificadorContrasenas) {
+    public ComponenteInicializacion(UsuarioRepository repositorioUsuarios, PasswordEncoder codificadorContrasenas,
+                                    @Value("${inventario.inicializacion.diferida:false}") boolean diferida) {
         this.repositorioUsuarios = repositorioUsuarios;
         this.codificadorContrasenas = codificadorContrasenas;
+        this.diferida = diferida;
     }
     
     /**
      * Método ejecutado al iniciar la aplicación.
      * 
-     * Crea usuarios de prueba si no existen en la base de datos.
+     * Crea usuarios de prueba si no existen en la base de datos, en un
+     * hilo aparte si la inicialización es diferida.
      * Las contraseñas se encriptan automáticamente usando BCrypt.
      * 
      * @param args Argumentos de línea de comandos (no utilizados)
@@ -59,6 +74,22 @@ public class ComponenteInicializacion implements CommandLineRunner {
      */
     @Override
     public void run(String... args) throws Exception {
+        if (!diferida) {
+            crearUsuariosDePrueba();
+            return;
+        }
+        Thread hilo = new Thread(() -> {
+            try {
+                crearUsuariosDePrueba();
+            } catch (Exception e) {
+                registrador.error("No se pudieron crear los usuarios de prueba: {}", e.getMessage(), e);
+            }
+        }, "inicializacion-usuarios");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    private void crearUsuariosDePrueba() {
         // Verificar si el usuario admin ya existe
         if (!repositorioUsuarios.existsByUsername("admin")) {
             Usuario admin = new Usuario();
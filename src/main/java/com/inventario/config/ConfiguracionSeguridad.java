@@ -1,18 +1,31 @@
 package com.inventario.config;
 
+import com.inventario.cache.CacheCredenciales;
+import com.inventario.cache.CacheUsuarios;
 import com.inventario.service.ServicioDetallesUsuario;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.http.HttpMethod;
+import jakarta.servlet.DispatcherType;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.context.HttpSessionSecurityContextRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
 
 /**
  * Configuración de Spring Security para el sistema.
@@ -29,6 +42,8 @@ import org.springframework.security.web.SecurityFilterChain;
 @Configuration
 @EnableWebSecurity
 public class ConfiguracionSeguridad {
+
+    private final Logger registrador = LoggerFactory.getLogger(ConfiguracionSeguridad.class);
     
     /**
      * Servicio personalizado para cargar detalles del usuario desde la BD.
@@ -50,14 +65,23 @@ public class ConfiguracionSeguridad {
      * 
      * Usa DAO (acceso a base de datos) para obtener usuarios y compara
      * contraseñas usando BCrypt. Este es el método estándar de autenticación.
+     * Los usuarios cargados se guardan unos segundos en una caché para no
+     * consultar la base de datos en cada intento de login.
+     * Si el hash almacenado usa un formato o una fuerza inferior a la actual,
+     * se vuelve a codificar tras un login correcto (UserDetailsPasswordService).
      * 
+     * @param codificadorContrasena Codificador de contraseñas (pool acotado)
+     * @param cacheUsuarios Caché de UserDetails
      * @return DaoAuthenticationProvider configurado
      */
     @Bean
-    public DaoAuthenticationProvider proveedorAutenticacion() {
+    public DaoAuthenticationProvider proveedorAutenticacion(PasswordEncoder codificadorContrasena,
+                                                            CacheUsuarios cacheUsuarios) {
         DaoAuthenticationProvider proveedorAuth = new DaoAuthenticationProvider();
         proveedorAuth.setUserDetailsService(servicioDetallesUsuario);
-        proveedorAuth.setPasswordEncoder(codificadorContrasena());
+        proveedorAuth.setPasswordEncoder(codificadorContrasena);
+        proveedorAuth.setUserCache(cacheUsuarios);
+        proveedorAuth.setUserDetailsPasswordService(servicioDetallesUsuario);
         return proveedorAuth;
     }
     
@@ -82,11 +106,91 @@ public class ConfiguracionSeguridad {
      * Usa BCrypt, que es el estándar de la industria para cifrar contraseñas.
      * BCrypt es lento a propósito para dificultar ataques de fuerza bruta.
      * 
-     * @return PasswordEncoder que usa BCrypt
+     * La fuerza (work factor) es configurable; con calibración activada se
+     * elige al iniciar la mayor fuerza que no supere la latencia objetivo.
+     * Los hashes nuevos llevan el prefijo {bcrypt} (DelegatingPasswordEncoder);
+     * los hashes antiguos sin prefijo se siguen aceptando y se actualizan en
+     * el siguiente login correcto.
+     * 
+     * Las verificaciones se ejecutan en un pool de hilos acotado para que una
+     * ráfaga de logins no consuma todos los hilos ni toda la CPU; las
+     * verificaciones correctas recientes (peticiones HTTP Basic repetidas de la
+     * API) se responden desde la caché de credenciales sin usar el pool.
+     * 
+     * @param credenciales Caché de verificaciones correctas recientes
+     * @param fuerza Fuerza de BCrypt cuando no se calibra
+     * @param calibrar Si se calcula la fuerza al iniciar
+     * @param latenciaObjetivoMs Latencia objetivo por verificación al calibrar
+     * @param fuerzaMinima Fuerza mínima aceptada al calibrar
+     * @param fuerzaMaxima Fuerza máxima aceptada al calibrar
+     * @param hilos Hilos dedicados a verificar contraseñas
+     * @param capacidadCola Verificaciones que pueden esperar en cola
+     * @param timeoutMillis Tiempo máximo de espera de una verificación
+     * @return PasswordEncoder que usa BCrypt sobre un pool acotado
      */
     @Bean
-    public PasswordEncoder codificadorContrasena() {
-        return new BCryptPasswordEncoder();
+    public CodificadorContrasenaAcotado codificadorContrasena(
+            CacheCredenciales credenciales,
+            @Value("${inventario.seguridad.bcrypt.fuerza:10}") int fuerza,
+            @Value("${inventario.seguridad.bcrypt.calibrar:false}") boolean calibrar,
+            @Value("${inventario.seguridad.bcrypt.latencia-objetivo-ms:100}") long latenciaObjetivoMs,
+            @Value("${inventario.seguridad.bcrypt.fuerza-minima:10}") int fuerzaMinima,
+            @Value("${inventario.seguridad.bcrypt.fuerza-maxima:14}") int fuerzaMaxima,
+            @Value("${inventario.login.hilos:4}") int hilos,
+            @Value("${inventario.login.capacidad-cola:64}") int capacidadCola,
+            @Value("${inventario.login.timeout-ms:5000}") long timeoutMillis) {
+        int fuerzaEfectiva = fuerza;
+        if (calibrar) {
+            fuerzaEfectiva = CalibradorBCrypt.calibrar(latenciaObjetivoMs, fuerzaMinima, fuerzaMaxima);
+            registrador.info("Fuerza de BCrypt calibrada a {} para una latencia objetivo de {} ms",
+                    fuerzaEfectiva, latenciaObjetivoMs);
+        }
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(fuerzaEfectiva);
+        DelegatingPasswordEncoder delegante = new DelegatingPasswordEncoder("bcrypt", Map.of("bcrypt", bcrypt));
+        // Hashes antiguos sin prefijo {id} (data.sql, usuarios existentes)
+        delegante.setDefaultPasswordEncoderForMatches(bcrypt);
+        return new CodificadorContrasenaAcotado(delegante, credenciales, hilos, capacidadCola, timeoutMillis);
+    }
+    
+    /**
+     * Configura la seguridad de la API REST y del endpoint de métricas.
+     * 
+     * Estos clientes (scripts, sondeos, Prometheus) se autentican con HTTP
+     * Basic en cada petición y no usan sesión. La autenticación no se guarda
+     * entre peticiones: la caché de usuarios evita recargar el usuario y la de
+     * credenciales repetir BCrypt. HTTP Basic sólo se acepta en estas rutas;
+     * las páginas usan el login por formulario de la otra cadena. Una sesión
+     * ya iniciada con el formulario también vale (enlace "Ver métricas" del
+     * panel), pero esta cadena nunca crea sesiones.
+     * 
+     * @param http Constructor de seguridad HTTP
+     * @return Cadena de filtros de la API
+     * @throws Exception Si hay error en la configuración
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain cadenaFiltrosApi(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/api/**", "/admin/metricas")
+            .authorizeHttpRequests((authz) -> authz
+                .requestMatchers("/admin/metricas").hasRole("ADMIN")
+                .anyRequest().authenticated()
+            )
+            .httpBasic(Customizer.withDefaults())
+            .sessionManagement((sesion) -> sesion.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .securityContext((contexto) -> contexto.securityContextRepository(lecturaSesion()))
+            .csrf((csrf) -> csrf.disable());
+
+        return http.build();
+    }
+    
+    /**
+     * Repositorio que lee el contexto de una sesión existente sin crearla.
+     */
+    private static HttpSessionSecurityContextRepository lecturaSesion() {
+        HttpSessionSecurityContextRepository repositorio = new HttpSessionSecurityContextRepository();
+        repositorio.setAllowSessionCreation(false);
+        return repositorio;
     }
     
     /**
@@ -103,10 +207,15 @@ public class ConfiguracionSeguridad {
      * @throws Exception Si hay error en la configuración
      */
     @Bean
+    @Order(2)
     public SecurityFilterChain cadenaFiltrosSeguridad(HttpSecurity http) throws Exception {
         http
             // ==================== AUTORIZACIÓN ====================
             .authorizeHttpRequests((authz) -> authz
+                // Despachos asíncronos (fin del canal SSE): la petición original ya fue autorizada
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                // Página de error (ej. el 401 de la API): la petición original ya se evaluó
+                .dispatcherTypeMatchers(DispatcherType.ERROR).permitAll()
                 // Rutas públicas (sin autenticación requerida)
                 .requestMatchers("/", "/login", "/css/**", "/js/**", "/images/**").permitAll()
                 // Rutas para administración (solo accesible por ROLE_ADMIN)
@@ -0,0 +1,139 @@
+package com.inventario.config;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Diagnóstico del modo de hilos virtuales (perfil "virtual").
+ *
+ * Un hilo virtual que se bloquea (E/S, espera de una conexión del pool)
+ * dentro de un bloque {@code synchronized} queda fijado (pinned) a su hilo
+ * portador y deja de liberar el portador para otras tareas; con suficientes
+ * bloqueos así el modo virtual rinde peor que el de hilos de plataforma.
+ *
+ * Con {@code inventario.hilos-virtuales.diagnostico-pinning} activo se abre
+ * un flujo de JFR sobre el evento {@code jdk.VirtualThreadPinned} y cada
+ * fijación que dure más del umbral se registra con el primer marco de la
+ * aplicación de su pila. En Java 17 el evento no existe y el flujo no recibe
+ * nada, así que el componente compila y arranca igual en ambas versiones.
+ *
+ * No es perezoso aunque se active spring.main.lazy-initialization: el flujo
+ * debe estar abierto antes de las primeras peticiones.
+ */
+@Component
+@Lazy(false)
+public class DiagnosticoHilosVirtuales {
+
+    private static final String EVENTO_PINNING = "jdk.VirtualThreadPinned";
+    private static final String PAQUETE_APLICACION = "com.inventario.";
+
+    private final Logger registrador = LoggerFactory.getLogger(DiagnosticoHilosVirtuales.class);
+
+    private final boolean hilosVirtualesSolicitados;
+    private final boolean diagnosticoActivo;
+    private final long umbralMs;
+
+    private final AtomicLong eventos = new AtomicLong();
+    private final AtomicLong nanosFijados = new AtomicLong();
+
+    private RecordingStream flujo;
+
+    public DiagnosticoHilosVirtuales(
+            @Value("${spring.threads.virtual.enabled:false}") boolean hilosVirtualesSolicitados,
+            @Value("${inventario.hilos-virtuales.diagnostico-pinning:false}") boolean diagnosticoActivo,
+            @Value("${inventario.hilos-virtuales.umbral-pinning-ms:20}") long umbralMs) {
+        this.hilosVirtualesSolicitados = hilosVirtualesSolicitados;
+        this.diagnosticoActivo = diagnosticoActivo;
+        this.umbralMs = umbralMs;
+    }
+
+    @PostConstruct
+    void iniciar() {
+        if (hilosVirtualesSolicitados && !hilosVirtualesDisponibles()) {
+            registrador.warn("spring.threads.virtual.enabled está activo pero la JVM es Java {}:"
+                    + " se usan hilos de plataforma. Compile y ejecute con -Pjava21.",
+                    Runtime.version().feature());
+        }
+        if (!diagnosticoActivo) {
+            return;
+        }
+        try {
+            flujo = new RecordingStream();
+            flujo.enable(EVENTO_PINNING).withThreshold(Duration.ofMillis(umbralMs)).withStackTrace();
+            flujo.onEvent(EVENTO_PINNING, this::registrarFijacion);
+            flujo.startAsync();
+            registrador.info("Diagnóstico de pinning activo (umbral {} ms)", umbralMs);
+        } catch (RuntimeException e) {
+            // JFR puede no estar disponible en algunas imágenes de la JVM
+            registrador.warn("No se pudo iniciar el diagnóstico de pinning: {}", e.getMessage());
+            flujo = null;
+        }
+    }
+
+    @PreDestroy
+    void detener() {
+        if (flujo != null) {
+            flujo.close();
+        }
+    }
+
+    private void registrarFijacion(RecordedEvent evento) {
+        Duration duracion = evento.getDuration();
+        eventos.incrementAndGet();
+        nanosFijados.addAndGet(duracion.toNanos());
+        registrador.warn("Hilo virtual fijado {} ms en {}", duracion.toMillis(), origen(evento.getStackTrace()));
+    }
+
+    /**
+     * Primer marco de la aplicación de la pila (o el primero de todos si la
+     * fijación ocurre sólo en código de librerías, p. ej. el driver JDBC).
+     */
+    private static String origen(RecordedStackTrace pila) {
+        if (pila == null || pila.getFrames().isEmpty()) {
+            return "(sin pila)";
+        }
+        for (RecordedFrame marco : pila.getFrames()) {
+            String clase = marco.getMethod().getType().getName();
+            if (clase.startsWith(PAQUETE_APLICACION)) {
+                return describir(marco);
+            }
+        }
+        return describir(pila.getFrames().get(0));
+    }
+
+    private static String describir(RecordedFrame marco) {
+        return marco.getMethod().getType().getName() + "." + marco.getMethod().getName()
+                + ":" + marco.getLineNumber();
+    }
+
+    private static boolean hilosVirtualesDisponibles() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * Contadores para la página de estadísticas.
+     *
+     * @return hilosVirtuales (1 si el modo está activo), eventosPinning y msPinning
+     */
+    public Map<String, Long> metricas() {
+        Map<String, Long> m = new LinkedHashMap<>();
+        m.put("hilosVirtuales", hilosVirtualesSolicitados && hilosVirtualesDisponibles() ? 1L : 0L);
+        m.put("eventosPinning", eventos.get());
+        m.put("msPinning", nanosFijados.get() / 1_000_000L);
+        return m;
+    }
+}
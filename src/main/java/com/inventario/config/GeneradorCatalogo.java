@@ -0,0 +1,415 @@
+package com.inventario.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Generador de un catálogo sintético grande y reproducible.
+ *
+ * Genera categorías, productos y usuarios con volúmenes realistas (millones
+ * de productos) sin pasar por JPA:
+ * - las categorías siguen una distribución de Zipf (unas pocas concentran la
+ *   mayoría de los productos, como en un catálogo real);
+ * - los nombres se arman con sustantivo, adjetivo concordado, material y
+ *   marca en español ("Silla plegable de madera Cóndor 412");
+ * - los precios siguen una distribución log-normal y hay productos sin stock
+ *   e inactivos.
+ *
+ * Los productos se escriben en bloques de ids fijos (id = i, código
+ * GEN-00000i) con la semilla derivada del bloque, por lo que el resultado
+ * es idéntico con cualquier número de hilos: misma semilla, mismos datos y
+ * mismos ids. Los primeros productos son los "calientes" de las pruebas de
+ * carga, con stock muy alto.
+ *
+ * Modos de carga de productos:
+ * - insert: sentencias INSERT de varias filas, en paralelo (cualquier base);
+ * - archivo: se genera un TSV y se carga con LOAD DATA LOCAL INFILE (sólo
+ *   MySQL, con allowLoadLocalInfile=true en el driver y local_infile=ON en
+ *   el servidor).
+ *
+ * No crea movimientos de stock: el libro crea puntos de control iniciales
+ * para los productos sin movimientos.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Component
+public class GeneradorCatalogo {
+
+    /**
+     * Sentencias INSERT de varias filas por transacción.
+     */
+    private static final int SENTENCIAS_POR_TRANSACCION = 10;
+
+    /**
+     * Exponente de la distribución de Zipf de las categorías.
+     */
+    private static final double EXPONENTE_ZIPF = 1.1;
+
+    private static final String COLUMNAS_PRODUCTOS = "id, codigo, nombre, categoria, precio, stock, activo, version";
+
+    // Sustantivo y género (true = femenino) para concordar el adjetivo
+    private static final String[] SUSTANTIVOS = {"Silla", "Mesa", "Lámpara", "Mochila", "Cafetera", "Licuadora",
+            "Batería", "Cámara", "Impresora", "Alfombra", "Chaqueta", "Camisa", "Taza", "Sartén", "Olla", "Almohada",
+            "Monitor", "Teclado", "Ratón", "Cargador", "Cable", "Parlante", "Auricular", "Escritorio", "Estante",
+            "Ventilador", "Cuaderno", "Bolígrafo", "Reloj", "Router", "Disco", "Termo", "Cuchillo", "Colchón", "Zapato"};
+    private static final boolean[] FEMENINO = {true, true, true, true, true, true,
+            true, true, true, true, true, true, true, true, true, true,
+            false, false, false, false, false, false, false, false, false,
+            false, false, false, false, false, false, false, false, false, false};
+    // Adjetivos en masculino y femenino (iguales si no varían)
+    private static final String[][] ADJETIVOS = {{"compacto", "compacta"}, {"inalámbrico", "inalámbrica"},
+            {"ergonómico", "ergonómica"}, {"plegable", "plegable"}, {"portátil", "portátil"},
+            {"profesional", "profesional"}, {"recargable", "recargable"}, {"resistente", "resistente"},
+            {"clásico", "clásica"}, {"moderno", "moderna"}, {"ligero", "ligera"}, {"térmico", "térmica"},
+            {"premium", "premium"}, {"básico", "básica"}, {"reforzado", "reforzada"}};
+    private static final String[] MATERIALES = {"de acero", "de aluminio", "de madera", "de algodón", "de cuero",
+            "de vidrio", "de bambú", "de cerámica", "de plástico reciclado", "de lana", "de silicona", "de roble"};
+    private static final String[] MARCAS = {"Andina", "Cóndor", "Pacífico", "Quetzal", "Volcán", "Amazonía",
+            "Patagonia", "Caribe", "Sierra", "Altiplano", "Colibrí", "Jaguar", "Ceibo", "Nevado", "Orinoco"};
+    private static final String[] CATEGORIAS = {"Electrónica", "Hogar", "Cocina", "Oficina", "Muebles", "Ropa",
+            "Calzado", "Deportes", "Jardín", "Herramientas", "Iluminación", "Papelería", "Juguetes", "Mascotas",
+            "Salud", "Belleza", "Automotriz", "Ferretería", "Informática", "Telefonía", "Audio", "Fotografía",
+            "Viaje", "Bebés", "Alimentos", "Bebidas", "Limpieza", "Baño", "Dormitorio", "Camping"};
+    private static final String[] NOMBRES = {"María", "José", "Lucía", "Juan", "Camila", "Luis", "Valentina",
+            "Carlos", "Sofía", "Andrés", "Isabella", "Diego", "Daniela", "Jorge", "Gabriela", "Miguel"};
+    private static final String[] APELLIDOS = {"García", "Rodríguez", "Martínez", "López", "González", "Pérez",
+            "Sánchez", "Ramírez", "Torres", "Flores", "Rivera", "Gómez", "Díaz", "Vargas", "Castro", "Romero"};
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transacciones;
+    private final PasswordEncoder codificadorContrasenas;
+    private final int productos;
+    private final int categorias;
+    private final int usuarios;
+    private final String claveUsuarios;
+    private final long semilla;
+    private final int stockMaximo;
+    private final int skusCalientes;
+    private final int stockCalientes;
+    private final int filasPorInsert;
+    private final int hilos;
+    private final String modo;
+
+    private final Logger registrador = LoggerFactory.getLogger(GeneradorCatalogo.class);
+
+    public GeneradorCatalogo(JdbcTemplate jdbc, TransactionTemplate transacciones, PasswordEncoder codificadorContrasenas,
+                             @Value("${inventario.generador.productos:1000000}") int productos,
+                             @Value("${inventario.generador.categorias:200}") int categorias,
+                             @Value("${inventario.generador.usuarios:10000}") int usuarios,
+                             @Value("${inventario.generador.clave-usuarios:carga123}") String claveUsuarios,
+                             @Value("${inventario.generador.semilla:42}") long semilla,
+                             @Value("${inventario.generador.stock-maximo:1000}") int stockMaximo,
+                             @Value("${inventario.generador.skus-calientes:0}") int skusCalientes,
+                             @Value("${inventario.generador.stock-calientes:1000000}") int stockCalientes,
+                             @Value("${inventario.generador.filas-por-insert:1000}") int filasPorInsert,
+                             @Value("${inventario.generador.hilos:4}") int hilos,
+                             @Value("${inventario.generador.modo:insert}") String modo) {
+        this.jdbc = jdbc;
+        this.transacciones = transacciones;
+        this.codificadorContrasenas = codificadorContrasenas;
+        this.productos = productos;
+        this.categorias = Math.max(categorias, 1);
+        this.usuarios = usuarios;
+        this.claveUsuarios = claveUsuarios;
+        this.semilla = semilla;
+        this.stockMaximo = stockMaximo;
+        this.skusCalientes = skusCalientes;
+        this.stockCalientes = stockCalientes;
+        this.filasPorInsert = Math.max(filasPorInsert, 1);
+        this.hilos = Math.max(hilos, 1);
+        this.modo = modo;
+    }
+
+    /**
+     * Cuenta los productos existentes (el generador asigna los ids desde 1).
+     */
+    public long contarProductos() {
+        Long n = jdbc.queryForObject("SELECT COUNT(*) FROM productos", Long.class);
+        return n != null ? n : 0;
+    }
+
+    /**
+     * Borra el catálogo, su historial (pedidos, movimientos y puntos de
+     * control) y los usuarios generados, dejando a los demás usuarios.
+     */
+    public void vaciar() {
+        transacciones.executeWithoutResult(estado -> {
+            jdbc.update("DELETE FROM pedido_lineas");
+            jdbc.update("DELETE FROM pedidos");
+            jdbc.update("DELETE FROM movimientos_stock");
+            jdbc.update("DELETE FROM puntos_control_stock");
+            jdbc.update("DELETE FROM productos");
+            jdbc.update("DELETE FROM categorias");
+            jdbc.update("DELETE FROM usuarios WHERE email LIKE '%@generado.local'");
+        });
+        registrador.info("Catálogo vaciado");
+    }
+
+    /**
+     * Genera categorías, productos y usuarios según la configuración
+     * inventario.generador.*. La tabla de productos debe estar vacía.
+     *
+     * @throws IOException Si falla el archivo temporal del modo "archivo"
+     */
+    public void generar() throws IOException {
+        long inicio = System.nanoTime();
+        String[] nombresCategorias = nombresCategorias();
+        double[] acumuladaZipf = acumuladaZipf(categorias);
+
+        List<Object[]> filasCategorias = new ArrayList<>(categorias);
+        for (String nombre : nombresCategorias) {
+            filasCategorias.add(new Object[]{nombre, "Categoría generada: " + nombre});
+        }
+        insertarVariasFilas("categorias", "nombre, descripcion", "(?, ?)", filasCategorias);
+
+        long inicioProductos = System.nanoTime();
+        if ("archivo".equalsIgnoreCase(modo)) {
+            cargarProductosDesdeArchivo(nombresCategorias, acumuladaZipf);
+        } else {
+            insertarProductosEnParalelo(nombresCategorias, acumuladaZipf);
+        }
+        long msProductos = Math.max((System.nanoTime() - inicioProductos) / 1_000_000, 1);
+
+        String hash = codificadorContrasenas.encode(claveUsuarios);
+        SplittableRandom aleatorio = new SplittableRandom(semilla);
+        List<Object[]> filasUsuarios = new ArrayList<>(usuarios);
+        for (int i = 1; i <= usuarios; i++) {
+            String nombre = NOMBRES[aleatorio.nextInt(NOMBRES.length)] + " "
+                    + APELLIDOS[aleatorio.nextInt(APELLIDOS.length)] + " " + APELLIDOS[aleatorio.nextInt(APELLIDOS.length)];
+            filasUsuarios.add(new Object[]{"cliente" + i, "cliente" + i + "@generado.local", hash, nombre});
+        }
+        insertarVariasFilas("usuarios", "username, email, password, nombre_completo, activo, rol",
+                "(?, ?, ?, ?, true, 'ROLE_USER')", filasUsuarios);
+
+        registrador.info("Catálogo generado (modo {}, semilla {}): {} productos en {} ms ({} filas/s),"
+                        + " {} categorías, {} usuarios; total {} ms",
+                modo, semilla, productos, msProductos, productos * 1000L / msProductos, categorias, usuarios,
+                (System.nanoTime() - inicio) / 1_000_000);
+    }
+
+    // ==================== PRODUCTOS ====================
+
+    /**
+     * Inserta los productos por bloques de ids, cada bloque en su propia
+     * transacción y en el pool de hilos del generador.
+     */
+    private void insertarProductosEnParalelo(String[] nombresCategorias, double[] acumuladaZipf) {
+        int filasPorBloque = filasPorInsert * SENTENCIAS_POR_TRANSACCION;
+        int bloques = (productos + filasPorBloque - 1) / filasPorBloque;
+        ExecutorService ejecutor = Executors.newFixedThreadPool(hilos, tarea -> {
+            Thread hilo = new Thread(tarea, "generador-catalogo");
+            hilo.setDaemon(true);
+            return hilo;
+        });
+        try {
+            List<Future<?>> pendientes = new ArrayList<>(bloques);
+            for (int b = 0; b < bloques; b++) {
+                int desde = b * filasPorBloque + 1;
+                int hasta = Math.min(desde + filasPorBloque - 1, productos);
+                pendientes.add(ejecutor.submit(() -> {
+                    List<Object[]> filas = new ArrayList<>(hasta - desde + 1);
+                    generarProductos(desde, hasta, nombresCategorias, acumuladaZipf, fila -> filas.add(fila.clone()));
+                    insertarVariasFilas("productos", COLUMNAS_PRODUCTOS, "(?, ?, ?, ?, ?, ?, ?, 0)", filas);
+                }));
+            }
+            for (int i = 0; i < pendientes.size(); i++) {
+                pendientes.get(i).get();
+                if ((i + 1) % 20 == 0) {
+                    registrador.info("Productos insertados: {} de {}",
+                            Math.min((long) (i + 1) * filasPorBloque, productos), productos);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generación interrumpida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Error al insertar productos", e.getCause());
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Escribe los productos en un TSV temporal y los carga con una sola
+     * sentencia LOAD DATA LOCAL INFILE (sin comprobaciones de unicidad
+     * durante la carga: los códigos generados ya son únicos).
+     */
+    private void cargarProductosDesdeArchivo(String[] nombresCategorias, double[] acumuladaZipf) throws IOException {
+        Path archivo = Files.createTempFile("productos-generados", ".tsv");
+        try {
+            try (BufferedWriter escritor = Files.newBufferedWriter(archivo, StandardCharsets.UTF_8)) {
+                StringBuilder linea = new StringBuilder(128);
+                IOException[] error = new IOException[1];
+                generarProductos(1, productos, nombresCategorias, acumuladaZipf, fila -> {
+                    linea.setLength(0);
+                    linea.append(fila[0]).append('\t').append(fila[1]).append('\t').append(fila[2]).append('\t')
+                            .append(fila[3]).append('\t').append(String.format(Locale.ROOT, "%.2f", (Double) fila[4]))
+                            .append('\t').append(fila[5]).append('\t').append((Boolean) fila[6] ? 1 : 0)
+                            .append("\t0\n");
+                    try {
+                        escritor.append(linea);
+                    } catch (IOException e) {
+                        error[0] = e;
+                    }
+                });
+                if (error[0] != null) {
+                    throw error[0];
+                }
+            }
+            registrador.info("Archivo de productos generado: {} ({} MB)", archivo, Files.size(archivo) / (1024 * 1024));
+            String ruta = archivo.toAbsolutePath().toString().replace("\\", "/");
+            jdbc.execute((ConnectionCallback<Void>) conexion -> {
+                try (Statement sentencia = conexion.createStatement()) {
+                    sentencia.execute("SET unique_checks = 0");
+                    try {
+                        sentencia.execute("LOAD DATA LOCAL INFILE '" + ruta + "' INTO TABLE productos"
+                                + " CHARACTER SET utf8mb4 FIELDS TERMINATED BY '\\t' LINES TERMINATED BY '\\n'"
+                                + " (" + COLUMNAS_PRODUCTOS + ")");
+                    } finally {
+                        sentencia.execute("SET unique_checks = 1");
+                    }
+                }
+                return null;
+            });
+        } finally {
+            Files.deleteIfExists(archivo);
+        }
+    }
+
+    /**
+     * Genera los productos con ids desde..hasta. Cada bloque de
+     * filas-por-insert ids tiene su propio generador aleatorio derivado de
+     * la semilla, así el resultado no depende del orden de generación.
+     *
+     * @param destino Recibe cada fila (id, codigo, nombre, categoria, precio,
+     *                stock, activo); el arreglo se reutiliza entre llamadas
+     */
+    private void generarProductos(int desde, int hasta, String[] nombresCategorias, double[] acumuladaZipf,
+                                  Consumer<Object[]> destino) {
+        Object[] fila = new Object[7];
+        SplittableRandom aleatorio = null;
+        for (int id = desde; id <= hasta; id++) {
+            if (aleatorio == null || (id - 1) % filasPorInsert == 0) {
+                aleatorio = new SplittableRandom(mezclar(semilla, (id - 1) / filasPorInsert));
+            }
+            int s = aleatorio.nextInt(SUSTANTIVOS.length);
+            String[] adjetivo = ADJETIVOS[aleatorio.nextInt(ADJETIVOS.length)];
+            String nombre = SUSTANTIVOS[s] + " " + adjetivo[FEMENINO[s] ? 1 : 0] + " "
+                    + MATERIALES[aleatorio.nextInt(MATERIALES.length)] + " "
+                    + MARCAS[aleatorio.nextInt(MARCAS.length)] + " " + (100 + aleatorio.nextInt(900));
+            // Log-normal con mediana ~40: muchos productos baratos y pocos muy caros
+            double precio = Math.exp(Math.log(40) + 1.2 * aleatorio.nextGaussian());
+            precio = Math.round(Math.min(Math.max(precio, 0.5), 50_000) * 100.0) / 100.0;
+            boolean caliente = id <= skusCalientes;
+            int stock = caliente ? stockCalientes
+                    : aleatorio.nextInt(10) == 0 ? 0 : aleatorio.nextInt(1, stockMaximo + 1);
+            fila[0] = id;
+            fila[1] = String.format("GEN-%08d", id);
+            fila[2] = nombre;
+            fila[3] = nombresCategorias[indiceZipf(acumuladaZipf, aleatorio.nextDouble())];
+            fila[4] = precio;
+            fila[5] = stock;
+            fila[6] = caliente || aleatorio.nextInt(20) != 0;
+            destino.accept(fila);
+        }
+    }
+
+    // ==================== UTILIDADES ====================
+
+    /**
+     * Inserta las filas con sentencias INSERT de varias filas
+     * (filas-por-insert filas por sentencia, varias sentencias por
+     * transacción).
+     */
+    private void insertarVariasFilas(String tabla, String columnas, String valores, List<Object[]> filas) {
+        int porTransaccion = filasPorInsert * SENTENCIAS_POR_TRANSACCION;
+        String sqlCompleta = sqlVariasFilas(tabla, columnas, valores, filasPorInsert);
+        for (int desde = 0; desde < filas.size(); desde += porTransaccion) {
+            List<Object[]> parte = filas.subList(desde, Math.min(desde + porTransaccion, filas.size()));
+            transacciones.executeWithoutResult(estado -> {
+                for (int i = 0; i < parte.size(); i += filasPorInsert) {
+                    List<Object[]> sentencia = parte.subList(i, Math.min(i + filasPorInsert, parte.size()));
+                    String sql = sentencia.size() == filasPorInsert ? sqlCompleta
+                            : sqlVariasFilas(tabla, columnas, valores, sentencia.size());
+                    List<Object> argumentos = new ArrayList<>();
+                    for (Object[] f : sentencia) {
+                        argumentos.addAll(Arrays.asList(f));
+                    }
+                    jdbc.update(sql, argumentos.toArray());
+                }
+            });
+        }
+    }
+
+    private static String sqlVariasFilas(String tabla, String columnas, String valores, int filas) {
+        StringBuilder sql = new StringBuilder(64 + filas * (valores.length() + 2));
+        sql.append("INSERT INTO ").append(tabla).append(" (").append(columnas).append(") VALUES ");
+        for (int i = 0; i < filas; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(valores);
+        }
+        return sql.toString();
+    }
+
+    private String[] nombresCategorias() {
+        String[] nombres = new String[categorias];
+        for (int i = 0; i < categorias; i++) {
+            int vuelta = i / CATEGORIAS.length;
+            nombres[i] = CATEGORIAS[i % CATEGORIAS.length] + (vuelta > 0 ? " " + (vuelta + 1) : "");
+        }
+        return nombres;
+    }
+
+    /**
+     * Distribución acumulada de Zipf: la categoría k tiene peso 1/k^s.
+     */
+    private static double[] acumuladaZipf(int n) {
+        double[] acumulada = new double[n];
+        double suma = 0;
+        for (int k = 1; k <= n; k++) {
+            suma += 1.0 / Math.pow(k, EXPONENTE_ZIPF);
+            acumulada[k - 1] = suma;
+        }
+        for (int k = 0; k < n; k++) {
+            acumulada[k] /= suma;
+        }
+        return acumulada;
+    }
+
+    private static int indiceZipf(double[] acumulada, double u) {
+        int i = Arrays.binarySearch(acumulada, u);
+        return Math.min(i >= 0 ? i : -i - 1, acumulada.length - 1);
+    }
+
+    private static long mezclar(long semilla, long bloque) {
+        long z = semilla + bloque * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
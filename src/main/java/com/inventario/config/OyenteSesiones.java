@@ -0,0 +1,32 @@
+package com.inventario.config;
+
+import com.inventario.service.MotorReservas;
+import jakarta.servlet.http.HttpSessionEvent;
+import jakarta.servlet.http.HttpSessionListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Libera las reservas de stock del carrito cuando una sesión expira o se
+ * invalida (por ejemplo, al cerrar sesión), sin esperar a que venza su TTL.
+ */
+@Component
+public class OyenteSesiones implements HttpSessionListener {
+
+    private final MotorReservas motorReservas;
+
+    public OyenteSesiones(MotorReservas motorReservas) {
+        this.motorReservas = motorReservas;
+    }
+
+    @Override
+    public void sessionDestroyed(HttpSessionEvent evento) {
+        Object raw = evento.getSession().getAttribute("carrito");
+        if (raw instanceof Map) {
+            @SuppressWarnings("unchecked")
+            Map<Integer, Integer> carrito = (Map<Integer, Integer>) raw;
+            motorReservas.liberarSesion(evento.getSession().getId(), carrito.keySet());
+        }
+    }
+}
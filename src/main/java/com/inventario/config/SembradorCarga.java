@@ -0,0 +1,45 @@
+package com.inventario.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Siembra un catálogo sintético para las pruebas de carga (perfil "carga").
+ *
+ * Usa el GeneradorCatalogo con la configuración inventario.generador.* de
+ * application-carga.yml; con la misma semilla, dos ejecuciones de la prueba
+ * de carga parten de datos idénticos.
+ *
+ * Se ejecuta como CommandLineRunner, antes de ApplicationReadyEvent, para
+ * que el índice de búsqueda, los rankings y los puntos de control del libro
+ * de movimientos se construyan ya con el catálogo sembrado.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Component
+@Profile("carga")
+@Order(0)
+public class SembradorCarga implements CommandLineRunner {
+
+    private final GeneradorCatalogo generador;
+
+    private final Logger registrador = LoggerFactory.getLogger(SembradorCarga.class);
+
+    public SembradorCarga(GeneradorCatalogo generador) {
+        this.generador = generador;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        long existentes = generador.contarProductos();
+        if (existentes > 0) {
+            registrador.info("El catálogo ya tiene {} productos: no se siembra", existentes);
+            return;
+        }
+        generador.generar();
+    }
+}
@@ -0,0 +1,249 @@
+package com.inventario.config;
+
+import com.inventario.metricas.CapturaSentencias;
+import com.inventario.repository.CategoriaRepository;
+import com.inventario.repository.MovimientoStockRepository;
+import com.inventario.repository.ProductoRepository;
+import com.inventario.repository.UsuarioRepository;
+import com.inventario.service.ExportacionProductosService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Comando que comprueba el plan de ejecución de las consultas de los
+ * repositorios y termina (perfil "verificacion").
+ *
+ * Ejecuta cada consulta con valores reales de la base, dentro de una
+ * transacción que se revierte, captura el SQL que genera Hibernate
+ * ({@link CapturaSentencias}) y pide su plan con EXPLAIN. Termina con código 1
+ * si alguna consulta recorre la tabla entera en lugar de usar un índice:
+ *   - MySQL: acceso "ALL", o "index" sin LIMIT que además lee las filas
+ *     (un recorrido de índice con "Using index" no toca la tabla).
+ *   - H2: el plan usa "tableScan".
+ *
+ * Necesita un catálogo cargado (perfil "generador", o "carga" en H2):
+ *   java -jar target/InventarioSpringBoot.jar --spring.profiles.active=verificacion
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Component
+@Profile("verificacion")
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class VerificadorPlanesConsulta implements CommandLineRunner {
+
+    private static final Pageable PAGINA = PageRequest.of(0, 20);
+    private static final Pageable TOP = PageRequest.of(0, 10);
+
+    private final ProductoRepository productos;
+    private final CategoriaRepository categorias;
+    private final MovimientoStockRepository movimientos;
+    private final UsuarioRepository usuarios;
+    private final ExportacionProductosService exportacion;
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transacciones;
+    private final ConfigurableApplicationContext contexto;
+
+    private final Logger registrador = LoggerFactory.getLogger(VerificadorPlanesConsulta.class);
+
+    public VerificadorPlanesConsulta(ProductoRepository productos, CategoriaRepository categorias,
+                                     MovimientoStockRepository movimientos, UsuarioRepository usuarios,
+                                     ExportacionProductosService exportacion, JdbcTemplate jdbc, TransactionTemplate transacciones,
+                                     ConfigurableApplicationContext contexto) {
+        this.productos = productos;
+        this.categorias = categorias;
+        this.movimientos = movimientos;
+        this.usuarios = usuarios;
+        this.exportacion = exportacion;
+        this.jdbc = jdbc;
+        this.transacciones = transacciones;
+        this.contexto = contexto;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        int codigo = 0;
+        try {
+            verificar();
+        } catch (Exception e) {
+            registrador.error("Verificación de planes fallida: {}", e.getMessage());
+            codigo = 1;
+        }
+        int salida = codigo;
+        System.exit(SpringApplication.exit(contexto, () -> salida));
+    }
+
+    /**
+     * Comprueba el plan de todas las consultas.
+     *
+     * @throws Exception Si el catálogo está vacío o alguna consulta recorre la tabla entera
+     */
+    public void verificar() throws Exception {
+        List<Map<String, Object>> muestra = jdbc.queryForList(
+                "SELECT id, codigo, nombre, categoria FROM productos WHERE categoria IS NOT NULL ORDER BY id LIMIT 1");
+        List<Map<String, Object>> usuario = jdbc.queryForList(
+                "SELECT username, email FROM usuarios ORDER BY id LIMIT 1");
+        if (muestra.isEmpty() || usuario.isEmpty()) {
+            throw new Exception("No hay productos con categoría o usuarios; cargue antes un catálogo"
+                    + " (--spring.profiles.active=generador)");
+        }
+        Integer id = ((Number) muestra.get(0).get("id")).intValue();
+        String codigoProducto = (String) muestra.get(0).get("codigo");
+        String nombre = (String) muestra.get(0).get("nombre");
+        String categoria = (String) muestra.get(0).get("categoria");
+        String prefijo = nombre.substring(0, Math.min(3, nombre.length())) + "%";
+        String username = (String) usuario.get(0).get("username");
+        String email = (String) usuario.get(0).get("email");
+
+        List<String> fallos = new ArrayList<>();
+
+        // ProductoRepository: búsquedas puntuales
+        comprobar("findByCodigo", false, fallos, () -> productos.findByCodigo(codigoProducto));
+        comprobar("buscarParaActualizar", false, fallos, () -> productos.buscarParaActualizar(id));
+        comprobar("descontarStock", false, fallos, () -> productos.descontarStock(id, 1));
+
+        // Listado por cursor, sin filtros y con cada filtro
+        comprobar("buscarPaginaPorId", false, fallos,
+                () -> productos.buscarPaginaPorId(0, null, null, null, PAGINA));
+        comprobar("buscarPaginaPorId(categoria)", false, fallos,
+                () -> productos.buscarPaginaPorId(0, categoria, null, null, PAGINA));
+        comprobar("buscarPaginaPorId(categoria, activo)", false, fallos,
+                () -> productos.buscarPaginaPorId(0, categoria, true, null, PAGINA));
+        comprobar("buscarPaginaPorId(activo)", false, fallos,
+                () -> productos.buscarPaginaPorId(0, null, true, null, PAGINA));
+        comprobar("buscarPaginaPorId(nombre)", false, fallos,
+                () -> productos.buscarPaginaPorId(0, null, null, prefijo, PAGINA));
+        comprobar("buscarPaginaPorPrecio", false, fallos,
+                () -> productos.buscarPaginaPorPrecio(0.0, 0, null, null, null, PAGINA));
+        comprobar("buscarPaginaPorPrecio(categoria)", false, fallos,
+                () -> productos.buscarPaginaPorPrecio(0.0, 0, categoria, null, null, PAGINA));
+        comprobar("buscarPaginaPorNombre", false, fallos,
+                () -> productos.buscarPaginaPorNombre("", 0, null, null, null, PAGINA));
+        comprobar("buscarPaginaPorNombre(categoria)", false, fallos,
+                () -> productos.buscarPaginaPorNombre("", 0, categoria, null, null, PAGINA));
+
+        // Versiones (ETag)
+        comprobar("buscarVersion", false, fallos, () -> productos.buscarVersion(id));
+        comprobar("buscarVersionPorCodigo", false, fallos, () -> productos.buscarVersionPorCodigo(codigoProducto));
+        comprobar("buscarVersionesPorIds", false, fallos, () -> productos.buscarVersionesPorIds(List.of(id, id + 1)));
+        comprobar("buscarVersionesPaginaPorId(categoria)", false, fallos,
+                () -> productos.buscarVersionesPaginaPorId(0, categoria, null, null, PAGINA));
+
+        // Rankings, resumen y carrito
+        comprobar("buscarMasCostosos", false, fallos, () -> productos.buscarMasCostosos(TOP));
+        comprobar("buscarMasBaratos", false, fallos, () -> productos.buscarMasBaratos(TOP));
+        comprobar("buscarMayorStock", false, fallos, () -> productos.buscarMayorStock(TOP));
+        comprobar("buscarMenorStock", false, fallos, () -> productos.buscarMenorStock(TOP));
+        comprobar("calcularResumen", false, fallos, productos::calcularResumen);
+        comprobar("buscarResumenesPorIds", false, fallos, () -> productos.buscarResumenesPorIds(List.of(id, id + 1)));
+
+        // La exportación lee el catálogo completo a propósito
+        comprobar("recorrerCatalogo", true, fallos, () -> {
+            try (Stream<?> flujo = exportacion.recorrerCatalogo()) {
+                flujo.findFirst();
+            }
+        });
+
+        // Demás repositorios
+        comprobar("CategoriaRepository.findByNombre", false, fallos, () -> categorias.findByNombre(categoria));
+        comprobar("MovimientoStockRepository.findByProductoIdOrderByIdDesc", false, fallos,
+                () -> movimientos.findByProductoIdOrderByIdDesc(id, TOP));
+        comprobar("UsuarioRepository.findByUsername", false, fallos, () -> usuarios.findByUsername(username));
+        comprobar("UsuarioRepository.findByEmail", false, fallos, () -> usuarios.findByEmail(email));
+        comprobar("UsuarioRepository.existsByUsername", false, fallos, () -> usuarios.existsByUsername(username));
+        comprobar("UsuarioRepository.existsByEmail", false, fallos, () -> usuarios.existsByEmail(email));
+
+        if (!fallos.isEmpty()) {
+            throw new Exception(fallos.size() + " consultas recorren la tabla entera: " + String.join(", ", fallos));
+        }
+        registrador.info("Planes de consulta verificados: ninguna consulta recorre la tabla entera");
+    }
+
+    /**
+     * Ejecuta una consulta en una transacción revertida y comprueba el plan
+     * de cada sentencia que generó.
+     */
+    private void comprobar(String consulta, boolean recorridoPermitido, List<String> fallos, Runnable accion) {
+        List<CapturaSentencias.Sentencia> sentencias = transacciones.execute(estado -> {
+            estado.setRollbackOnly();
+            CapturaSentencias.iniciar();
+            try {
+                accion.run();
+            } catch (RuntimeException e) {
+                CapturaSentencias.terminar();
+                throw e;
+            }
+            return CapturaSentencias.terminar();
+        });
+        if (sentencias == null || sentencias.isEmpty()) {
+            registrador.warn("{}: no ejecutó ninguna sentencia", consulta);
+            return;
+        }
+        for (CapturaSentencias.Sentencia sentencia : sentencias) {
+            List<Map<String, Object>> plan = jdbc.queryForList("EXPLAIN " + sentencia.getSql(),
+                    sentencia.getParametros().toArray());
+            String escaneo = buscarEscaneoCompleto(sentencia.getSql(), plan);
+            if (escaneo == null) {
+                registrador.info("OK  {} -> {}", consulta, describir(plan));
+            } else if (recorridoPermitido) {
+                registrador.info("OK  {} (recorrido completo intencionado) -> {}", consulta, escaneo);
+            } else {
+                registrador.error("ESCANEO COMPLETO {} -> {}\n  {}", consulta, escaneo, sentencia.getSql());
+                fallos.add(consulta);
+            }
+        }
+    }
+
+    /**
+     * @return Descripción del acceso que recorre la tabla entera, o null si no hay ninguno
+     */
+    private String buscarEscaneoCompleto(String sql, List<Map<String, Object>> plan) {
+        boolean conLimite = sql.toLowerCase(Locale.ROOT).matches("(?s).*\\b(limit|fetch first)\\b.*");
+        for (Map<String, Object> fila : plan) {
+            if (fila.containsKey("PLAN")) {
+                // H2: un único texto con el índice elegido para cada tabla
+                String texto = String.valueOf(fila.get("PLAN"));
+                if (texto.contains(".tableScan")) {
+                    return texto.replaceAll("\\s+", " ");
+                }
+            } else {
+                // MySQL: una fila por tabla con el tipo de acceso
+                String tipo = (String) fila.get("type");
+                String extra = fila.get("Extra") != null ? String.valueOf(fila.get("Extra")) : "";
+                if ("ALL".equals(tipo)
+                        || ("index".equals(tipo) && !conLimite && !extra.contains("Using index"))) {
+                    return fila.get("table") + " type=" + tipo + " rows=" + fila.get("rows") + " " + extra;
+                }
+            }
+        }
+        return null;
+    }
+
+    private String describir(List<Map<String, Object>> plan) {
+        List<String> partes = new ArrayList<>();
+        for (Map<String, Object> fila : plan) {
+            if (fila.containsKey("PLAN")) {
+                partes.add(String.valueOf(fila.get("PLAN")).replaceAll("\\s+", " "));
+            } else if (fila.get("table") != null) {
+                partes.add(fila.get("table") + " type=" + fila.get("type") + " key=" + fila.get("key"));
+            }
+        }
+        return String.join("; ", partes);
+    }
+}
@@ -1,13 +1,25 @@
 package com.inventario.controller;
 
+import com.inventario.cache.CacheProductos;
+import com.inventario.cache.CacheTablaProductos;
+import com.inventario.cache.CacheUsuarios;
+import com.inventario.config.CodificadorContrasenaAcotado;
+import com.inventario.config.DiagnosticoHilosVirtuales;
+import com.inventario.dto.ResumenInventario;
+import com.inventario.service.MotorReservas;
 import com.inventario.service.ProductoService;
-import com.inventario.service.CategoriaService;
-import com.inventario.model.Producto;
+import com.inventario.service.ResumenInventarioService;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
-import java.util.List;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Controlador para la sección de administración.
@@ -25,32 +37,58 @@ import java.util.List;
 public class AdminController {
 
     private final ProductoService productoService;
-    private final CategoriaService categoriaService;
+    private final ResumenInventarioService resumenInventarioService;
+    private final CacheProductos cacheProductos;
+    private final CacheUsuarios cacheUsuarios;
+    private final CacheTablaProductos cacheTabla;
+    private final CodificadorContrasenaAcotado codificadorContrasena;
+    private final MotorReservas motorReservas;
+    private final DiagnosticoHilosVirtuales diagnosticoHilos;
 
     /**
      * Constructor con inyección de dependencias.
      *
      * @param productoService Servicio para operaciones sobre productos
+     * @param resumenInventarioService Servicio con las cifras agregadas del inventario
+     * @param cacheProductos Caché de productos (para mostrar sus contadores)
+     * @param cacheUsuarios Caché de usuarios del login (para mostrar sus contadores)
+     * @param cacheTabla Caché de filas renderizadas del listado (para mostrar sus contadores)
+     * @param codificadorContrasena Codificador con pool acotado (para mostrar sus métricas)
+     * @param motorReservas Motor de reservas del carrito (para mostrar sus contadores)
+     * @param diagnosticoHilos Diagnóstico del modo de hilos virtuales (para mostrar el pinning)
      */
-    public AdminController(ProductoService productoService, CategoriaService categoriaService) {
+    public AdminController(ProductoService productoService, ResumenInventarioService resumenInventarioService,
+                           CacheProductos cacheProductos, CacheUsuarios cacheUsuarios, CacheTablaProductos cacheTabla,
+                           CodificadorContrasenaAcotado codificadorContrasena, MotorReservas motorReservas,
+                           DiagnosticoHilosVirtuales diagnosticoHilos) {
         this.productoService = productoService;
-        this.categoriaService = categoriaService;
+        this.resumenInventarioService = resumenInventarioService;
+        this.cacheProductos = cacheProductos;
+        this.cacheUsuarios = cacheUsuarios;
+        this.cacheTabla = cacheTabla;
+        this.codificadorContrasena = codificadorContrasena;
+        this.motorReservas = motorReservas;
+        this.diagnosticoHilos = diagnosticoHilos;
     }
 
     /**
      * Página principal del panel de administración.
      *
-     * Muestra un resumen simple y enlaces a estadísticas y CRUD de categorías.
+     * Muestra el resumen del inventario (totales, valor y bajo stock) y
+     * enlaces a estadísticas y CRUD de categorías.
      *
      * @param model Modelo para enviar datos a la vista
      * @return Nombre de la plantilla para el panel de administración
      */
     @GetMapping
     public String panel(Model model) {
-        // Añadir en el modelo un resumen simple (número de productos)
-        List<Producto> todos = productoService.listarTodos();
-        model.addAttribute("totalProductos", todos.size());
-        model.addAttribute("totalCategorias", categoriaService.listarTodos().size());
+        // Resumen del inventario calculado con una sola consulta agregada
+        ResumenInventario resumen = resumenInventarioService.obtenerResumen();
+        model.addAttribute("totalProductos", resumen.getTotalProductos());
+        model.addAttribute("productosActivos", resumen.getProductosActivos());
+        model.addAttribute("totalCategorias", resumen.getTotalCategorias());
+        model.addAttribute("valorInventario", resumen.getValorInventario());
+        model.addAttribute("productosBajoStock", resumen.getProductosBajoStock());
         // Título para la plantilla base
         model.addAttribute("titulo", "Panel de Administración - Inventario");
         return "admin/panel";
@@ -59,8 +97,8 @@ public class AdminController {
     /**
      * Página de estadísticas de productos.
      *
-     * Calcula y muestra estadísticas sencillas: productos más costosos,
-     * más baratos, mayor stock y menor stock.
+     * Muestra estadísticas sencillas: productos más costosos, más baratos,
+     * mayor stock y menor stock. Los rankings salen de memoria, sin consultas.
      *
      * @param model Modelo para enviar datos a la vista
      * @return Nombre de la plantilla con las estadísticas
@@ -71,8 +109,35 @@ public class AdminController {
         model.addAttribute("masBaratos", productoService.obtenerMasBaratos(5));
         model.addAttribute("mayorStock", productoService.obtenerMayorStock(5));
         model.addAttribute("menorStock", productoService.obtenerMenorStock(5));
+        // Contadores de la caché de productos
+        model.addAttribute("cachePorId", cacheProductos.estadisticasPorId());
+        model.addAttribute("cachePorCodigo", cacheProductos.estadisticasPorCodigo());
+        model.addAttribute("cacheUsuarios", cacheUsuarios.estadisticas());
+        model.addAttribute("cacheTabla", cacheTabla.estadisticas());
+        model.addAttribute("poolLogin", codificadorContrasena.metricas());
+        model.addAttribute("reservas", motorReservas.metricas());
+        model.addAttribute("hilos", diagnosticoHilos.metricas());
         // Título para la plantilla base
         model.addAttribute("titulo", "Estadísticas de Productos - Admin");
         return "admin/estadisticas";
     }
+
+    /**
+     * Rankings de productos en JSON, para el panel de monitorización (wallboard).
+     * Se sirven desde memoria, por lo que pueden consultarse con frecuencia.
+     *
+     * @param limite Entradas por ranking (como máximo la capacidad de los rankings)
+     * @return Mapa con la fecha de generación y los cuatro rankings
+     */
+    @GetMapping(value = "/rankings", produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Map<String, Object> rankings(@RequestParam(defaultValue = "10") int limite) {
+        Map<String, Object> respuesta = new LinkedHashMap<>();
+        respuesta.put("generado", Instant.now().toString());
+        respuesta.put("masCostosos", productoService.obtenerMasCostosos(limite));
+        respuesta.put("masBaratos", productoService.obtenerMasBaratos(limite));
+        respuesta.put("mayorStock", productoService.obtenerMayorStock(limite));
+        respuesta.put("menorStock", productoService.obtenerMenorStock(limite));
+        return respuesta;
+    }
 }
@@ -1,39 +1,54 @@
 package com.inventario.controller;
 
-import com.inventario.model.Producto;
-import com.inventario.service.ProductoService;
+import com.inventario.dto.CarritoValorado;
+import com.inventario.model.Pedido;
+import com.inventario.service.CarritoService;
+import com.inventario.service.MotorReservas;
+import com.inventario.service.PedidoService;
 import jakarta.servlet.http.HttpSession;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
-import java.util.ArrayList;
+import java.security.Principal;
 import java.util.HashMap;
-import java.util.List;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
  * Controlador simple para manejar un carrito de compras en sesión.
  *
  * Implementación minimalista para la fase académica: guarda en la sesión
- * un mapa productoId -> cantidad. No se persiste en BD ni se procesa pago.
+ * un mapa productoId -> cantidad. Al confirmar, el carrito se convierte en
+ * un pedido y se descuenta el stock (no se procesa pago).
+ *
+ * Cada producto añadido queda reservado durante un tiempo limitado en
+ * {@link MotorReservas}; las reservas se liberan al quitar el producto,
+ * al confirmar el pedido o al expirar la sesión.
  */
 @Controller
 @RequestMapping("/carrito")
 public class CarritoController {
 
-    private final ProductoService productoService;
+    private final CarritoService carritoService;
+    private final PedidoService pedidoService;
+    private final MotorReservas motorReservas;
 
-    public CarritoController(ProductoService productoService) {
-        this.productoService = productoService;
+    public CarritoController(CarritoService carritoService, PedidoService pedidoService,
+                             MotorReservas motorReservas) {
+        this.carritoService = carritoService;
+        this.pedidoService = pedidoService;
+        this.motorReservas = motorReservas;
     }
 
     /**
      * Añade un producto al carrito en la sesión. Si ya existe, incrementa la cantidad.
+     * Antes se reservan las unidades; si no hay suficientes disponibles no se añade.
      *
      * @param id ID del producto a añadir
      * @param cantidad Cantidad a añadir (por defecto 1)
@@ -52,7 +67,15 @@ public class CarritoController {
         if (raw instanceof Map) {
             carrito = (Map<Integer, Integer>) raw;
         } else {
-            carrito = new HashMap<>();
+            // LinkedHashMap conserva el orden en que se añadieron los productos
+            carrito = new LinkedHashMap<>();
+        }
+        try {
+            motorReservas.reservar(session.getId(), id, cantidad);
+        } catch (Exception e) {
+            redirect.addFlashAttribute("mensaje", "Error: " + e.getMessage());
+            redirect.addFlashAttribute("tipo", "error");
+            return "redirect:/carrito";
         }
         carrito.put(id, carrito.getOrDefault(id, 0) + cantidad);
         session.setAttribute("carrito", carrito);
@@ -62,7 +85,7 @@ public class CarritoController {
     }
 
     /**
-     * Elimina un producto del carrito (completamente).
+     * Elimina un producto del carrito (completamente) y libera su reserva.
      */
     @SuppressWarnings("unchecked")
     @GetMapping("/eliminar/{id}")
@@ -71,6 +94,7 @@ public class CarritoController {
         Map<Integer, Integer> carrito = raw instanceof Map ? (Map<Integer, Integer>) raw : new HashMap<>();
         if (carrito != null && carrito.containsKey(id)) {
             carrito.remove(id);
+            motorReservas.liberar(session.getId(), id);
             session.setAttribute("carrito", carrito);
             redirect.addFlashAttribute("mensaje", "Producto eliminado del carrito");
             redirect.addFlashAttribute("tipo", "success");
@@ -80,31 +104,46 @@ public class CarritoController {
 
     /**
      * Lista los productos que están en el carrito y sus cantidades.
+     *
+     * Todas las líneas se resuelven con una sola consulta; las líneas cuyo
+     * producto fue eliminado o desactivado se marcan y no suman al total.
      */
     @SuppressWarnings("unchecked")
     @GetMapping
     public String listarCarrito(HttpSession session, Model model) {
         Object raw = session.getAttribute("carrito");
         Map<Integer, Integer> carrito = raw instanceof Map ? (Map<Integer, Integer>) raw : new HashMap<>();
-        List<Producto> productos = new ArrayList<>();
-        Map<Integer, Integer> cantidades = new HashMap<>();
-        double total = 0.0;
-        if (carrito != null) {
-            for (Map.Entry<Integer, Integer> e : carrito.entrySet()) {
-                Integer id = e.getKey();
-                Integer cantidad = e.getValue();
-                productoService.obtenerPorId(id).ifPresent(p -> {
-                    productos.add(p);
-                });
-                cantidades.put(id, cantidad);
-            }
-            for (Producto p : productos) {
-                total += p.getPrecio() * cantidades.get(p.getId());
-            }
-        }
-        model.addAttribute("productosCarrito", productos);
-        model.addAttribute("cantidades", cantidades);
-        model.addAttribute("totalCarrito", total);
+        CarritoValorado valorado = carritoService.valorar(carrito);
+        model.addAttribute("lineasCarrito", valorado.getLineas());
+        model.addAttribute("totalCarrito", valorado.getTotal());
+        model.addAttribute("lineasConProblemas", valorado.getLineasConProblemas());
         return "carrito/listado";
     }
+
+    /**
+     * Confirma el carrito como pedido y descuenta el stock de forma atómica.
+     * Antes se comprueba que la sesión sigue teniendo reservadas sus líneas
+     * (si una reserva venció se vuelve a pedir). Si alguna línea no tiene
+     * stock suficiente, o sus unidades las reservó otro usuario, no se
+     * descuenta nada.
+     */
+    @SuppressWarnings("unchecked")
+    @PostMapping("/confirmar")
+    public String confirmar(HttpSession session, Principal principal, RedirectAttributes redirect) {
+        Object raw = session.getAttribute("carrito");
+        Map<Integer, Integer> carrito = raw instanceof Map ? (Map<Integer, Integer>) raw : new HashMap<>();
+        try {
+            // Sólo se vende lo reservado por esta sesión (ver MotorReservas)
+            motorReservas.asegurarReservas(session.getId(), carrito);
+            Pedido pedido = pedidoService.confirmar(carrito, principal.getName());
+            motorReservas.confirmarVenta(session.getId(), carrito);
+            session.removeAttribute("carrito");
+            redirect.addFlashAttribute("mensaje", "Pedido #" + pedido.getId() + " confirmado correctamente");
+            redirect.addFlashAttribute("tipo", "success");
+        } catch (Exception e) {
+            redirect.addFlashAttribute("mensaje", "Error: " + e.getMessage());
+            redirect.addFlashAttribute("tipo", "error");
+        }
+        return "redirect:/carrito";
+    }
 }
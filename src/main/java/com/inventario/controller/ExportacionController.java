@@ -0,0 +1,67 @@
+package com.inventario.controller;
+
+import com.inventario.service.ExportacionProductosService;
+import com.inventario.service.ExportacionProductosService.Formato;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Controlador para exportar el catálogo completo (solo administrador).
+ *
+ * Escribe directamente en el flujo de salida de la respuesta, sin construir
+ * el archivo en memoria. Ejemplos:
+ * - /admin/exportacion?formato=csv
+ * - /admin/exportacion?formato=ndjson&gzip=true
+ */
+@Controller
+@RequestMapping("/admin/exportacion")
+public class ExportacionController {
+
+    private final ExportacionProductosService exportacionService;
+
+    public ExportacionController(ExportacionProductosService exportacionService) {
+        this.exportacionService = exportacionService;
+    }
+
+    /**
+     * Descarga el catálogo en CSV o NDJSON, opcionalmente comprimido con gzip.
+     *
+     * @param formato "csv" (por defecto) o "ndjson"
+     * @param gzip Si se comprime la salida
+     * @param response Respuesta HTTP donde se escribe el archivo
+     * @throws IOException Si falla la escritura
+     */
+    @GetMapping
+    public void exportar(@RequestParam(defaultValue = "csv") String formato,
+                         @RequestParam(defaultValue = "false") boolean gzip,
+                         HttpServletResponse response) throws IOException {
+        Formato f = "ndjson".equalsIgnoreCase(formato) ? Formato.NDJSON : Formato.CSV;
+        String nombre = f == Formato.NDJSON ? "productos.ndjson" : "productos.csv";
+        String tipo = f == Formato.NDJSON ? "application/x-ndjson" : "text/csv";
+        if (gzip) {
+            nombre += ".gz";
+            tipo = "application/gzip";
+        } else {
+            tipo += "; charset=UTF-8";
+        }
+        response.setContentType(tipo);
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + nombre + "\"");
+
+        OutputStream salida = response.getOutputStream();
+        if (gzip) {
+            GZIPOutputStream comprimida = new GZIPOutputStream(salida, 64 * 1024);
+            exportacionService.exportar(f, comprimida);
+            comprimida.finish();
+        } else {
+            exportacionService.exportar(f, salida);
+        }
+        salida.flush();
+    }
+}
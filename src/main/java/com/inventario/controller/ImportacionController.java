@@ -0,0 +1,63 @@
+package com.inventario.controller;
+
+import com.inventario.dto.ResultadoImportacion;
+import com.inventario.service.ImportacionProductosService;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Controlador para la importación masiva de productos desde CSV (solo administrador).
+ *
+ * Las rutas están bajo /admin/importacion y la protección se garantiza
+ * mediante la configuración de seguridad (ROLE_ADMIN).
+ */
+@Controller
+@RequestMapping("/admin/importacion")
+public class ImportacionController {
+
+    private final ImportacionProductosService importacionService;
+
+    public ImportacionController(ImportacionProductosService importacionService) {
+        this.importacionService = importacionService;
+    }
+
+    /**
+     * Muestra el formulario de carga del archivo CSV.
+     */
+    @GetMapping
+    public String formulario(Model model) {
+        model.addAttribute("titulo", "Importar Productos - Admin");
+        return "admin/importacion";
+    }
+
+    /**
+     * Importa el archivo CSV recibido y muestra el informe de la importación.
+     */
+    @PostMapping
+    public String importar(@RequestParam("archivo") MultipartFile archivo, Model model) {
+        model.addAttribute("titulo", "Importar Productos - Admin");
+        if (archivo == null || archivo.isEmpty()) {
+            model.addAttribute("mensaje", "Debe seleccionar un archivo CSV");
+            model.addAttribute("tipo", "error");
+            return "admin/importacion";
+        }
+        try (InputStream entrada = archivo.getInputStream()) {
+            ResultadoImportacion resultado = importacionService.importarCsv(entrada);
+            model.addAttribute("resultado", resultado);
+            model.addAttribute("mensaje", "Importación terminada");
+            model.addAttribute("tipo", "success");
+        } catch (IOException e) {
+            model.addAttribute("mensaje", "Error: " + e.getMessage());
+            model.addAttribute("tipo", "error");
+        }
+        return "admin/importacion";
+    }
+}
@@ -0,0 +1,36 @@
+package com.inventario.controller;
+
+import com.inventario.metricas.ExportadorPrometheus;
+import com.inventario.metricas.FormatoPrometheus;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+
+/**
+ * Métricas de la aplicación en formato de texto de Prometheus (solo administrador).
+ *
+ * Latencias por método de controlador y de ProductoService, sentencias SQL
+ * por petición, espera del pool de conexiones y tasas de acierto de las
+ * cachés. La ruta está bajo /admin, así que un servidor Prometheus debe
+ * autenticarse con un usuario ADMIN (HTTP Basic está habilitado).
+ */
+@Controller
+@RequestMapping("/admin/metricas")
+public class MetricasController {
+
+    private final ExportadorPrometheus exportador;
+
+    public MetricasController(ExportadorPrometheus exportador) {
+        this.exportador = exportador;
+    }
+
+    @GetMapping
+    public ResponseEntity<String> metricas() {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_TYPE, FormatoPrometheus.TIPO_CONTENIDO)
+                .header(HttpHeaders.CACHE_CONTROL, "no-store")
+                .body(exportador.exportar());
+    }
+}
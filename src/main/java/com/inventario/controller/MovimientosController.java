@@ -0,0 +1,66 @@
+package com.inventario.controller;
+
+import com.inventario.dto.ResultadoReconstruccion;
+import com.inventario.service.LibroMovimientosStock;
+import org.springframework.stereotype.Controller;
+import org.springframework.ui.Model;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+/**
+ * Controlador del libro de movimientos de stock (solo administrador).
+ *
+ * Permite consultar el historial de un producto y lanzar la reconstrucción
+ * del stock desde los puntos de control. Las rutas están bajo
+ * /admin/movimientos y la protección se garantiza mediante la configuración
+ * de seguridad (ROLE_ADMIN).
+ */
+@Controller
+@RequestMapping("/admin/movimientos")
+public class MovimientosController {
+
+    /**
+     * Número máximo de movimientos mostrados en el historial.
+     */
+    private static final int LIMITE_HISTORIAL = 100;
+
+    private final LibroMovimientosStock libroMovimientos;
+
+    public MovimientosController(LibroMovimientosStock libroMovimientos) {
+        this.libroMovimientos = libroMovimientos;
+    }
+
+    /**
+     * Muestra el historial de movimientos de un producto (si se indica).
+     */
+    @GetMapping
+    public String historial(@RequestParam(required = false) Integer productoId, Model model) {
+        model.addAttribute("titulo", "Movimientos de Stock - Admin");
+        model.addAttribute("productoId", productoId);
+        if (productoId != null) {
+            model.addAttribute("movimientos", libroMovimientos.historial(productoId, LIMITE_HISTORIAL));
+        }
+        return "admin/movimientos";
+    }
+
+    /**
+     * Reconstruye el stock desde el libro; con corregir=true reemplaza el
+     * stock de la tabla donde no coincide.
+     */
+    @PostMapping("/reconstruir")
+    public String reconstruir(@RequestParam(defaultValue = "false") boolean corregir, RedirectAttributes redirect) {
+        try {
+            ResultadoReconstruccion resultado = libroMovimientos.reconstruir(corregir);
+            redirect.addFlashAttribute("resultado", resultado);
+            redirect.addFlashAttribute("mensaje", "Reconstrucción terminada");
+            redirect.addFlashAttribute("tipo", "success");
+        } catch (Exception e) {
+            redirect.addFlashAttribute("mensaje", "Error: " + e.getMessage());
+            redirect.addFlashAttribute("tipo", "error");
+        }
+        return "redirect:/admin/movimientos";
+    }
+}
@@ -0,0 +1,172 @@
+package com.inventario.controller;
+
+import com.inventario.dto.FiltroProductos;
+import com.inventario.dto.PaginaProductos;
+import com.inventario.dto.VersionProducto;
+import com.inventario.model.Producto;
+import com.inventario.service.ProductoService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * API REST de productos en JSON (sólo lectura) para clientes externos
+ * (punto de venta, aplicación móvil).
+ *
+ * Cada respuesta lleva un ETag fuerte derivado de la columna version de
+ * Producto: "id-version" para un recurso y un resumen SHA-256 de los pares
+ * (id, version) para una colección. Ante If-None-Match primero se consulta
+ * sólo id y versión; si el ETag coincide se responde 304 sin cargar ni
+ * serializar los productos.
+ *
+ * Requiere autenticación como el resto de la aplicación (sesión o HTTP Basic).
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@RestController
+@RequestMapping("/api/productos")
+public class ProductoApiController {
+
+    /**
+     * Número máximo de ids aceptados en una consulta por lote.
+     */
+    static final int MAXIMO_LOTE = FiltroProductos.TAMANO_MAXIMO;
+
+    private final ProductoService service;
+
+    public ProductoApiController(ProductoService service) {
+        this.service = service;
+    }
+
+    /**
+     * Lista productos página por página, ordenados por id.
+     * Acepta los mismos filtros y cursor que el listado HTML.
+     *
+     * @param filtro Filtros, cursor y tamaño de página
+     * @param request Petición (para If-None-Match)
+     * @return Página de productos, o 304 si no cambió
+     */
+    @GetMapping
+    public ResponseEntity<PaginaProductos> listar(@ModelAttribute FiltroProductos filtro, WebRequest request) {
+        filtro.setOrden("id");
+        int tamano = filtro.getTamanoEfectivo();
+        if (request.getHeader("If-None-Match") != null) {
+            List<VersionProducto> versiones = service.listarVersionesPagina(filtro);
+            boolean hayMas = versiones.size() > tamano;
+            String etag = etagColeccion(versiones.subList(0, Math.min(tamano, versiones.size())), hayMas);
+            if (request.checkNotModified(etag)) {
+                return null;
+            }
+        }
+        PaginaProductos pagina = service.listarPagina(filtro);
+        return ResponseEntity.ok()
+                .eTag(etagColeccionProductos(pagina.getProductos(), pagina.isHayMas()))
+                .body(pagina);
+    }
+
+    /**
+     * Obtiene un producto por id.
+     */
+    @GetMapping("/{id}")
+    public ResponseEntity<Producto> obtenerPorId(@PathVariable Integer id, WebRequest request) {
+        Optional<Long> version = service.obtenerVersion(id);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(etagRecurso(id, version.get()))) {
+            return null;
+        }
+        return responder(service.obtenerPorIdConVersion(id, version.get()));
+    }
+
+    /**
+     * Obtiene un producto por su código.
+     */
+    @GetMapping("/codigo/{codigo}")
+    public ResponseEntity<Producto> obtenerPorCodigo(@PathVariable String codigo, WebRequest request) {
+        Optional<VersionProducto> version = service.obtenerVersionPorCodigo(codigo);
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (request.checkNotModified(etagRecurso(version.get().getId(), version.get().getVersion()))) {
+            return null;
+        }
+        return responder(service.obtenerPorIdConVersion(version.get().getId(), version.get().getVersion()));
+    }
+
+    /**
+     * Obtiene varios productos por id (como máximo {@value #MAXIMO_LOTE}).
+     * Los ids inexistentes se omiten de la respuesta.
+     *
+     * @param ids Lista de ids separados por coma
+     * @param request Petición (para If-None-Match)
+     * @return Productos encontrados ordenados por id, o 304 si no cambiaron
+     */
+    @GetMapping("/lote")
+    public ResponseEntity<List<Producto>> obtenerLote(@RequestParam List<Integer> ids, WebRequest request) {
+        TreeSet<Integer> unicos = new TreeSet<>(ids);
+        if (unicos.isEmpty() || unicos.size() > MAXIMO_LOTE) {
+            return ResponseEntity.badRequest().build();
+        }
+        // El sondeo también sirve para no devolver copias en caché desactualizadas
+        List<VersionProducto> versiones = service.obtenerVersiones(unicos);
+        if (request.getHeader("If-None-Match") != null
+                && request.checkNotModified(etagColeccion(versiones, false))) {
+            return null;
+        }
+        List<Producto> productos = service.obtenerPorVersiones(versiones);
+        return ResponseEntity.ok().eTag(etagColeccionProductos(productos, false)).body(productos);
+    }
+
+    // ==================== ETAG ====================
+
+    private ResponseEntity<Producto> responder(Optional<Producto> producto) {
+        // El ETag se calcula con la versión del cuerpo enviado, que es la
+        // sondeada o una posterior (nunca una copia en caché anterior)
+        return producto
+                .map(p -> ResponseEntity.ok().eTag(etagRecurso(p.getId(), p.getVersion())).body(p))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    static String etagRecurso(Integer id, Long version) {
+        return "\"" + id + "-" + version + "\"";
+    }
+
+    private static String etagColeccion(List<VersionProducto> versiones, boolean hayMas) {
+        StringBuilder clave = new StringBuilder();
+        for (VersionProducto v : versiones) {
+            clave.append(v.getId()).append(':').append(v.getVersion()).append(';');
+        }
+        return resumen(clave.append(hayMas));
+    }
+
+    private static String etagColeccionProductos(List<Producto> productos, boolean hayMas) {
+        StringBuilder clave = new StringBuilder();
+        for (Producto p : productos) {
+            clave.append(p.getId()).append(':').append(p.getVersion()).append(';');
+        }
+        return resumen(clave.append(hayMas));
+    }
+
+    private static String resumen(CharSequence clave) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(clave.toString().getBytes(StandardCharsets.UTF_8));
+            return "\"l-" + HexFormat.of().formatHex(hash, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 no disponible", e);
+        }
+    }
+}
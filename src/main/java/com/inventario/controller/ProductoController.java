@@ -1,14 +1,26 @@
 package com.inventario.controller;
 
+import com.inventario.cache.CacheTablaProductos;
+import com.inventario.cache.VersionCatalogo;
+import com.inventario.dto.FiltroProductos;
+import com.inventario.dto.PaginaProductos;
 import com.inventario.model.Producto;
 import com.inventario.service.ProductoService;
 import com.inventario.service.CategoriaService;
+import com.inventario.service.PublicadorEventosProductos;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Controlador para gestionar productos del sistema.
@@ -34,6 +46,10 @@ public class ProductoController {
      */
     private final ProductoService service;
     private final CategoriaService categoriaService;
+    private final PublicadorEventosProductos eventos;
+    private final VersionCatalogo versionCatalogo;
+    private final CacheTablaProductos cacheTabla;
+    private final ITemplateEngine motorPlantillas;
 
     /**
      * Constructor para inyección de dependencias (recomendado en Spring).
@@ -41,28 +57,104 @@ public class ProductoController {
      * problemas de inicialización.
      *
      * @param service Servicio de productos
+     * @param eventos Publicador de eventos de productos (SSE)
+     * @param versionCatalogo Versión global del catálogo
+     * @param cacheTabla Caché de las filas renderizadas del listado
+     * @param motorPlantillas Motor de Thymeleaf (para renderizar sólo las filas)
      */
-    public ProductoController(ProductoService service, CategoriaService categoriaService) {
+    public ProductoController(ProductoService service, CategoriaService categoriaService,
+                              PublicadorEventosProductos eventos, VersionCatalogo versionCatalogo,
+                              CacheTablaProductos cacheTabla, ITemplateEngine motorPlantillas) {
         this.service = service;
         this.categoriaService = categoriaService;
+        this.eventos = eventos;
+        this.versionCatalogo = versionCatalogo;
+        this.cacheTabla = cacheTabla;
+        this.motorPlantillas = motorPlantillas;
     }
 
     /**
-     * Lista todos los productos del sistema.
+     * Lista los productos del sistema página por página.
      * 
-     * Obtiene la lista completa de productos de la base de datos
-     * y los envía a la vista HTML para su visualización.
+     * Usa paginación por cursor: sólo se lee de la base de datos la página
+     * solicitada, aplicando los filtros opcionales (categoría, prefijo de
+     * nombre, estado) y el orden elegido (id, precio o nombre).
      * 
+     * Las filas de la tabla se sirven ya renderizadas desde CacheTablaProductos
+     * mientras no cambie la versión del catálogo; en un acierto no se consulta
+     * la base de datos ni se evalúan las expresiones de cada fila.
+     * 
+     * @param filtro Filtros y cursor enlazados desde los parámetros de la URL
      * @param model Modelo de Spring para pasar datos a la vista Thymeleaf
+     * @param request Petición (rol y locale, que forman parte de la clave)
      * @return El nombre de la plantilla HTML ("productos/listado")
      */
     @GetMapping
-    public String listar(Model model) {
-        List<Producto> productos = service.listarTodos();
-        model.addAttribute("productos", productos);
+    public String listar(@ModelAttribute("filtro") FiltroProductos filtro, Model model, HttpServletRequest request) {
+        // La versión se lee antes que los datos: lo que se guarde con ella nunca es más antiguo
+        long version = versionCatalogo.actual();
+        boolean esAdmin = request.isUserInRole("ADMIN");
+        boolean esUsuario = request.isUserInRole("USER");
+        Locale locale = request.getLocale();
+        String clave = String.join("|", filtro.getOrdenEfectivo(), String.valueOf(filtro.getTamanoEfectivo()),
+                String.valueOf(filtro.getCategoria()), String.valueOf(filtro.getNombre()),
+                String.valueOf(filtro.getActivo()), String.valueOf(filtro.getCursor()),
+                esAdmin ? "A" : "-", esUsuario ? "U" : "-", locale.toLanguageTag());
+
+        CacheTablaProductos.Tabla tabla = cacheTabla.obtener(version, clave);
+        if (tabla == null) {
+            PaginaProductos pagina = service.listarPagina(filtro);
+            Context contexto = new Context(locale);
+            contexto.setVariable("productos", pagina.getProductos());
+            contexto.setVariable("esAdmin", esAdmin);
+            contexto.setVariable("esUsuario", esUsuario);
+            String filas = motorPlantillas.process("productos/filas", Set.of("filas"), contexto);
+            tabla = new CacheTablaProductos.Tabla(filas, pagina.getProductos().size(),
+                    pagina.getSiguienteCursor(), pagina.getTamano());
+            cacheTabla.guardar(version, clave, tabla);
+        }
+        model.addAttribute("tabla", tabla);
         return "productos/listado";
     }
 
+    /**
+     * Busca productos por código, nombre o categoría.
+     * 
+     * Usa el índice invertido en memoria: no distingue mayúsculas ni tildes
+     * y ordena los resultados por relevancia.
+     * 
+     * @param q Texto de búsqueda
+     * @param limite Número máximo de resultados (por defecto 50, máximo 200)
+     * @param model Modelo de Spring para pasar datos a la vista
+     * @return El nombre de la plantilla HTML ("productos/busqueda")
+     */
+    @GetMapping("/buscar")
+    public String buscar(@RequestParam(value = "q", required = false) String q,
+                         @RequestParam(value = "limite", defaultValue = "50") Integer limite,
+                         Model model) {
+        int limiteEfectivo = Math.max(1, Math.min(limite, FiltroProductos.TAMANO_MAXIMO));
+        long inicio = System.nanoTime();
+        List<Producto> resultados = q == null || q.isBlank() ? List.of() : service.buscar(q, limiteEfectivo);
+        model.addAttribute("q", q);
+        model.addAttribute("resultados", resultados);
+        model.addAttribute("milisegundos", (System.nanoTime() - inicio) / 1_000_000.0);
+        return "productos/busqueda";
+    }
+
+    /**
+     * Canal Server-Sent Events con los cambios de productos.
+     * 
+     * El listado se suscribe y actualiza sus filas en el sitio, sin recargar
+     * la página. El stock y las alertas de bajo stock sólo se envían a ROLE_ADMIN.
+     * 
+     * @param request Petición (para comprobar el rol)
+     * @return Emisor SSE
+     */
+    @GetMapping(value = "/eventos", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter eventos(HttpServletRequest request) {
+        return eventos.suscribir(request.isUserInRole("ADMIN"));
+    }
+
     /**
      * Muestra el formulario para crear un nuevo producto.
      * 
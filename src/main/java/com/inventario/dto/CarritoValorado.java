@@ -0,0 +1,43 @@
+package com.inventario.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de valorar el carrito de la sesión.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+public class CarritoValorado {
+
+    private final List<LineaCarrito> lineas;
+    private final double total;
+    private final int lineasConProblemas;
+
+    public CarritoValorado(List<LineaCarrito> lineas, double total, int lineasConProblemas) {
+        this.lineas = lineas;
+        this.total = total;
+        this.lineasConProblemas = lineasConProblemas;
+    }
+
+    public List<LineaCarrito> getLineas() {
+        return lineas;
+    }
+
+    /**
+     * @return Suma de los subtotales de las líneas comprables
+     */
+    public double getTotal() {
+        return total;
+    }
+
+    /**
+     * @return Número de líneas eliminadas, inactivas o sin stock suficiente
+     */
+    public int getLineasConProblemas() {
+        return lineasConProblemas;
+    }
+
+    public boolean isVacio() {
+        return lineas.isEmpty();
+    }
+}
@@ -0,0 +1,87 @@
+package com.inventario.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Evento de cambio de un producto enviado por el canal SSE del listado.
+ *
+ * Lleva sólo los campos visibles en una fila del listado. El stock y la
+ * marca de bajo stock se omiten (null) para los suscriptores sin ROLE_ADMIN,
+ * que tampoco ven esas columnas.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EventoProducto {
+
+    /** Tipos de evento */
+    public static final String CREADO = "creado";
+    public static final String ACTUALIZADO = "actualizado";
+    public static final String ELIMINADO = "eliminado";
+
+    private final String tipo;
+    private final Integer id;
+    private final String codigo;
+    private final String nombre;
+    private final String categoria;
+    private final Double precio;
+    private final Integer stock;
+    private final Boolean activo;
+    private final Boolean bajoStock;
+
+    public EventoProducto(String tipo, Integer id, String codigo, String nombre, String categoria,
+                          Double precio, Integer stock, Boolean activo, Boolean bajoStock) {
+        this.tipo = tipo;
+        this.id = id;
+        this.codigo = codigo;
+        this.nombre = nombre;
+        this.categoria = categoria;
+        this.precio = precio;
+        this.stock = stock;
+        this.activo = activo;
+        this.bajoStock = bajoStock;
+    }
+
+    /**
+     * Copia del evento sin los datos de stock (para usuarios sin ROLE_ADMIN).
+     */
+    public EventoProducto sinStock() {
+        return new EventoProducto(tipo, id, codigo, nombre, categoria, precio, null, activo, null);
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public String getCategoria() {
+        return categoria;
+    }
+
+    public Double getPrecio() {
+        return precio;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public Boolean getActivo() {
+        return activo;
+    }
+
+    public Boolean getBajoStock() {
+        return bajoStock;
+    }
+}
@@ -0,0 +1,129 @@
+package com.inventario.dto;
+
+/**
+ * Parámetros de filtrado y paginación del listado de productos.
+ *
+ * Se enlaza directamente desde los parámetros de la URL de /productos
+ * (por ejemplo: ?categoria=Bebidas&orden=precio&cursor=...&tamano=50).
+ * La paginación es por cursor (keyset): el cursor codifica la última
+ * clave de ordenamiento vista, de modo que cada página se lee con una
+ * consulta acotada sin usar OFFSET.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+public class FiltroProductos {
+
+    /**
+     * Tamaño de página por defecto.
+     */
+    public static final int TAMANO_POR_DEFECTO = 50;
+
+    /**
+     * Tamaño de página máximo permitido.
+     */
+    public static final int TAMANO_MAXIMO = 200;
+
+    /**
+     * Categoría exacta por la que filtrar (opcional).
+     */
+    private String categoria;
+
+    /**
+     * Prefijo del nombre del producto (opcional).
+     */
+    private String nombre;
+
+    /**
+     * Filtrar por estado activo/inactivo (opcional).
+     */
+    private Boolean activo;
+
+    /**
+     * Campo de ordenamiento: "id", "precio" o "nombre".
+     */
+    private String orden = "id";
+
+    /**
+     * Cursor opaco de la página siguiente (opcional).
+     */
+    private String cursor;
+
+    /**
+     * Número de productos por página.
+     */
+    private Integer tamano = TAMANO_POR_DEFECTO;
+
+    public FiltroProductos() {}
+
+    public String getCategoria() {
+        return categoria;
+    }
+
+    public void setCategoria(String categoria) {
+        this.categoria = categoria;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public void setNombre(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public Boolean getActivo() {
+        return activo;
+    }
+
+    public void setActivo(Boolean activo) {
+        this.activo = activo;
+    }
+
+    public String getOrden() {
+        return orden;
+    }
+
+    public void setOrden(String orden) {
+        this.orden = orden;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    public Integer getTamano() {
+        return tamano;
+    }
+
+    public void setTamano(Integer tamano) {
+        this.tamano = tamano;
+    }
+
+    /**
+     * Devuelve el tamaño de página normalizado al rango [1, TAMANO_MAXIMO].
+     *
+     * @return Tamaño de página efectivo
+     */
+    public int getTamanoEfectivo() {
+        if (tamano == null || tamano <= 0) {
+            return TAMANO_POR_DEFECTO;
+        }
+        return Math.min(tamano, TAMANO_MAXIMO);
+    }
+
+    /**
+     * Devuelve el campo de ordenamiento normalizado ("id" si no es válido).
+     *
+     * @return Campo de ordenamiento efectivo
+     */
+    public String getOrdenEfectivo() {
+        if ("precio".equals(orden) || "nombre".equals(orden)) {
+            return orden;
+        }
+        return "id";
+    }
+}
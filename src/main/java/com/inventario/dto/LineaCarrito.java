@@ -0,0 +1,88 @@
+package com.inventario.dto;
+
+/**
+ * Línea del carrito ya valorada.
+ *
+ * Contiene los datos mínimos del producto (id, código, nombre, precio, stock),
+ * la cantidad solicitada, el subtotal y el estado de disponibilidad.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+public class LineaCarrito {
+
+    /**
+     * Estado de la línea respecto al catálogo actual.
+     */
+    public enum Estado {
+        /** El producto existe, está activo y tiene stock suficiente. */
+        DISPONIBLE,
+        /** El producto existe y está activo, pero no hay stock suficiente. */
+        STOCK_INSUFICIENTE,
+        /** El producto existe pero fue desactivado. */
+        INACTIVO,
+        /** El producto ya no existe en el catálogo. */
+        ELIMINADO
+    }
+
+    private final Integer id;
+    private final String codigo;
+    private final String nombre;
+    private final double precio;
+    private final int stock;
+    private final int cantidad;
+    private final double subtotal;
+    private final Estado estado;
+
+    public LineaCarrito(Integer id, String codigo, String nombre, double precio, int stock,
+                        int cantidad, double subtotal, Estado estado) {
+        this.id = id;
+        this.codigo = codigo;
+        this.nombre = nombre;
+        this.precio = precio;
+        this.stock = stock;
+        this.cantidad = cantidad;
+        this.subtotal = subtotal;
+        this.estado = estado;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public double getPrecio() {
+        return precio;
+    }
+
+    public int getStock() {
+        return stock;
+    }
+
+    public int getCantidad() {
+        return cantidad;
+    }
+
+    public double getSubtotal() {
+        return subtotal;
+    }
+
+    public Estado getEstado() {
+        return estado;
+    }
+
+    /**
+     * Indica si la línea se puede comprar (cuenta para el total).
+     *
+     * @return true si el producto sigue activo en el catálogo
+     */
+    public boolean isComprable() {
+        return estado == Estado.DISPONIBLE || estado == Estado.STOCK_INSUFICIENTE;
+    }
+}
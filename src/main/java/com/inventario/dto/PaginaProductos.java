@@ -0,0 +1,46 @@
+package com.inventario.dto;
+
+import com.inventario.model.Producto;
+import java.util.List;
+
+/**
+ * Resultado de una consulta paginada del listado de productos.
+ *
+ * Contiene los productos de la página actual y, si existen más resultados,
+ * el cursor opaco para solicitar la página siguiente.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+public class PaginaProductos {
+
+    private final List<Producto> productos;
+    private final String siguienteCursor;
+    private final int tamano;
+
+    public PaginaProductos(List<Producto> productos, String siguienteCursor, int tamano) {
+        this.productos = productos;
+        this.siguienteCursor = siguienteCursor;
+        this.tamano = tamano;
+    }
+
+    public List<Producto> getProductos() {
+        return productos;
+    }
+
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public int getTamano() {
+        return tamano;
+    }
+
+    /**
+     * Indica si hay una página siguiente.
+     *
+     * @return true si existe al menos un producto más después de esta página
+     */
+    public boolean isHayMas() {
+        return siguienteCursor != null;
+    }
+}
@@ -0,0 +1,109 @@
+package com.inventario.dto;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Informe de una importación masiva de productos.
+ *
+ * Cuenta las filas leídas, insertadas, actualizadas y con error, guarda
+ * (hasta un máximo) el detalle de cada fila con error y mide el rendimiento.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+public class ResultadoImportacion {
+
+    /**
+     * Número máximo de errores detallados que se guardan en el informe.
+     */
+    public static final int MAXIMO_ERRORES_DETALLADOS = 500;
+
+    private long filasLeidas;
+    private long insertados;
+    private long actualizados;
+    private long filasConError;
+    private long milisegundos;
+    private final List<ErrorFila> errores = new ArrayList<>();
+
+    public void sumarFilaLeida() {
+        filasLeidas++;
+    }
+
+    public void sumarInsertados(long n) {
+        insertados += n;
+    }
+
+    public void sumarActualizados(long n) {
+        actualizados += n;
+    }
+
+    /**
+     * Registra una fila con error.
+     *
+     * @param fila Número de línea en el archivo (1 = primera línea)
+     * @param mensaje Motivo del error
+     */
+    public void agregarError(long fila, String mensaje) {
+        filasConError++;
+        if (errores.size() < MAXIMO_ERRORES_DETALLADOS) {
+            errores.add(new ErrorFila(fila, mensaje));
+        }
+    }
+
+    public void setMilisegundos(long milisegundos) {
+        this.milisegundos = milisegundos;
+    }
+
+    public long getFilasLeidas() {
+        return filasLeidas;
+    }
+
+    public long getInsertados() {
+        return insertados;
+    }
+
+    public long getActualizados() {
+        return actualizados;
+    }
+
+    public long getFilasConError() {
+        return filasConError;
+    }
+
+    public long getMilisegundos() {
+        return milisegundos;
+    }
+
+    public List<ErrorFila> getErrores() {
+        return Collections.unmodifiableList(errores);
+    }
+
+    /**
+     * @return Filas procesadas por segundo
+     */
+    public double getFilasPorSegundo() {
+        return milisegundos == 0 ? filasLeidas : filasLeidas * 1000.0 / milisegundos;
+    }
+
+    /**
+     * Error de validación o de formato en una fila del archivo.
+     */
+    public static class ErrorFila {
+        private final long fila;
+        private final String mensaje;
+
+        public ErrorFila(long fila, String mensaje) {
+            this.fila = fila;
+            this.mensaje = mensaje;
+        }
+
+        public long getFila() {
+            return fila;
+        }
+
+        public String getMensaje() {
+            return mensaje;
+        }
+    }
+}
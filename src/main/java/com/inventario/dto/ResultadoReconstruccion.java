@@ -0,0 +1,79 @@
+package com.inventario.dto;
+
+/**
+ * Informe de una reconstrucción del stock a partir del libro de movimientos.
+ *
+ * Cada partición de productos calcula su propio informe y al final se
+ * combinan con {@link #sumar(ResultadoReconstruccion)}.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+public class ResultadoReconstruccion {
+
+    private long productosRevisados;
+    private long movimientosAplicados;
+    private long diferencias;
+    private long corregidos;
+    private long particiones;
+    private long milisegundos;
+
+    public void sumarProductosRevisados(long n) {
+        productosRevisados += n;
+    }
+
+    public void sumarMovimientosAplicados(long n) {
+        movimientosAplicados += n;
+    }
+
+    public void sumarDiferencias(long n) {
+        diferencias += n;
+    }
+
+    public void sumarCorregidos(long n) {
+        corregidos += n;
+    }
+
+    /**
+     * Acumula el informe de una partición en este.
+     *
+     * @param otro Informe parcial
+     */
+    public void sumar(ResultadoReconstruccion otro) {
+        productosRevisados += otro.productosRevisados;
+        movimientosAplicados += otro.movimientosAplicados;
+        diferencias += otro.diferencias;
+        corregidos += otro.corregidos;
+        particiones++;
+    }
+
+    public long getProductosRevisados() {
+        return productosRevisados;
+    }
+
+    public long getMovimientosAplicados() {
+        return movimientosAplicados;
+    }
+
+    /**
+     * Productos cuyo stock en la tabla no coincide con el del libro.
+     */
+    public long getDiferencias() {
+        return diferencias;
+    }
+
+    public long getCorregidos() {
+        return corregidos;
+    }
+
+    public long getParticiones() {
+        return particiones;
+    }
+
+    public long getMilisegundos() {
+        return milisegundos;
+    }
+
+    public void setMilisegundos(long milisegundos) {
+        this.milisegundos = milisegundos;
+    }
+}
@@ -0,0 +1,37 @@
+package com.inventario.dto;
+
+/**
+ * Cifras agregadas del inventario para el panel de administración.
+ *
+ * Proyección de una única fila calculada por la base de datos; ningún
+ * producto ni categoría se carga en memoria para obtenerla.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+public interface ResumenInventario {
+
+    /**
+     * @return Número total de productos
+     */
+    Long getTotalProductos();
+
+    /**
+     * @return Número de productos activos
+     */
+    Long getProductosActivos();
+
+    /**
+     * @return Número total de categorías
+     */
+    Long getTotalCategorias();
+
+    /**
+     * @return Suma de precio * stock de todos los productos
+     */
+    Double getValorInventario();
+
+    /**
+     * @return Número de productos con bajo stock
+     */
+    Long getProductosBajoStock();
+}
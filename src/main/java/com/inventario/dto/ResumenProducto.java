@@ -0,0 +1,25 @@
+package com.inventario.dto;
+
+/**
+ * Proyección ligera de un producto para rankings y tablas resumen.
+ *
+ * Spring Data la implementa a partir de los alias de la consulta, de modo
+ * que sólo se transfieren las columnas necesarias y no se crean entidades
+ * administradas en el contexto de persistencia.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+public interface ResumenProducto {
+
+    Integer getId();
+
+    String getCodigo();
+
+    String getNombre();
+
+    Double getPrecio();
+
+    Integer getStock();
+
+    Boolean getActivo();
+}
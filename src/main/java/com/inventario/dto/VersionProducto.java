@@ -0,0 +1,16 @@
+package com.inventario.dto;
+
+/**
+ * Proyección mínima de un producto: id y versión de la fila.
+ *
+ * Basta para calcular el ETag de un recurso o una colección de la API
+ * sin cargar el resto de columnas.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+public interface VersionProducto {
+
+    Integer getId();
+
+    Long getVersion();
+}
@@ -0,0 +1,46 @@
+package com.inventario.metricas;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Mide la duración de los métodos públicos de {@code ProductoService}.
+ *
+ * Sólo se miden las llamadas que entran por el proxy de Spring (desde
+ * controladores y otros beans); las llamadas internas del servicio quedan
+ * incluidas en el método que las hace.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Aspect
+@Component
+public class AspectoMetricasServicio {
+
+    static final String METRICA = "inventario_servicio_segundos";
+
+    private final RegistroMetricas registro;
+
+    public AspectoMetricasServicio(RegistroMetricas registro) {
+        this.registro = registro;
+    }
+
+    @Around("execution(public * com.inventario.service.ProductoService.*(..))")
+    public Object medir(ProceedingJoinPoint punto) throws Throwable {
+        long inicio = System.nanoTime();
+        String resultado = "error";
+        try {
+            Object valor = punto.proceed();
+            resultado = "ok";
+            return valor;
+        } finally {
+            registro.histograma(METRICA, "Duración de los métodos de servicio", Histograma.LIMITES_SEGUNDOS,
+                    FormatoPrometheus.etiquetas(
+                            "servicio", punto.getSignature().getDeclaringType().getSimpleName(),
+                            "metodo", punto.getSignature().getName(),
+                            "resultado", resultado))
+                    .observarNanos(System.nanoTime() - inicio);
+        }
+    }
+}
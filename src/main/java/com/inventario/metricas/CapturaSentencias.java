@@ -0,0 +1,72 @@
+package com.inventario.metricas;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Captura las sentencias SQL (texto y parámetros) que ejecuta el hilo actual.
+ *
+ * {@link DataSourceMedido} registra aquí cada sentencia mientras la captura
+ * está abierta en el hilo; fuera de ella no guarda nada. La usa
+ * VerificadorPlanesConsulta para obtener el SQL que genera cada consulta de
+ * los repositorios y pedir su plan con EXPLAIN.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+public final class CapturaSentencias {
+
+    private static final ThreadLocal<List<Sentencia>> CAPTURADAS = new ThreadLocal<>();
+
+    private CapturaSentencias() {}
+
+    /**
+     * Abre la captura en el hilo actual.
+     */
+    public static void iniciar() {
+        CAPTURADAS.set(new ArrayList<>());
+    }
+
+    /**
+     * Cierra la captura del hilo actual.
+     *
+     * @return Sentencias ejecutadas desde {@link #iniciar()}, en orden
+     */
+    public static List<Sentencia> terminar() {
+        List<Sentencia> capturadas = CAPTURADAS.get();
+        CAPTURADAS.remove();
+        return capturadas != null ? capturadas : Collections.emptyList();
+    }
+
+    static boolean activa() {
+        return CAPTURADAS.get() != null;
+    }
+
+    static void registrar(String sql, List<Object> parametros) {
+        List<Sentencia> capturadas = CAPTURADAS.get();
+        if (capturadas != null && sql != null) {
+            capturadas.add(new Sentencia(sql, parametros));
+        }
+    }
+
+    /**
+     * Una sentencia ejecutada con sus parámetros en orden de posición.
+     */
+    public static final class Sentencia {
+        private final String sql;
+        private final List<Object> parametros;
+
+        Sentencia(String sql, List<Object> parametros) {
+            this.sql = sql;
+            this.parametros = parametros;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public List<Object> getParametros() {
+            return parametros;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.inventario.metricas;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cuenta las sentencias SQL ejecutadas, en total y por petición.
+ *
+ * {@link FiltroMetricas} abre el conteo al empezar la petición y lo cierra
+ * al terminar; {@link DataSourceMedido} suma una unidad por cada sentencia
+ * ejecutada en el hilo. Las sentencias de hilos sin petición (tareas
+ * periódicas, reconstrucciones) sólo suman al total.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+public final class ContadorSql {
+
+    private static final ThreadLocal<long[]> POR_PETICION = new ThreadLocal<>();
+    private static final LongAdder TOTAL = new LongAdder();
+
+    private ContadorSql() {}
+
+    static void iniciar() {
+        POR_PETICION.set(new long[1]);
+    }
+
+    /**
+     * Cierra el conteo del hilo actual.
+     *
+     * @return Sentencias ejecutadas desde {@link #iniciar()} (0 si no se inició)
+     */
+    static long terminar() {
+        long[] actual = POR_PETICION.get();
+        POR_PETICION.remove();
+        return actual != null ? actual[0] : 0;
+    }
+
+    static void registrar() {
+        TOTAL.increment();
+        long[] actual = POR_PETICION.get();
+        if (actual != null) {
+            actual[0]++;
+        }
+    }
+
+    public static long total() {
+        return TOTAL.sum();
+    }
+}
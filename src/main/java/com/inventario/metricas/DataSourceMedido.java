@@ -0,0 +1,154 @@
+package com.inventario.metricas;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * DataSource que mide la espera por una conexión del pool y cuenta las
+ * sentencias ejecutadas.
+ *
+ * Envuelve al pool (HikariCP) y devuelve conexiones que a su vez envuelven
+ * sus sentencias. Se cuenta una sentencia por cada llamada a execute*, así
+ * que un lote JDBC cuenta una vez por executeBatch. Cubre tanto Hibernate
+ * como JdbcTemplate porque ambos obtienen las conexiones de este DataSource.
+ *
+ * Si el hilo tiene abierta una {@link CapturaSentencias}, cada sentencia
+ * ejecutada se registra además con su texto y sus parámetros.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+public class DataSourceMedido extends DelegatingDataSource {
+
+    static final String METRICA_ESPERA = "inventario_bd_espera_conexion_segundos";
+
+    private final Histograma espera;
+
+    public DataSourceMedido(DataSource destino, RegistroMetricas registro) {
+        super(destino);
+        this.espera = registro.histograma(METRICA_ESPERA,
+                "Tiempo hasta obtener una conexión del pool", Histograma.LIMITES_SEGUNDOS, "");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long inicio = System.nanoTime();
+        Connection conexion = super.getConnection();
+        espera.observarNanos(System.nanoTime() - inicio);
+        return envolver(conexion);
+    }
+
+    @Override
+    public Connection getConnection(String usuario, String clave) throws SQLException {
+        long inicio = System.nanoTime();
+        Connection conexion = super.getConnection(usuario, clave);
+        espera.observarNanos(System.nanoTime() - inicio);
+        return envolver(conexion);
+    }
+
+    private static Connection envolver(Connection conexion) {
+        return (Connection) Proxy.newProxyInstance(DataSourceMedido.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new ManejadorConexion(conexion));
+    }
+
+    /**
+     * Invoca el método sobre el objeto real sin envolver sus excepciones.
+     */
+    private static Object delegar(Object destino, Method metodo, Object[] args) throws Throwable {
+        try {
+            return metodo.invoke(destino, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Equals y hashCode por identidad del proxy, para que la conexión
+     * envuelta pueda usarse como clave (p. ej. en ConnectionHolder).
+     */
+    private static Object identidad(Object proxy, Method metodo, Object[] args) {
+        return metodo.getName().equals("equals") ? (Object) (proxy == args[0]) : (Object) System.identityHashCode(proxy);
+    }
+
+    private static boolean esIdentidad(Method metodo) {
+        return (metodo.getName().equals("equals") && metodo.getParameterCount() == 1)
+                || (metodo.getName().equals("hashCode") && metodo.getParameterCount() == 0);
+    }
+
+    private static final class ManejadorConexion implements InvocationHandler {
+        private final Connection conexion;
+
+        private ManejadorConexion(Connection conexion) {
+            this.conexion = conexion;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            if (esIdentidad(metodo)) {
+                return identidad(proxy, metodo, args);
+            }
+            Object resultado = delegar(conexion, metodo, args);
+            if (resultado instanceof Statement sentencia) {
+                Class<?> tipo = sentencia instanceof CallableStatement ? CallableStatement.class
+                        : sentencia instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                // prepareStatement(sql, ...) y prepareCall(sql, ...) reciben el SQL primero
+                String sql = sentencia instanceof PreparedStatement && args != null && args.length > 0
+                        && args[0] instanceof String texto ? texto : null;
+                return Proxy.newProxyInstance(DataSourceMedido.class.getClassLoader(),
+                        new Class<?>[]{tipo}, new ManejadorSentencia(sentencia, sql));
+            }
+            return resultado;
+        }
+    }
+
+    private static final class ManejadorSentencia implements InvocationHandler {
+        private final Statement sentencia;
+        private final String sql;
+        // Parámetros por posición, sólo mientras hay una captura abierta
+        private Map<Integer, Object> parametros;
+
+        private ManejadorSentencia(Statement sentencia, String sql) {
+            this.sentencia = sentencia;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method metodo, Object[] args) throws Throwable {
+            if (esIdentidad(metodo)) {
+                return identidad(proxy, metodo, args);
+            }
+            String nombre = metodo.getName();
+            if (nombre.startsWith("execute")) {
+                ContadorSql.registrar();
+                if (CapturaSentencias.activa()) {
+                    String texto = args != null && args.length > 0 && args[0] instanceof String s ? s : sql;
+                    CapturaSentencias.registrar(texto,
+                            parametros != null ? new ArrayList<>(parametros.values()) : List.of());
+                }
+            } else if (nombre.startsWith("set") && args != null && args.length >= 2
+                    && args[0] instanceof Integer posicion && CapturaSentencias.activa()) {
+                if (parametros == null) {
+                    parametros = new TreeMap<>();
+                }
+                // setNull(posicion, tipo) deja el parámetro en null
+                parametros.put(posicion, nombre.equals("setNull") ? null : args[1]);
+            } else if (nombre.equals("clearParameters") && parametros != null) {
+                parametros.clear();
+            }
+            return delegar(sentencia, metodo, args);
+        }
+    }
+}
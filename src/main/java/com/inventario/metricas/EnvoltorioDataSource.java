@@ -0,0 +1,32 @@
+package com.inventario.metricas;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+
+/**
+ * Sustituye el DataSource de la aplicación por un {@link DataSourceMedido}
+ * que lo envuelve, antes de que JPA o JdbcTemplate lo reciban.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Component
+public class EnvoltorioDataSource implements BeanPostProcessor {
+
+    // Se resuelve al envolver: un BeanPostProcessor no debe forzar la creación temprana de sus dependencias
+    private final ObjectProvider<RegistroMetricas> registro;
+
+    public EnvoltorioDataSource(ObjectProvider<RegistroMetricas> registro) {
+        this.registro = registro;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String nombre) {
+        if (bean instanceof DataSource fuente && !(bean instanceof DataSourceMedido)) {
+            return new DataSourceMedido(fuente, registro.getObject());
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,155 @@
+package com.inventario.metricas;
+
+import com.inventario.cache.CacheCredenciales;
+import com.inventario.cache.CacheProductos;
+import com.inventario.cache.CacheTablaProductos;
+import com.inventario.cache.CacheUsuarios;
+import com.inventario.cache.EstadisticasCache;
+import com.inventario.config.CodificadorContrasenaAcotado;
+import com.inventario.config.DiagnosticoHilosVirtuales;
+import com.inventario.service.MotorReservas;
+import com.inventario.service.PublicadorEventosProductos;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Genera la exposición completa en formato de texto de Prometheus: las
+ * métricas del {@link RegistroMetricas} más los contadores que ya llevan
+ * las cachés, el pool de conexiones, el pool de login, las reservas, el
+ * canal SSE y el diagnóstico de hilos, leídos en el momento de la consulta.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Component
+public class ExportadorPrometheus {
+
+    private final RegistroMetricas registro;
+    private final DataSource dataSource;
+    private final CacheProductos cacheProductos;
+    private final CacheUsuarios cacheUsuarios;
+    private final CacheCredenciales cacheCredenciales;
+    private final CacheTablaProductos cacheTabla;
+    private final CodificadorContrasenaAcotado codificadorContrasena;
+    private final MotorReservas motorReservas;
+    private final PublicadorEventosProductos eventos;
+    private final DiagnosticoHilosVirtuales diagnosticoHilos;
+
+    public ExportadorPrometheus(RegistroMetricas registro, DataSource dataSource,
+                                CacheProductos cacheProductos, CacheUsuarios cacheUsuarios,
+                                CacheCredenciales cacheCredenciales,
+                                CacheTablaProductos cacheTabla, CodificadorContrasenaAcotado codificadorContrasena,
+                                MotorReservas motorReservas, PublicadorEventosProductos eventos,
+                                DiagnosticoHilosVirtuales diagnosticoHilos) {
+        this.registro = registro;
+        this.dataSource = dataSource;
+        this.cacheProductos = cacheProductos;
+        this.cacheUsuarios = cacheUsuarios;
+        this.cacheCredenciales = cacheCredenciales;
+        this.cacheTabla = cacheTabla;
+        this.codificadorContrasena = codificadorContrasena;
+        this.motorReservas = motorReservas;
+        this.eventos = eventos;
+        this.diagnosticoHilos = diagnosticoHilos;
+    }
+
+    /**
+     * @return Todas las métricas en formato de texto de Prometheus
+     */
+    public String exportar() {
+        StringBuilder sb = new StringBuilder(64 * 1024);
+        registro.escribir(sb);
+        escribirCaches(sb);
+        escribirPoolConexiones(sb);
+        escribirPoolLogin(sb);
+        escribirMapa(sb, "inventario_reservas_", "Reservas de stock del carrito", motorReservas.metricas());
+        escribirMapa(sb, "inventario_eventos_", "Canal SSE de productos", eventos.metricas());
+        escribirMapa(sb, "inventario_hilos_", "Modo de hilos de las peticiones", diagnosticoHilos.metricas());
+        return sb.toString();
+    }
+
+    private void escribirCaches(StringBuilder sb) {
+        Map<String, EstadisticasCache> caches = new LinkedHashMap<>();
+        caches.put("productos_id", cacheProductos.estadisticasPorId());
+        caches.put("productos_codigo", cacheProductos.estadisticasPorCodigo());
+        caches.put("usuarios", cacheUsuarios.estadisticas());
+        caches.put("credenciales", cacheCredenciales.estadisticas());
+        caches.put("tabla_productos", cacheTabla.estadisticas());
+
+        FormatoPrometheus.cabecera(sb, "inventario_cache_aciertos_total", "counter", "Lecturas servidas desde la caché");
+        caches.forEach((n, e) -> FormatoPrometheus.muestra(sb, "inventario_cache_aciertos_total",
+                FormatoPrometheus.etiquetas("cache", n), e.getAciertos()));
+        FormatoPrometheus.cabecera(sb, "inventario_cache_fallos_total", "counter", "Lecturas que no estaban en la caché");
+        caches.forEach((n, e) -> FormatoPrometheus.muestra(sb, "inventario_cache_fallos_total",
+                FormatoPrometheus.etiquetas("cache", n), e.getFallos()));
+        FormatoPrometheus.cabecera(sb, "inventario_cache_desalojos_total", "counter", "Entradas desalojadas por capacidad");
+        caches.forEach((n, e) -> FormatoPrometheus.muestra(sb, "inventario_cache_desalojos_total",
+                FormatoPrometheus.etiquetas("cache", n), e.getDesalojos()));
+        FormatoPrometheus.cabecera(sb, "inventario_cache_tasa_aciertos", "gauge", "Proporción de aciertos desde el arranque");
+        caches.forEach((n, e) -> FormatoPrometheus.muestra(sb, "inventario_cache_tasa_aciertos",
+                FormatoPrometheus.etiquetas("cache", n), e.getTasaAciertos()));
+        FormatoPrometheus.cabecera(sb, "inventario_cache_ocupacion", "gauge",
+                "Entradas ocupadas (KB en tabla_productos)");
+        caches.forEach((n, e) -> FormatoPrometheus.muestra(sb, "inventario_cache_ocupacion",
+                FormatoPrometheus.etiquetas("cache", n), e.getTamano()));
+    }
+
+    private void escribirPoolConexiones(StringBuilder sb) {
+        HikariPoolMXBean pool = poolHikari();
+        if (pool == null) {
+            return;
+        }
+        FormatoPrometheus.cabecera(sb, "inventario_bd_conexiones", "gauge", "Conexiones del pool por estado");
+        FormatoPrometheus.muestra(sb, "inventario_bd_conexiones", FormatoPrometheus.etiquetas("estado", "activas"),
+                pool.getActiveConnections());
+        FormatoPrometheus.muestra(sb, "inventario_bd_conexiones", FormatoPrometheus.etiquetas("estado", "inactivas"),
+                pool.getIdleConnections());
+        FormatoPrometheus.muestra(sb, "inventario_bd_conexiones", FormatoPrometheus.etiquetas("estado", "total"),
+                pool.getTotalConnections());
+        FormatoPrometheus.cabecera(sb, "inventario_bd_hilos_esperando", "gauge", "Hilos esperando una conexión del pool");
+        FormatoPrometheus.muestra(sb, "inventario_bd_hilos_esperando", "", pool.getThreadsAwaitingConnection());
+        FormatoPrometheus.cabecera(sb, "inventario_sql_sentencias_total", "counter", "Sentencias SQL ejecutadas desde el arranque");
+        FormatoPrometheus.muestra(sb, "inventario_sql_sentencias_total", "", ContadorSql.total());
+    }
+
+    private HikariPoolMXBean poolHikari() {
+        try {
+            if (dataSource.isWrapperFor(HikariDataSource.class)) {
+                // null hasta que el pool abre su primera conexión
+                return dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+            }
+        } catch (SQLException e) {
+            // Sin datos del pool: se omiten sus métricas
+        }
+        return null;
+    }
+
+    private void escribirPoolLogin(StringBuilder sb) {
+        CodificadorContrasenaAcotado.MetricasPoolLogin m = codificadorContrasena.metricas();
+        Map<String, Long> valores = new LinkedHashMap<>();
+        valores.put("enviadas", m.getEnviadas());
+        valores.put("rechazadas", m.getRechazadas());
+        valores.put("expiradas", m.getExpiradas());
+        valores.put("completadas", m.getCompletadas());
+        valores.put("activas", (long) m.getActivas());
+        valores.put("enCola", (long) m.getEnCola());
+        valores.put("esperaMediaMicros", m.getEsperaMediaMicros());
+        escribirMapa(sb, "inventario_login_", "Pool de verificación de contraseñas", valores);
+    }
+
+    /**
+     * Publica cada entrada de un mapa de contadores como un gauge propio.
+     */
+    private static void escribirMapa(StringBuilder sb, String prefijo, String ayuda, Map<String, Long> valores) {
+        for (Map.Entry<String, Long> e : valores.entrySet()) {
+            String nombre = prefijo + FormatoPrometheus.serpiente(e.getKey());
+            FormatoPrometheus.cabecera(sb, nombre, "gauge", ayuda + ": " + e.getKey());
+            FormatoPrometheus.muestra(sb, nombre, "", e.getValue());
+        }
+    }
+}
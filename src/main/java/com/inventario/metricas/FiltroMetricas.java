@@ -0,0 +1,84 @@
+package com.inventario.metricas;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Mide cada petición: latencia por método de controlador y sentencias SQL
+ * ejecutadas durante la petición.
+ *
+ * Se ejecuta antes que Spring Security, así que la latencia incluye la
+ * autenticación y el envío del formulario de login (POST /login, que no
+ * llega a ningún controlador) se mide como {@code controlador="login"}.
+ * El método de controlador se toma del atributo que deja el
+ * {@link HandlerMapping} al resolver la petición. Las peticiones asíncronas
+ * (canal SSE) no se miden: su duración es la de la suscripción.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class FiltroMetricas extends OncePerRequestFilter {
+
+    static final String METRICA_LATENCIA = "inventario_http_peticion_segundos";
+    static final String METRICA_SQL = "inventario_sql_sentencias_por_peticion";
+
+    private final RegistroMetricas registro;
+
+    public FiltroMetricas(RegistroMetricas registro) {
+        this.registro = registro;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long inicio = System.nanoTime();
+        ContadorSql.iniciar();
+        boolean fallo = true;
+        try {
+            chain.doFilter(request, response);
+            fallo = false;
+        } finally {
+            long sentencias = ContadorSql.terminar();
+            if (!request.isAsyncStarted()) {
+                registrar(request, response, fallo, System.nanoTime() - inicio, sentencias);
+            }
+        }
+    }
+
+    private void registrar(HttpServletRequest request, HttpServletResponse response, boolean fallo,
+                           long nanos, long sentencias) {
+        String controlador;
+        String metodo;
+        Object manejador = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (manejador instanceof HandlerMethod hm) {
+            controlador = hm.getBeanType().getSimpleName();
+            metodo = hm.getMethod().getName();
+        } else if ("POST".equals(request.getMethod()) && "/login".equals(request.getServletPath())) {
+            controlador = "login";
+            metodo = "autenticar";
+        } else {
+            // Recursos estáticos, redirecciones de seguridad y rutas sin controlador
+            controlador = "otros";
+            metodo = "otros";
+        }
+        String estado = fallo ? "5xx" : (response.getStatus() / 100) + "xx";
+        String etiquetas = FormatoPrometheus.etiquetas("controlador", controlador, "metodo", metodo);
+        registro.histograma(METRICA_LATENCIA, "Latencia de las peticiones por método de controlador",
+                Histograma.LIMITES_SEGUNDOS, FormatoPrometheus.agregar(etiquetas, "estado", estado))
+                .observarNanos(nanos);
+        registro.histograma(METRICA_SQL, "Sentencias SQL ejecutadas por petición",
+                Histograma.LIMITES_CONTEO, etiquetas)
+                .observar(sentencias);
+    }
+}
@@ -0,0 +1,97 @@
+package com.inventario.metricas;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * Utilidades para escribir el formato de texto de Prometheus (versión 0.0.4).
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+public final class FormatoPrometheus {
+
+    public static final String TIPO_CONTENIDO = "text/plain; version=0.0.4; charset=utf-8";
+
+    private FormatoPrometheus() {}
+
+    /**
+     * Construye la lista de etiquetas a partir de pares clave, valor.
+     *
+     * @param pares Claves y valores alternados
+     * @return Etiquetas sin llaves, p. ej. {@code cache="usuarios"}
+     */
+    public static String etiquetas(String... pares) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i + 1 < pares.length; i += 2) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(pares[i]).append("=\"");
+            escapar(sb, pares[i + 1]);
+            sb.append('"');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Añade una etiqueta a una lista existente.
+     */
+    public static String agregar(String etiquetas, String clave, String valor) {
+        String extra = etiquetas(clave, valor);
+        return etiquetas.isEmpty() ? extra : etiquetas + "," + extra;
+    }
+
+    public static void cabecera(StringBuilder sb, String nombre, String tipo, String ayuda) {
+        sb.append("# HELP ").append(nombre).append(' ').append(ayuda).append('\n');
+        sb.append("# TYPE ").append(nombre).append(' ').append(tipo).append('\n');
+    }
+
+    public static void muestra(StringBuilder sb, String nombre, String etiquetas, double valor) {
+        sb.append(nombre);
+        if (!etiquetas.isEmpty()) {
+            sb.append('{').append(etiquetas).append('}');
+        }
+        sb.append(' ').append(numero(valor)).append('\n');
+    }
+
+    public static String numero(double valor) {
+        if (Double.isInfinite(valor)) {
+            return valor > 0 ? "+Inf" : "-Inf";
+        }
+        if (Double.isNaN(valor)) {
+            return "NaN";
+        }
+        if (valor == Math.rint(valor) && Math.abs(valor) < 1e15) {
+            return Long.toString((long) valor);
+        }
+        // 9 cifras significativas: suficiente precisión sin el ruido de punto flotante
+        return new BigDecimal(valor).round(new MathContext(9)).stripTrailingZeros().toPlainString();
+    }
+
+    /**
+     * Convierte un nombre camelCase a snake_case (para métricas derivadas de mapas).
+     */
+    public static String serpiente(String camello) {
+        StringBuilder sb = new StringBuilder(camello.length() + 4);
+        for (char c : camello.toCharArray()) {
+            if (Character.isUpperCase(c)) {
+                sb.append('_').append(Character.toLowerCase(c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void escapar(StringBuilder sb, String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case '"' -> sb.append("\\\"");
+                case '\n' -> sb.append("\\n");
+                default -> sb.append(c);
+            }
+        }
+    }
+}
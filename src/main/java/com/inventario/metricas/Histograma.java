@@ -0,0 +1,139 @@
+package com.inventario.metricas;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de casillas fijas, acumulado desde el arranque.
+ *
+ * Cada observación incrementa un {@link LongAdder}, así que registrar es
+ * barato y no bloquea aunque muchas peticiones observen a la vez. Los
+ * percentiles se estiman interpolando dentro de la casilla que los contiene,
+ * igual que histogram_quantile de Prometheus.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+public final class Histograma {
+
+    /**
+     * Límites para latencias en segundos: de 100 µs a ~74 s, cada uno √2 veces
+     * el anterior (error de percentil acotado a ~20 %).
+     */
+    public static final double[] LIMITES_SEGUNDOS = geometricos(0.0001, Math.sqrt(2), 40);
+
+    /**
+     * Límites para conteos pequeños (por ejemplo, sentencias SQL por petición).
+     */
+    public static final double[] LIMITES_CONTEO = {0, 1, 2, 3, 4, 5, 7, 10, 15, 20, 30, 50, 75, 100, 150, 200, 300, 500, 1000};
+
+    private final double[] limites;
+    private final LongAdder[] casillas;
+    private final DoubleAdder suma = new DoubleAdder();
+    private final LongAdder total = new LongAdder();
+
+    public Histograma(double[] limites) {
+        this.limites = limites;
+        // La última casilla es +Inf
+        this.casillas = new LongAdder[limites.length + 1];
+        for (int i = 0; i < casillas.length; i++) {
+            casillas[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Registra una observación.
+     *
+     * @param valor Valor observado (segundos o unidades, según los límites)
+     */
+    public void observar(double valor) {
+        casillas[casilla(valor)].increment();
+        suma.add(valor);
+        total.increment();
+    }
+
+    public void observarNanos(long nanos) {
+        observar(nanos / 1e9);
+    }
+
+    private int casilla(double valor) {
+        // Búsqueda binaria del primer límite >= valor
+        int bajo = 0;
+        int alto = limites.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (limites[medio] < valor) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    public long getTotal() {
+        return total.sum();
+    }
+
+    public double getSuma() {
+        return suma.sum();
+    }
+
+    double[] getLimites() {
+        return limites;
+    }
+
+    /**
+     * @return Conteos por casilla (no acumulados); el último es +Inf
+     */
+    long[] conteos() {
+        long[] c = new long[casillas.length];
+        for (int i = 0; i < c.length; i++) {
+            c[i] = casillas[i].sum();
+        }
+        return c;
+    }
+
+    /**
+     * Estima un percentil interpolando linealmente dentro de su casilla.
+     *
+     * @param q Cuantil entre 0 y 1
+     * @return Valor estimado (0 si no hay observaciones)
+     */
+    public double percentil(double q) {
+        long[] c = conteos();
+        long n = 0;
+        for (long v : c) {
+            n += v;
+        }
+        if (n == 0) {
+            return 0;
+        }
+        double objetivo = q * n;
+        long acumulado = 0;
+        for (int i = 0; i < c.length; i++) {
+            if (acumulado + c[i] >= objetivo && c[i] > 0) {
+                if (i == limites.length) {
+                    // Cae en +Inf: el mejor dato disponible es el último límite
+                    return limites[limites.length - 1];
+                }
+                double inferior = i == 0 ? 0 : limites[i - 1];
+                return inferior + (limites[i] - inferior) * (objetivo - acumulado) / c[i];
+            }
+            acumulado += c[i];
+        }
+        return limites[limites.length - 1];
+    }
+
+    private static double[] geometricos(double inicio, double factor, int cantidad) {
+        double[] l = new double[cantidad];
+        double v = inicio;
+        for (int i = 0; i < cantidad; i++) {
+            // Redondeado a 3 cifras para que la etiqueta "le" sea legible
+            l[i] = new BigDecimal(v).round(new MathContext(3)).doubleValue();
+            v *= factor;
+        }
+        return l;
+    }
+}
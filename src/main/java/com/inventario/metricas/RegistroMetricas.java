@@ -0,0 +1,124 @@
+package com.inventario.metricas;
+
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Registro en memoria de histogramas y contadores con etiquetas.
+ *
+ * Cada métrica es una familia (nombre y ayuda) con una serie por
+ * combinación de etiquetas. Las series se crean al primer uso y sólo
+ * crecen, por eso las etiquetas deben tener cardinalidad acotada
+ * (controlador y método, nunca ids ni textos del usuario).
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Component
+public class RegistroMetricas {
+
+    /**
+     * Percentiles que se publican junto a cada histograma.
+     */
+    private static final double[] PERCENTILES = {0.5, 0.95, 0.99};
+
+    private final Map<String, Familia<Histograma>> histogramas = new ConcurrentHashMap<>();
+    private final Map<String, Familia<LongAdder>> contadores = new ConcurrentHashMap<>();
+
+    /**
+     * Obtiene (o crea) la serie de un histograma.
+     *
+     * @param nombre Nombre de la métrica
+     * @param ayuda Descripción para la línea HELP
+     * @param limites Límites de las casillas (ver {@link Histograma})
+     * @param etiquetas Etiquetas de la serie (ver {@link FormatoPrometheus#etiquetas})
+     * @return Histograma de la serie
+     */
+    public Histograma histograma(String nombre, String ayuda, double[] limites, String etiquetas) {
+        Familia<Histograma> familia = histogramas.get(nombre);
+        if (familia == null) {
+            familia = histogramas.computeIfAbsent(nombre, n -> new Familia<>(ayuda, e -> new Histograma(limites)));
+        }
+        return familia.serie(etiquetas);
+    }
+
+    /**
+     * Obtiene (o crea) la serie de un contador monótono.
+     */
+    public LongAdder contador(String nombre, String ayuda, String etiquetas) {
+        Familia<LongAdder> familia = contadores.get(nombre);
+        if (familia == null) {
+            familia = contadores.computeIfAbsent(nombre, n -> new Familia<>(ayuda, e -> new LongAdder()));
+        }
+        return familia.serie(etiquetas);
+    }
+
+    /**
+     * Escribe todas las familias en formato de texto de Prometheus. Cada
+     * histograma publica además sus percentiles en la familia
+     * {@code <nombre>_percentil} (gauge con la etiqueta quantile).
+     */
+    public void escribir(StringBuilder sb) {
+        for (Map.Entry<String, Familia<LongAdder>> f : new TreeMap<>(contadores).entrySet()) {
+            FormatoPrometheus.cabecera(sb, f.getKey(), "counter", f.getValue().ayuda);
+            for (Map.Entry<String, LongAdder> s : new TreeMap<>(f.getValue().series).entrySet()) {
+                FormatoPrometheus.muestra(sb, f.getKey(), s.getKey(), s.getValue().sum());
+            }
+        }
+        for (Map.Entry<String, Familia<Histograma>> f : new TreeMap<>(histogramas).entrySet()) {
+            String nombre = f.getKey();
+            Map<String, Histograma> series = new TreeMap<>(f.getValue().series);
+            FormatoPrometheus.cabecera(sb, nombre, "histogram", f.getValue().ayuda);
+            for (Map.Entry<String, Histograma> s : series.entrySet()) {
+                escribirHistograma(sb, nombre, s.getKey(), s.getValue());
+            }
+            FormatoPrometheus.cabecera(sb, nombre + "_percentil", "gauge",
+                    "Percentiles estimados de " + nombre + " desde el arranque");
+            for (Map.Entry<String, Histograma> s : series.entrySet()) {
+                for (double q : PERCENTILES) {
+                    FormatoPrometheus.muestra(sb, nombre + "_percentil",
+                            FormatoPrometheus.agregar(s.getKey(), "quantile", FormatoPrometheus.numero(q)),
+                            s.getValue().percentil(q));
+                }
+            }
+        }
+    }
+
+    private static void escribirHistograma(StringBuilder sb, String nombre, String etiquetas, Histograma h) {
+        double[] limites = h.getLimites();
+        long[] conteos = h.conteos();
+        long acumulado = 0;
+        for (int i = 0; i < conteos.length; i++) {
+            acumulado += conteos[i];
+            String le = i < limites.length ? FormatoPrometheus.numero(limites[i]) : "+Inf";
+            FormatoPrometheus.muestra(sb, nombre + "_bucket", FormatoPrometheus.agregar(etiquetas, "le", le), acumulado);
+        }
+        FormatoPrometheus.muestra(sb, nombre + "_sum", etiquetas, h.getSuma());
+        // _count coherente con el bucket +Inf aunque haya escrituras concurrentes
+        FormatoPrometheus.muestra(sb, nombre + "_count", etiquetas, acumulado);
+    }
+
+    /**
+     * Familia de series de una métrica.
+     */
+    private static final class Familia<T> {
+        private final String ayuda;
+        private final Function<String, T> fabrica;
+        private final Map<String, T> series = new ConcurrentHashMap<>();
+
+        private Familia(String ayuda, Function<String, T> fabrica) {
+            this.ayuda = ayuda;
+            this.fabrica = fabrica;
+        }
+
+        T serie(String etiquetas) {
+            // get antes de computeIfAbsent: la serie casi siempre existe ya
+            T serie = series.get(etiquetas);
+            return serie != null ? serie : series.computeIfAbsent(etiquetas, fabrica);
+        }
+    }
+}
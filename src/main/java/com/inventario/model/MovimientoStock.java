@@ -0,0 +1,118 @@
+package com.inventario.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa un movimiento de stock en el libro de movimientos.
+ *
+ * El libro es de sólo inserción: cada cambio de stock añade una fila con su
+ * diferencia (delta), el motivo, el usuario y la fecha; nunca se modifica ni
+ * se borra. El stock de Producto es la instantánea materializada de estos
+ * movimientos. Las filas se escriben por lotes JDBC desde
+ * LibroMovimientosStock; esta entidad sólo se usa para consultar el historial.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Entity
+@Table(name = "movimientos_stock", indexes = {
+        @Index(name = "idx_movimientos_producto_id", columnList = "producto_id, id")
+})
+public class MovimientoStock {
+
+    /**
+     * Motivo de un movimiento de stock.
+     */
+    public enum Motivo {
+        /** Stock con el que se crea el producto */
+        INICIAL,
+        /** Cambio manual desde el formulario de edición */
+        AJUSTE,
+        /** Descuento por un pedido confirmado */
+        VENTA,
+        /** Alta o actualización por importación masiva */
+        IMPORTACION,
+        /** Stock que desaparece al eliminar el producto */
+        BAJA
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Sin clave foránea: el historial se conserva aunque se elimine el producto
+    @Column(name = "producto_id", nullable = false)
+    private Integer productoId;
+
+    @Column(nullable = false)
+    private Integer delta;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Motivo motivo;
+
+    @Column(nullable = false, length = 50)
+    private String username;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+
+    public MovimientoStock() {}
+
+    public MovimientoStock(Integer productoId, Integer delta, Motivo motivo, String username, LocalDateTime fecha) {
+        this.productoId = productoId;
+        this.delta = delta;
+        this.motivo = motivo;
+        this.username = username;
+        this.fecha = fecha;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Integer getProductoId() {
+        return productoId;
+    }
+
+    public void setProductoId(Integer productoId) {
+        this.productoId = productoId;
+    }
+
+    public Integer getDelta() {
+        return delta;
+    }
+
+    public void setDelta(Integer delta) {
+        this.delta = delta;
+    }
+
+    public Motivo getMotivo() {
+        return motivo;
+    }
+
+    public void setMotivo(Motivo motivo) {
+        this.motivo = motivo;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDateTime fecha) {
+        this.fecha = fecha;
+    }
+}
@@ -0,0 +1,96 @@
+package com.inventario.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entidad que representa un Pedido confirmado a partir del carrito.
+ *
+ * Guarda el usuario que lo confirmó, la fecha, el total y sus líneas.
+ * Los precios se copian en las líneas para que el pedido no cambie si
+ * luego cambia el precio del producto.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Entity
+@Table(name = "pedidos")
+public class Pedido {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false, length = 50)
+    private String username;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+
+    @Column(nullable = false)
+    private Double total;
+
+    @OneToMany(mappedBy = "pedido", cascade = CascadeType.ALL, orphanRemoval = true)
+    private List<LineaPedido> lineas = new ArrayList<>();
+
+    public Pedido() {}
+
+    public Pedido(String username, LocalDateTime fecha) {
+        this.username = username;
+        this.fecha = fecha;
+        this.total = 0.0;
+    }
+
+    /**
+     * Añade una línea al pedido y acumula su subtotal en el total.
+     *
+     * @param linea Línea a añadir
+     */
+    public void agregarLinea(LineaPedido linea) {
+        linea.setPedido(this);
+        lineas.add(linea);
+        total = total + linea.getSubtotal();
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDateTime fecha) {
+        this.fecha = fecha;
+    }
+
+    public Double getTotal() {
+        return total;
+    }
+
+    public void setTotal(Double total) {
+        this.total = total;
+    }
+
+    public List<LineaPedido> getLineas() {
+        return lineas;
+    }
+
+    public void setLineas(List<LineaPedido> lineas) {
+        this.lineas = lineas;
+    }
+}
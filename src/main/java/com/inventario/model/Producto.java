@@ -5,6 +5,7 @@ import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.ColumnDefault;
 
 /**
  * Entidad que representa un Producto del inventario.
@@ -16,8 +17,23 @@ import jakarta.validation.constraints.Size;
  * @author Juanhs19
 */
 @Entity
-@Table(name = "productos")
+@Table(name = "productos", indexes = {
+        // Índices para los rankings por precio y stock (ORDER BY ... LIMIT)
+        @Index(name = "idx_productos_precio_id", columnList = "precio, id"),
+        @Index(name = "idx_productos_stock_id", columnList = "stock, id"),
+        // Listado por categoría y nombre, y resumen del panel (migración V3)
+        @Index(name = "idx_productos_categoria_id", columnList = "categoria, id, activo, version"),
+        @Index(name = "idx_productos_categoria_precio_id", columnList = "categoria, precio, id"),
+        @Index(name = "idx_productos_categoria_nombre_id", columnList = "categoria, nombre, id"),
+        @Index(name = "idx_productos_nombre_id", columnList = "nombre, id"),
+        @Index(name = "idx_productos_resumen", columnList = "activo, stock, precio")
+})
 public class Producto {
+
+    /**
+     * Umbral por debajo del cual se considera que un producto tiene bajo stock.
+     */
+    public static final int UMBRAL_BAJO_STOCK = 10;
     
     /**
      * Identificador único del producto (clave primaria).
@@ -79,6 +95,16 @@ public class Producto {
      */
     @Column(nullable = false)
     private Boolean activo = true;
+
+    /**
+     * Versión de la fila: Hibernate la incrementa en cada actualización y las
+     * sentencias masivas (descuento de stock, importación) también. Es la
+     * base de los ETag de la API REST.
+     */
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
     
     // ==================== CONSTRUCTORES ====================
     
@@ -242,6 +268,18 @@ public class Producto {
         this.activo = activo;
     }
     
+    /**
+     * Obtiene la versión de la fila (cambia en cada modificación).
+     * @return Versión actual, o null si el producto no se ha guardado
+     */
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
     // ==================== MÉTODOS ADICIONALES ====================
     
     /**
@@ -264,7 +302,7 @@ public class Producto {
      * @return true si el stock es menor a 10, false en caso contrario
      */
     public Boolean tieneBajoStock() {
-        return this.stock != null && this.stock < 10;
+        return this.stock != null && this.stock < UMBRAL_BAJO_STOCK;
     }
     
     /**
@@ -0,0 +1,66 @@
+package com.inventario.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entidad que representa el punto de control del libro de movimientos de un producto.
+ *
+ * Guarda el stock acumulado hasta el movimiento {@code ultimoMovimientoId}
+ * (incluido), de modo que reconstruir el stock sólo necesita sumar los
+ * movimientos posteriores. Se mantiene con JDBC desde LibroMovimientosStock.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Entity
+@Table(name = "puntos_control_stock")
+public class PuntoControlStock {
+
+    @Id
+    @Column(name = "producto_id")
+    private Integer productoId;
+
+    @Column(nullable = false)
+    private Integer stock;
+
+    @Column(name = "ultimo_movimiento_id", nullable = false)
+    private Long ultimoMovimientoId;
+
+    @Column(nullable = false)
+    private LocalDateTime fecha;
+
+    public PuntoControlStock() {}
+
+    public Integer getProductoId() {
+        return productoId;
+    }
+
+    public void setProductoId(Integer productoId) {
+        this.productoId = productoId;
+    }
+
+    public Integer getStock() {
+        return stock;
+    }
+
+    public void setStock(Integer stock) {
+        this.stock = stock;
+    }
+
+    public Long getUltimoMovimientoId() {
+        return ultimoMovimientoId;
+    }
+
+    public void setUltimoMovimientoId(Long ultimoMovimientoId) {
+        this.ultimoMovimientoId = ultimoMovimientoId;
+    }
+
+    public LocalDateTime getFecha() {
+        return fecha;
+    }
+
+    public void setFecha(LocalDateTime fecha) {
+        this.fecha = fecha;
+    }
+}
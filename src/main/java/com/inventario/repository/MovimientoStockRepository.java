@@ -0,0 +1,28 @@
+package com.inventario.repository;
+
+import com.inventario.model.MovimientoStock;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repositorio de consulta del libro de movimientos de stock.
+ *
+ * Las escrituras se hacen por lotes JDBC en LibroMovimientosStock; aquí sólo
+ * se lee el historial, que usa el índice (producto_id, id) y nunca toca la
+ * tabla de productos.
+ */
+@Repository
+public interface MovimientoStockRepository extends JpaRepository<MovimientoStock, Long> {
+
+    /**
+     * Últimos movimientos de un producto, del más reciente al más antiguo.
+     *
+     * @param productoId Identificador del producto
+     * @param limite Límite de filas (PageRequest.of(0, n))
+     * @return Movimientos del producto
+     */
+    List<MovimientoStock> findByProductoIdOrderByIdDesc(Integer productoId, Pageable limite);
+}
@@ -0,0 +1,14 @@
+package com.inventario.repository;
+
+import com.inventario.model.Pedido;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositorio para acceso a datos de Pedido.
+ *
+ * Las líneas se guardan en cascada junto con el pedido.
+ */
+@Repository
+public interface PedidoRepository extends JpaRepository<Pedido, Integer> {
+}
@@ -1,11 +1,183 @@
 package com.inventario.repository;
 
+import com.inventario.dto.ResumenInventario;
+import com.inventario.dto.ResumenProducto;
+import com.inventario.dto.VersionProducto;
 import com.inventario.model.Producto;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import jakarta.persistence.LockModeType;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProductoRepository extends JpaRepository<Producto, Integer> {
     Optional<Producto> findByCodigo(String codigo);
+
+    // ==================== PAGINACIÓN POR CURSOR (KEYSET) ====================
+    // Cada consulta continúa después de la última clave vista y se limita con
+    // el Pageable recibido (siempre página 0), por lo que sólo se lee una página.
+
+    /**
+     * Página de productos ordenada por id, posterior al id indicado.
+     *
+     * @param despuesDeId Último id visto (0 para la primera página)
+     * @param categoria Categoría exacta (null para no filtrar)
+     * @param activo Estado (null para no filtrar)
+     * @param nombre Patrón LIKE de prefijo del nombre (null para no filtrar)
+     * @param limite Límite de filas (PageRequest.of(0, n))
+     * @return Productos de la página
+     */
+    @Query("SELECT p FROM Producto p WHERE p.id > :despuesDeId"
+            + " AND (:categoria IS NULL OR p.categoria = :categoria)"
+            + " AND (:activo IS NULL OR p.activo = :activo)"
+            + " AND (:nombre IS NULL OR p.nombre LIKE :nombre)"
+            + " ORDER BY p.id ASC")
+    List<Producto> buscarPaginaPorId(@Param("despuesDeId") Integer despuesDeId,
+                                     @Param("categoria") String categoria,
+                                     @Param("activo") Boolean activo,
+                                     @Param("nombre") String nombre,
+                                     Pageable limite);
+
+    /**
+     * Página de productos ordenada por (precio, id), posterior a la clave indicada.
+     */
+    @Query("SELECT p FROM Producto p WHERE (p.precio > :despuesDePrecio"
+            + " OR (p.precio = :despuesDePrecio AND p.id > :despuesDeId))"
+            + " AND (:categoria IS NULL OR p.categoria = :categoria)"
+            + " AND (:activo IS NULL OR p.activo = :activo)"
+            + " AND (:nombre IS NULL OR p.nombre LIKE :nombre)"
+            + " ORDER BY p.precio ASC, p.id ASC")
+    List<Producto> buscarPaginaPorPrecio(@Param("despuesDePrecio") Double despuesDePrecio,
+                                         @Param("despuesDeId") Integer despuesDeId,
+                                         @Param("categoria") String categoria,
+                                         @Param("activo") Boolean activo,
+                                         @Param("nombre") String nombre,
+                                         Pageable limite);
+
+    /**
+     * Página de productos ordenada por (nombre, id), posterior a la clave indicada.
+     */
+    @Query("SELECT p FROM Producto p WHERE (p.nombre > :despuesDeNombre"
+            + " OR (p.nombre = :despuesDeNombre AND p.id > :despuesDeId))"
+            + " AND (:categoria IS NULL OR p.categoria = :categoria)"
+            + " AND (:activo IS NULL OR p.activo = :activo)"
+            + " AND (:nombre IS NULL OR p.nombre LIKE :nombre)"
+            + " ORDER BY p.nombre ASC, p.id ASC")
+    List<Producto> buscarPaginaPorNombre(@Param("despuesDeNombre") String despuesDeNombre,
+                                         @Param("despuesDeId") Integer despuesDeId,
+                                         @Param("categoria") String categoria,
+                                         @Param("activo") Boolean activo,
+                                         @Param("nombre") String nombre,
+                                         Pageable limite);
+
+    // ==================== VERSIONES (ETAG) ====================
+    // Sólo leen id y versión, para responder a peticiones condicionales de la
+    // API sin cargar las entidades.
+
+    @Query("SELECT p.version FROM Producto p WHERE p.id = :id")
+    Optional<Long> buscarVersion(@Param("id") Integer id);
+
+    @Query("SELECT p.id AS id, p.version AS version FROM Producto p WHERE p.codigo = :codigo")
+    Optional<VersionProducto> buscarVersionPorCodigo(@Param("codigo") String codigo);
+
+    @Query("SELECT p.id AS id, p.version AS version FROM Producto p WHERE p.id IN :ids ORDER BY p.id ASC")
+    List<VersionProducto> buscarVersionesPorIds(@Param("ids") Collection<Integer> ids);
+
+    /**
+     * Versiones de la página que devolvería {@link #buscarPaginaPorId} con los mismos argumentos.
+     */
+    @Query("SELECT p.id AS id, p.version AS version FROM Producto p WHERE p.id > :despuesDeId"
+            + " AND (:categoria IS NULL OR p.categoria = :categoria)"
+            + " AND (:activo IS NULL OR p.activo = :activo)"
+            + " AND (:nombre IS NULL OR p.nombre LIKE :nombre)"
+            + " ORDER BY p.id ASC")
+    List<VersionProducto> buscarVersionesPaginaPorId(@Param("despuesDeId") Integer despuesDeId,
+                                                     @Param("categoria") String categoria,
+                                                     @Param("activo") Boolean activo,
+                                                     @Param("nombre") String nombre,
+                                                     Pageable limite);
+
+    // ==================== RANKINGS (TOP-N) ====================
+    // Consultas acotadas por el Pageable recibido (LIMIT en SQL) que devuelven
+    // sólo una proyección. El desempate por id mantiene el orden determinista y
+    // coincide con los índices (precio, id) y (stock, id) de la tabla.
+
+    @Query("SELECT p.id AS id, p.codigo AS codigo, p.nombre AS nombre, p.precio AS precio, p.stock AS stock, p.activo AS activo"
+            + " FROM Producto p ORDER BY p.precio DESC, p.id DESC")
+    List<ResumenProducto> buscarMasCostosos(Pageable limite);
+
+    @Query("SELECT p.id AS id, p.codigo AS codigo, p.nombre AS nombre, p.precio AS precio, p.stock AS stock, p.activo AS activo"
+            + " FROM Producto p ORDER BY p.precio ASC, p.id ASC")
+    List<ResumenProducto> buscarMasBaratos(Pageable limite);
+
+    @Query("SELECT p.id AS id, p.codigo AS codigo, p.nombre AS nombre, p.precio AS precio, p.stock AS stock, p.activo AS activo"
+            + " FROM Producto p ORDER BY p.stock DESC, p.id DESC")
+    List<ResumenProducto> buscarMayorStock(Pageable limite);
+
+    @Query("SELECT p.id AS id, p.codigo AS codigo, p.nombre AS nombre, p.precio AS precio, p.stock AS stock, p.activo AS activo"
+            + " FROM Producto p ORDER BY p.stock ASC, p.id ASC")
+    List<ResumenProducto> buscarMenorStock(Pageable limite);
+
+    // ==================== RESUMEN AGREGADO ====================
+
+    /**
+     * Calcula en una sola consulta todas las cifras del panel de administración.
+     * El valor del inventario es la suma de {@link Producto#getValorTotal()}
+     * y el bajo stock usa el mismo umbral que {@link Producto#tieneBajoStock()}.
+     *
+     * @return Una fila con los totales del inventario
+     */
+    @Query("SELECT COUNT(p) AS totalProductos,"
+            + " COALESCE(SUM(CASE WHEN p.activo = true THEN 1 ELSE 0 END), 0) AS productosActivos,"
+            + " (SELECT COUNT(c) FROM Categoria c) AS totalCategorias,"
+            + " COALESCE(SUM(p.precio * p.stock), 0.0) AS valorInventario,"
+            + " COALESCE(SUM(CASE WHEN p.stock < " + Producto.UMBRAL_BAJO_STOCK + " THEN 1 ELSE 0 END), 0) AS productosBajoStock"
+            + " FROM Producto p")
+    ResumenInventario calcularResumen();
+
+    // ==================== CARRITO ====================
+
+    /**
+     * Obtiene en una sola consulta los datos de precio de los productos de un carrito.
+     *
+     * @param ids Identificadores de los productos del carrito
+     * @return Proyecciones de los productos que todavía existen
+     */
+    @Query("SELECT p.id AS id, p.codigo AS codigo, p.nombre AS nombre, p.precio AS precio, p.stock AS stock, p.activo AS activo"
+            + " FROM Producto p WHERE p.id IN :ids")
+    List<ResumenProducto> buscarResumenesPorIds(@Param("ids") Collection<Integer> ids);
+
+    // ==================== STOCK ====================
+
+    /**
+     * Descuenta stock de forma atómica sólo si hay unidades suficientes y el
+     * producto está activo. La comprobación y el descuento ocurren en la misma
+     * sentencia, así dos compras concurrentes nunca pierden escrituras.
+     *
+     * @param id Identificador del producto
+     * @param cantidad Unidades a descontar
+     * @return 1 si se descontó, 0 si no hay stock suficiente o el producto no está disponible
+     */
+    @Modifying
+    @Query("UPDATE Producto p SET p.stock = p.stock - :cantidad, p.version = p.version + 1"
+            + " WHERE p.id = :id AND p.stock >= :cantidad AND p.activo = true")
+    int descontarStock(@Param("id") Integer id, @Param("cantidad") int cantidad);
+
+    /**
+     * Obtiene un producto bloqueando su fila hasta el final de la transacción
+     * (SELECT ... FOR UPDATE), para actualizaciones de lectura-modificación-escritura.
+     *
+     * @param id Identificador del producto
+     * @return Optional con el producto bloqueado
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM Producto p WHERE p.id = :id")
+    Optional<Producto> buscarParaActualizar(@Param("id") Integer id);
 }
@@ -0,0 +1,83 @@
+package com.inventario.service;
+
+import com.inventario.dto.CarritoValorado;
+import com.inventario.dto.LineaCarrito;
+import com.inventario.dto.ResumenProducto;
+import com.inventario.repository.ProductoRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Servicio que valora el carrito de compras guardado en sesión.
+ *
+ * Resuelve todas las líneas del carrito con una sola consulta por lista de
+ * ids (sólo id, código, nombre, precio, stock y estado) y calcula subtotales
+ * y total en una única pasada, marcando las líneas cuyo producto fue
+ * eliminado, desactivado o ya no tiene stock suficiente.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Service
+public class CarritoService {
+
+    private final ProductoRepository productoRepository;
+
+    public CarritoService(ProductoRepository productoRepository) {
+        this.productoRepository = productoRepository;
+    }
+
+    /**
+     * Valora el carrito: una consulta para todas las líneas y una pasada para los totales.
+     *
+     * @param carrito Mapa productoId -> cantidad guardado en sesión
+     * @return Líneas valoradas, total y número de líneas con problemas
+     */
+    @Transactional(readOnly = true)
+    public CarritoValorado valorar(Map<Integer, Integer> carrito) {
+        if (carrito == null || carrito.isEmpty()) {
+            return new CarritoValorado(List.of(), 0.0, 0);
+        }
+
+        Map<Integer, ResumenProducto> porId = new HashMap<>(carrito.size() * 2);
+        for (ResumenProducto p : productoRepository.buscarResumenesPorIds(carrito.keySet())) {
+            porId.put(p.getId(), p);
+        }
+
+        List<LineaCarrito> lineas = new ArrayList<>(carrito.size());
+        double total = 0.0;
+        int conProblemas = 0;
+        for (Map.Entry<Integer, Integer> e : carrito.entrySet()) {
+            int cantidad = e.getValue() != null ? e.getValue() : 0;
+            ResumenProducto p = porId.get(e.getKey());
+            if (p == null) {
+                lineas.add(new LineaCarrito(e.getKey(), null, null, 0.0, 0, cantidad, 0.0,
+                        LineaCarrito.Estado.ELIMINADO));
+                conProblemas++;
+                continue;
+            }
+            double precio = p.getPrecio() != null ? p.getPrecio() : 0.0;
+            int stock = p.getStock() != null ? p.getStock() : 0;
+            LineaCarrito.Estado estado;
+            if (!Boolean.TRUE.equals(p.getActivo())) {
+                estado = LineaCarrito.Estado.INACTIVO;
+            } else if (stock < cantidad) {
+                estado = LineaCarrito.Estado.STOCK_INSUFICIENTE;
+            } else {
+                estado = LineaCarrito.Estado.DISPONIBLE;
+            }
+            double subtotal = estado == LineaCarrito.Estado.INACTIVO ? 0.0 : precio * cantidad;
+            if (estado != LineaCarrito.Estado.DISPONIBLE) {
+                conProblemas++;
+            }
+            total += subtotal;
+            lineas.add(new LineaCarrito(p.getId(), p.getCodigo(), p.getNombre(), precio, stock,
+                    cantidad, subtotal, estado));
+        }
+        return new CarritoValorado(lineas, total, conProblemas);
+    }
+}
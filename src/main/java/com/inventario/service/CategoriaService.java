@@ -3,8 +3,12 @@ package com.inventario.service;
 import com.inventario.model.Categoria;
 import com.inventario.repository.CategoriaRepository;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Servicio para gestionar operaciones sobre Categoría.
@@ -13,12 +17,24 @@ import java.util.Optional;
  * de administración. Permite listar, crear, actualizar y eliminar
  * categorías. Todas las excepciones lanzadas son simples para mantener
  * la lógica adecuada en un entorno académico.
+ *
+ * Las categorías cambian muy poco, así que las lecturas se sirven desde una
+ * instantánea inmutable en memoria (la lista completa) publicada mediante
+ * una referencia atómica. Cada escritura reconstruye la instantánea y la
+ * publica de una vez; los lectores nunca se bloquean ni consultan la base
+ * de datos.
  */
 @Service
 public class CategoriaService {
 
     private final CategoriaRepository repository;
 
+    /**
+     * Instantánea actual de las categorías (null hasta la primera lectura).
+     */
+    private final AtomicReference<List<Categoria>> instantanea = new AtomicReference<>();
+    private final ReentrantLock cerrojoReconstruccion = new ReentrantLock();
+
     public CategoriaService(CategoriaRepository repository) {
         this.repository = repository;
     }
@@ -26,10 +42,13 @@ public class CategoriaService {
     /**
      * Lista todas las categorías existentes.
      *
+     * Devuelve la lista inmutable de la instantánea actual; no debe
+     * modificarse ninguna de las categorías devueltas.
+     *
      * @return Lista de categorías
      */
     public List<Categoria> listarTodos() {
-        return repository.findAll();
+        return instantaneaActual();
     }
 
     /**
@@ -56,7 +75,9 @@ public class CategoriaService {
         if (repository.findByNombre(c.getNombre()).isPresent()) {
             throw new Exception("Ya existe una categoría con ese nombre");
         }
-        return repository.save(c);
+        Categoria guardada = repository.save(c);
+        reconstruir();
+        return guardada;
     }
 
     /**
@@ -75,7 +96,9 @@ public class CategoriaService {
         Categoria cat = existente.get();
         if (c.getNombre() != null) cat.setNombre(c.getNombre());
         if (c.getDescripcion() != null) cat.setDescripcion(c.getDescripcion());
-        return repository.save(cat);
+        Categoria guardada = repository.save(cat);
+        reconstruir();
+        return guardada;
     }
 
     /**
@@ -89,5 +112,41 @@ public class CategoriaService {
             throw new Exception("Categoría no encontrada");
         }
         repository.deleteById(id);
+        reconstruir();
+    }
+
+    // ==================== INSTANTÁNEA EN MEMORIA ====================
+
+    private List<Categoria> instantaneaActual() {
+        List<Categoria> actual = instantanea.get();
+        return actual != null ? actual : reconstruir();
+    }
+
+    /**
+     * Recarga las categorías y publica una nueva instantánea.
+     * Serializado con un cerrojo para que una recarga más antigua no
+     * sustituya a otra posterior.
+     * Se usa {@link ReentrantLock} y no {@code synchronized} porque la recarga
+     * consulta la base de datos: un hilo virtual bloqueado dentro de un monitor
+     * quedaría fijado a su hilo portador.
+     */
+    private List<Categoria> reconstruir() {
+        cerrojoReconstruccion.lock();
+        try {
+            return reconstruirBloqueado();
+        } finally {
+            cerrojoReconstruccion.unlock();
+        }
+    }
+
+    private List<Categoria> reconstruirBloqueado() {
+        List<Categoria> copias = new ArrayList<>();
+        for (Categoria c : repository.findAll()) {
+            // Copias desacopladas del contexto de persistencia
+            copias.add(new Categoria(c.getId(), c.getNombre(), c.getDescripcion()));
+        }
+        List<Categoria> nueva = Collections.unmodifiableList(copias);
+        instantanea.set(nueva);
+        return nueva;
     }
 }
@@ -0,0 +1,177 @@
+package com.inventario.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.inventario.model.Producto;
+import jakarta.persistence.EntityManager;
+import org.hibernate.jpa.HibernateHints;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Servicio de exportación del catálogo completo en CSV o NDJSON.
+ *
+ * Recorre los productos con un flujo de sólo avance y escribe cada fila
+ * directamente en la salida. En MySQL el tamaño de fetch Integer.MIN_VALUE
+ * hace que el driver entregue esa consulta fila a fila en lugar de cargar el
+ * resultado completo; el resto de la aplicación sigue usando sentencias
+ * preparadas en el cliente. Cada cierto número de filas
+ * se vacía el contexto de persistencia, de modo que la memoria usada no
+ * depende del tamaño del catálogo.
+ *
+ * El CSV usa el mismo formato que la importación masiva
+ * (codigo,nombre,categoria,precio,stock,activo).
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Service
+public class ExportacionProductosService {
+
+    /**
+     * Formatos de exportación disponibles.
+     */
+    public enum Formato {
+        CSV, NDJSON
+    }
+
+    /**
+     * Filas escritas entre cada limpieza del contexto de persistencia.
+     */
+    private static final int FILAS_POR_BLOQUE = 1000;
+
+    private final Logger registrador = LoggerFactory.getLogger(ExportacionProductosService.class);
+
+    private final EntityManager entityManager;
+    private final int tamanoFetch;
+    private final JsonFactory fabricaJson = new JsonFactory()
+            // El escritor compartido no se cierra ni se vacía en cada línea
+            .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+            .disable(JsonGenerator.Feature.FLUSH_PASSED_TO_STREAM);
+
+    /**
+     * @param tamanoFetch Filas por viaje del driver al recorrer el catálogo
+     *                    (Integer.MIN_VALUE: fila a fila en MySQL)
+     */
+    public ExportacionProductosService(EntityManager entityManager,
+                                       @Value("${inventario.exportacion.tamano-fetch:-2147483648}") int tamanoFetch) {
+        this.entityManager = entityManager;
+        this.tamanoFetch = tamanoFetch;
+    }
+
+    /**
+     * Exporta el catálogo completo en el formato indicado.
+     *
+     * @param formato CSV o NDJSON
+     * @param salida Flujo de salida (no se cierra aquí)
+     * @return Número de productos exportados
+     * @throws IOException Si falla la escritura
+     */
+    @Transactional(readOnly = true)
+    public long exportar(Formato formato, OutputStream salida) throws IOException {
+        long inicio = System.nanoTime();
+        Writer escritor = new BufferedWriter(new OutputStreamWriter(salida, StandardCharsets.UTF_8), 64 * 1024);
+        long filas;
+        try (Stream<Producto> productos = recorrerCatalogo()) {
+            filas = formato == Formato.NDJSON
+                    ? escribirNdjson(productos.iterator(), escritor)
+                    : escribirCsv(productos.iterator(), escritor);
+        }
+        escritor.flush();
+        registrador.info("Exportación {} terminada: {} productos en {} ms",
+                formato, filas, (System.nanoTime() - inicio) / 1_000_000);
+        return filas;
+    }
+
+    /**
+     * Recorre todo el catálogo en orden de id como un flujo de sólo avance.
+     * Debe consumirse dentro de una transacción y cerrarse al terminar; en
+     * MySQL no se puede ejecutar otra sentencia en la conexión mientras el
+     * flujo está abierto.
+     *
+     * @return Flujo de productos de sólo lectura
+     */
+    public Stream<Producto> recorrerCatalogo() {
+        return entityManager.createQuery("SELECT p FROM Producto p ORDER BY p.id ASC", Producto.class)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, tamanoFetch)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .setHint(HibernateHints.HINT_CACHEABLE, false)
+                .getResultStream();
+    }
+
+    private long escribirCsv(Iterator<Producto> productos, Writer escritor) throws IOException {
+        escritor.write("codigo,nombre,categoria,precio,stock,activo\n");
+        long filas = 0;
+        while (productos.hasNext()) {
+            Producto p = productos.next();
+            escritor.write(campoCsv(p.getCodigo()));
+            escritor.write(',');
+            escritor.write(campoCsv(p.getNombre()));
+            escritor.write(',');
+            escritor.write(campoCsv(p.getCategoria()));
+            escritor.write(',');
+            escritor.write(String.valueOf(p.getPrecio()));
+            escritor.write(',');
+            escritor.write(String.valueOf(p.getStock()));
+            escritor.write(',');
+            escritor.write(String.valueOf(Boolean.TRUE.equals(p.getActivo())));
+            escritor.write('\n');
+            filas = despuesDeFila(filas);
+        }
+        return filas;
+    }
+
+    private long escribirNdjson(Iterator<Producto> productos, Writer escritor) throws IOException {
+        long filas = 0;
+        while (productos.hasNext()) {
+            Producto p = productos.next();
+            // Un generador por línea sobre el mismo escritor
+            JsonGenerator json = fabricaJson.createGenerator(escritor);
+            json.writeStartObject();
+            json.writeNumberField("id", p.getId());
+            json.writeStringField("codigo", p.getCodigo());
+            json.writeStringField("nombre", p.getNombre());
+            json.writeStringField("categoria", p.getCategoria());
+            json.writeNumberField("precio", p.getPrecio());
+            json.writeNumberField("stock", p.getStock());
+            json.writeBooleanField("activo", Boolean.TRUE.equals(p.getActivo()));
+            json.writeEndObject();
+            json.flush();
+            escritor.write('\n');
+            filas = despuesDeFila(filas);
+        }
+        return filas;
+    }
+
+    /**
+     * Cuenta la fila y vacía el contexto de persistencia al final de cada bloque.
+     */
+    private long despuesDeFila(long filas) {
+        long total = filas + 1;
+        if (total % FILAS_POR_BLOQUE == 0) {
+            entityManager.clear();
+        }
+        return total;
+    }
+
+    private static String campoCsv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') >= 0 || valor.indexOf('"') >= 0 || valor.indexOf('\n') >= 0 || valor.indexOf('\r') >= 0) {
+            return '"' + valor.replace("\"", "\"\"") + '"';
+        }
+        return valor;
+    }
+}
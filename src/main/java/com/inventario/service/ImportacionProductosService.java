@@ -0,0 +1,335 @@
+package com.inventario.service;
+
+import com.inventario.dto.ResultadoImportacion;
+import com.inventario.model.MovimientoStock;
+import com.inventario.model.Producto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Servicio de importación masiva de productos desde CSV.
+ *
+ * El archivo se lee línea a línea (nunca completo en memoria) y se procesa
+ * por bloques de tamaño configurable. Por cada bloque:
+ * - se valida cada fila con las mismas reglas que ProductoService.crear;
+ * - se consultan de una vez los códigos del bloque que ya existen;
+ * - se insertan los nuevos y se actualizan los existentes con lotes JDBC
+ *   (sin pasar por Hibernate, cuyo id IDENTITY impide agrupar inserts);
+ * - se anotan en el libro de movimientos los cambios de stock (un lote);
+ * - se sincronizan la caché y el índice de búsqueda.
+ *
+ * Formato: codigo,nombre,categoria,precio,stock[,activo]. Se acepta ';'
+ * como separador (con coma decimal) y una primera línea de encabezado.
+ * Si un código aparece varias veces, gana la última aparición. Los códigos se
+ * comparan sin distinguir mayúsculas, igual que el índice único de MySQL.
+ *
+ * Si la base de datos rechaza un bloque, ese bloque se revierte y sus filas
+ * se informan como errores; los bloques anteriores y siguientes se guardan.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Service
+public class ImportacionProductosService {
+
+    private static final String SQL_INSERTAR =
+            "INSERT INTO productos (codigo, nombre, categoria, precio, stock, activo, version) VALUES (?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String SQL_ACTUALIZAR =
+            "UPDATE productos SET nombre = ?, categoria = COALESCE(?, categoria), precio = ?, stock = ?,"
+            + " activo = COALESCE(?, activo), version = version + 1 WHERE id = ?";
+
+    private static final String SQL_POR_CODIGOS =
+            "SELECT id, codigo, nombre, categoria, precio, stock, activo FROM productos WHERE codigo IN (:codigos)";
+
+    private final Logger registrador = LoggerFactory.getLogger(ImportacionProductosService.class);
+
+    private final JdbcTemplate jdbc;
+    private final NamedParameterJdbcTemplate jdbcNombrado;
+    private final TransactionTemplate transacciones;
+    private final ProductoService productoService;
+    private final LibroMovimientosStock libroMovimientos;
+    private final int tamanoLote;
+
+    public ImportacionProductosService(JdbcTemplate jdbc, NamedParameterJdbcTemplate jdbcNombrado,
+                                       TransactionTemplate transacciones, ProductoService productoService,
+                                       LibroMovimientosStock libroMovimientos,
+                                       @Value("${inventario.importacion.tamano-lote:1000}") int tamanoLote) {
+        this.jdbc = jdbc;
+        this.jdbcNombrado = jdbcNombrado;
+        this.transacciones = transacciones;
+        this.productoService = productoService;
+        this.libroMovimientos = libroMovimientos;
+        this.tamanoLote = tamanoLote;
+    }
+
+    /**
+     * Importa productos desde un CSV en UTF-8.
+     *
+     * @param entrada Flujo del archivo CSV
+     * @return Informe con contadores, errores por fila y rendimiento
+     * @throws IOException Si falla la lectura del archivo
+     */
+    public ResultadoImportacion importarCsv(InputStream entrada) throws IOException {
+        long inicio = System.nanoTime();
+        ResultadoImportacion resultado = new ResultadoImportacion();
+        BufferedReader lector = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+
+        // LinkedHashMap por código: una aparición posterior reemplaza a la anterior
+        Map<String, Producto> bloque = new LinkedHashMap<>();
+        // Línea del archivo de cada fila del bloque, para informar errores
+        Map<String, Long> lineasBloque = new HashMap<>();
+        char separador = 0;
+        long numeroLinea = 0;
+        String linea;
+        while ((linea = lector.readLine()) != null) {
+            numeroLinea++;
+            if (numeroLinea == 1 && !linea.isEmpty() && linea.charAt(0) == '\uFEFF') {
+                linea = linea.substring(1); // BOM de Excel
+            }
+            if (linea.isBlank()) {
+                continue;
+            }
+            if (separador == 0) {
+                separador = detectarSeparador(linea);
+                if (esEncabezado(linea, separador)) {
+                    continue;
+                }
+            }
+            resultado.sumarFilaLeida();
+            try {
+                Producto p = parsearFila(dividir(linea, separador), separador);
+                ProductoService.validarDatos(p);
+                String clave = claveCodigo(p.getCodigo());
+                bloque.put(clave, p);
+                lineasBloque.put(clave, numeroLinea);
+            } catch (Exception e) {
+                resultado.agregarError(numeroLinea, e.getMessage());
+            }
+            if (bloque.size() >= tamanoLote) {
+                escribirBloqueOInformar(bloque, lineasBloque, resultado);
+            }
+        }
+        if (!bloque.isEmpty()) {
+            escribirBloqueOInformar(bloque, lineasBloque, resultado);
+        }
+
+        resultado.setMilisegundos((System.nanoTime() - inicio) / 1_000_000);
+        registrador.info("Importación terminada: {} filas, {} insertados, {} actualizados, {} con error, {} ms ({} filas/s)",
+                resultado.getFilasLeidas(), resultado.getInsertados(), resultado.getActualizados(),
+                resultado.getFilasConError(), resultado.getMilisegundos(), Math.round(resultado.getFilasPorSegundo()));
+        return resultado;
+    }
+
+    /**
+     * Escribe un bloque y lo vacía. Si la base de datos lo rechaza (por ejemplo,
+     * un código duplicado que no se detectó antes), la transacción del bloque
+     * se revierte y cada una de sus filas se informa como error, sin abortar el
+     * resto de la importación.
+     */
+    private void escribirBloqueOInformar(Map<String, Producto> bloque, Map<String, Long> lineasBloque,
+                                         ResultadoImportacion resultado) {
+        try {
+            escribirBloque(bloque, resultado);
+        } catch (DataAccessException e) {
+            String causa = e.getMostSpecificCause().getMessage();
+            registrador.warn("Bloque de importación rechazado ({} filas): {}", bloque.size(), causa);
+            for (String clave : bloque.keySet()) {
+                resultado.agregarError(lineasBloque.get(clave), "Bloque no guardado: " + causa);
+            }
+        }
+        bloque.clear();
+        lineasBloque.clear();
+    }
+
+    /**
+     * Escribe un bloque en una transacción: una consulta de existencia,
+     * un lote de inserts, un lote de updates y una relectura para la caché.
+     */
+    private void escribirBloque(Map<String, Producto> bloque, ResultadoImportacion resultado) {
+        Map<Integer, Integer> stockAnterior = new HashMap<>();
+        int[] contadores = new int[2];
+        List<String> codigos = new ArrayList<>(bloque.size());
+        for (Producto p : bloque.values()) {
+            codigos.add(p.getCodigo());
+        }
+        List<Producto> escritos = transacciones.execute(estado -> {
+            Map<String, Producto> existentes = new HashMap<>();
+            for (Producto p : buscarPorCodigos(codigos)) {
+                existentes.put(claveCodigo(p.getCodigo()), p);
+                stockAnterior.put(p.getId(), p.getStock());
+            }
+
+            List<Object[]> inserts = new ArrayList<>();
+            List<Object[]> updates = new ArrayList<>();
+            for (Map.Entry<String, Producto> fila : bloque.entrySet()) {
+                Producto p = fila.getValue();
+                Producto existente = existentes.get(fila.getKey());
+                if (existente == null) {
+                    inserts.add(new Object[]{p.getCodigo(), p.getNombre(), p.getCategoria(), p.getPrecio(),
+                            p.getStock(), p.getActivo() != null ? p.getActivo() : Boolean.TRUE});
+                } else {
+                    updates.add(new Object[]{p.getNombre(), p.getCategoria(), p.getPrecio(), p.getStock(),
+                            p.getActivo(), existente.getId()});
+                }
+            }
+            if (!inserts.isEmpty()) {
+                jdbc.batchUpdate(SQL_INSERTAR, inserts);
+            }
+            if (!updates.isEmpty()) {
+                jdbc.batchUpdate(SQL_ACTUALIZAR, updates);
+            }
+            contadores[0] = inserts.size();
+            contadores[1] = updates.size();
+
+            // Diferencias de stock respecto a lo que había antes del bloque
+            List<Producto> releidos = buscarPorCodigos(codigos);
+            LocalDateTime ahora = LocalDateTime.now();
+            List<MovimientoStock> movimientos = new ArrayList<>();
+            for (Producto p : releidos) {
+                Producto anterior = existentes.get(claveCodigo(p.getCodigo()));
+                int delta = anterior == null ? p.getStock() : p.getStock() - anterior.getStock();
+                movimientos.add(new MovimientoStock(p.getId(), delta, MovimientoStock.Motivo.IMPORTACION, null, ahora));
+            }
+            libroMovimientos.registrar(movimientos);
+            return releidos;
+        });
+        // Sólo se cuentan los bloques confirmados
+        resultado.sumarInsertados(contadores[0]);
+        resultado.sumarActualizados(contadores[1]);
+        productoService.registrarCambiosExternos(escritos, stockAnterior);
+    }
+
+    /**
+     * Clave de un código sin distinguir mayúsculas (como la intercalación de MySQL).
+     */
+    private static String claveCodigo(String codigo) {
+        return codigo.toLowerCase(Locale.ROOT);
+    }
+
+    private List<Producto> buscarPorCodigos(Collection<String> codigos) {
+        return jdbcNombrado.query(SQL_POR_CODIGOS, Map.of("codigos", codigos), (rs, i) -> new Producto(
+                rs.getInt("id"), rs.getString("codigo"), rs.getString("nombre"), rs.getString("categoria"),
+                rs.getDouble("precio"), rs.getInt("stock"), rs.getBoolean("activo")));
+    }
+
+    // ==================== PARSEO CSV ====================
+
+    /**
+     * Elige el separador con la primera línea: ';' si tiene más ';' que ','
+     * fuera de comillas, o al menos los 4 ';' de una fila completa (una fila
+     * con coma decimal como "A1;Silla;Muebles;12,50;3" tiene ambos).
+     */
+    static char detectarSeparador(String linea) {
+        int puntosComa = 0;
+        int comas = 0;
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (c == '"') {
+                entreComillas = !entreComillas;
+            } else if (!entreComillas && c == ';') {
+                puntosComa++;
+            } else if (!entreComillas && c == ',') {
+                comas++;
+            }
+        }
+        return puntosComa > comas || puntosComa >= 4 ? ';' : ',';
+    }
+
+    private boolean esEncabezado(String linea, char separador) {
+        List<String> campos = dividir(linea, separador);
+        return !campos.isEmpty() && "codigo".equalsIgnoreCase(
+                IndiceBusquedaProductos.normalizar(campos.get(0)));
+    }
+
+    /**
+     * Convierte los campos de una fila en un Producto (sin normalizar el stock,
+     * para que un stock negativo se reporte como error igual que en crear).
+     */
+    private Producto parsearFila(List<String> campos, char separador) throws Exception {
+        if (campos.size() < 5) {
+            throw new Exception("Se esperaban al menos 5 columnas (codigo, nombre, categoria, precio, stock)");
+        }
+        String codigo = campos.get(0).trim();
+        String nombre = campos.get(1).trim();
+        String categoria = campos.get(2).isBlank() ? null : campos.get(2).trim();
+        Double precio;
+        Integer stock;
+        try {
+            String textoPrecio = campos.get(3).trim();
+            if (separador == ';') {
+                textoPrecio = textoPrecio.replace(',', '.');
+            }
+            precio = Double.valueOf(textoPrecio);
+        } catch (NumberFormatException e) {
+            throw new Exception("Precio no numérico: " + campos.get(3));
+        }
+        try {
+            stock = Integer.valueOf(campos.get(4).trim());
+        } catch (NumberFormatException e) {
+            throw new Exception("Stock inválido: debe ser un número igual o mayor a 0");
+        }
+        Boolean activo = null;
+        if (campos.size() > 5 && !campos.get(5).isBlank()) {
+            String texto = IndiceBusquedaProductos.normalizar(campos.get(5));
+            activo = texto.equals("true") || texto.equals("1") || texto.equals("si") || texto.equals("activo");
+        }
+        Producto p = new Producto(null, codigo, nombre, categoria, null, stock, activo);
+        // Redondeo a 2 decimales igual que en el formulario
+        p.setPrecio(precio);
+        return p;
+    }
+
+    /**
+     * Divide una línea CSV respetando comillas dobles ("" escapa una comilla).
+     */
+    static List<String> dividir(String linea, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"') {
+                    if (i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                        actual.append('"');
+                        i++;
+                    } else {
+                        entreComillas = false;
+                    }
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == separador) {
+                campos.add(actual.toString());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString());
+        return campos;
+    }
+}
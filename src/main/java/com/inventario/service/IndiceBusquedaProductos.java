@@ -0,0 +1,280 @@
+package com.inventario.service;
+
+import com.inventario.model.Producto;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Índice invertido en memoria para la búsqueda de productos.
+ *
+ * Indexa código, nombre y categoría. Los textos se normalizan (minúsculas y
+ * sin tildes, para que "cafe" encuentre "Café") y se dividen en términos.
+ * Cada término apunta a los productos que lo contienen con un peso según el
+ * campo (código > nombre > categoría).
+ *
+ * Una búsqueda exige que todos los términos de la consulta aparezcan en el
+ * producto (el último término se trata además como prefijo, para buscar
+ * mientras se escribe) y ordena por relevancia: suma de pesos por la rareza
+ * del término (idf). ProductoService lo mantiene al día en cada escritura.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Component
+public class IndiceBusquedaProductos {
+
+    private static final int PESO_CODIGO = 3;
+    private static final int PESO_NOMBRE = 2;
+    private static final int PESO_CATEGORIA = 1;
+
+    /**
+     * Longitud mínima para expandir un término como prefijo.
+     */
+    private static final int LONGITUD_MINIMA_PREFIJO = 2;
+
+    private static final Pattern MARCAS_DIACRITICAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{Alnum}]+");
+
+    /**
+     * Diccionario ordenado: término -> (id de producto -> peso).
+     */
+    private final TreeMap<String, Map<Integer, Integer>> terminos = new TreeMap<>();
+
+    /**
+     * Términos indexados de cada producto (necesarios para desindexarlo).
+     */
+    private final Map<Integer, Map<String, Integer>> terminosPorProducto = new HashMap<>();
+
+    private final ReentrantReadWriteLock cerrojo = new ReentrantReadWriteLock();
+
+    /**
+     * Indexa (o reindexa) un producto.
+     *
+     * @param p Producto persistido (con id)
+     */
+    public void indexar(Producto p) {
+        if (p == null || p.getId() == null) {
+            return;
+        }
+        Map<String, Integer> nuevos = new HashMap<>();
+        agregarTerminos(nuevos, p.getCodigo(), PESO_CODIGO);
+        agregarTerminos(nuevos, p.getNombre(), PESO_NOMBRE);
+        agregarTerminos(nuevos, p.getCategoria(), PESO_CATEGORIA);
+
+        cerrojo.writeLock().lock();
+        try {
+            quitarSinCerrojo(p.getId());
+            for (Map.Entry<String, Integer> t : nuevos.entrySet()) {
+                terminos.computeIfAbsent(t.getKey(), k -> new HashMap<>()).put(p.getId(), t.getValue());
+            }
+            terminosPorProducto.put(p.getId(), nuevos);
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita un producto del índice.
+     *
+     * @param id Identificador del producto
+     */
+    public void eliminar(Integer id) {
+        cerrojo.writeLock().lock();
+        try {
+            quitarSinCerrojo(id);
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Vacía el índice.
+     */
+    public void limpiar() {
+        cerrojo.writeLock().lock();
+        try {
+            terminos.clear();
+            terminosPorProducto.clear();
+        } finally {
+            cerrojo.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return Número de productos indexados
+     */
+    public int tamano() {
+        cerrojo.readLock().lock();
+        try {
+            return terminosPorProducto.size();
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca productos y devuelve sus ids ordenados por relevancia.
+     *
+     * @param consulta Texto de búsqueda
+     * @param limite Número máximo de resultados
+     * @return Ids de productos, del más relevante al menos relevante
+     */
+    public List<Integer> buscar(String consulta, int limite) {
+        List<String> tokens = tokenizar(consulta);
+        if (tokens.isEmpty() || limite <= 0) {
+            return Collections.emptyList();
+        }
+        cerrojo.readLock().lock();
+        try {
+            int total = Math.max(terminosPorProducto.size(), 1);
+            Map<Integer, Double> acumulado = null;
+            for (int i = 0; i < tokens.size(); i++) {
+                boolean prefijo = i == tokens.size() - 1 && tokens.get(i).length() >= LONGITUD_MINIMA_PREFIJO;
+                Map<Integer, Double> puntos = puntuarToken(tokens.get(i), prefijo, total);
+                if (puntos.isEmpty()) {
+                    return Collections.emptyList();
+                }
+                acumulado = acumulado == null ? puntos : intersectar(acumulado, puntos);
+                if (acumulado.isEmpty()) {
+                    return Collections.emptyList();
+                }
+            }
+            return mejores(acumulado, limite);
+        } finally {
+            cerrojo.readLock().unlock();
+        }
+    }
+
+    /**
+     * Normaliza un texto: minúsculas y sin marcas diacríticas.
+     *
+     * @param texto Texto original
+     * @return Texto normalizado (vacío si es null)
+     */
+    static String normalizar(String texto) {
+        if (texto == null) {
+            return "";
+        }
+        String sinTildes = MARCAS_DIACRITICAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return sinTildes.toLowerCase(Locale.ROOT).trim();
+    }
+
+    /**
+     * Divide un texto normalizado en términos.
+     *
+     * @param texto Texto original
+     * @return Términos no vacíos en orden de aparición
+     */
+    static List<String> tokenizar(String texto) {
+        List<String> tokens = new ArrayList<>();
+        for (String t : SEPARADORES.split(normalizar(texto))) {
+            if (!t.isEmpty()) {
+                tokens.add(t);
+            }
+        }
+        return tokens;
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private void agregarTerminos(Map<String, Integer> destino, String texto, int peso) {
+        for (String t : tokenizar(texto)) {
+            destino.merge(t, peso, Math::max);
+        }
+    }
+
+    private void quitarSinCerrojo(Integer id) {
+        Map<String, Integer> anteriores = terminosPorProducto.remove(id);
+        if (anteriores == null) {
+            return;
+        }
+        for (String t : anteriores.keySet()) {
+            Map<Integer, Integer> lista = terminos.get(t);
+            if (lista != null) {
+                lista.remove(id);
+                if (lista.isEmpty()) {
+                    terminos.remove(t);
+                }
+            }
+        }
+    }
+
+    /**
+     * Puntúa un término de la consulta: coincidencia exacta con peso completo
+     * y, si se pide, coincidencias por prefijo con la mitad del peso.
+     */
+    private Map<Integer, Double> puntuarToken(String token, boolean prefijo, int total) {
+        Map<Integer, Double> puntos = new HashMap<>();
+        if (prefijo) {
+            SortedMap<String, Map<Integer, Integer>> rango = terminos.subMap(token, token + Character.MAX_VALUE);
+            for (Map.Entry<String, Map<Integer, Integer>> e : rango.entrySet()) {
+                double factor = e.getKey().equals(token) ? 1.0 : 0.5;
+                sumarLista(puntos, e.getValue(), factor * idf(e.getValue().size(), total));
+            }
+        } else {
+            Map<Integer, Integer> lista = terminos.get(token);
+            if (lista != null) {
+                sumarLista(puntos, lista, idf(lista.size(), total));
+            }
+        }
+        return puntos;
+    }
+
+    private static void sumarLista(Map<Integer, Double> puntos, Map<Integer, Integer> lista, double factor) {
+        for (Map.Entry<Integer, Integer> e : lista.entrySet()) {
+            // Con prefijos, un producto puede coincidir con varios términos: se queda el mejor
+            puntos.merge(e.getKey(), e.getValue() * factor, Math::max);
+        }
+    }
+
+    private static double idf(int frecuencia, int total) {
+        return Math.log(1.0 + (double) total / frecuencia);
+    }
+
+    private static Map<Integer, Double> intersectar(Map<Integer, Double> a, Map<Integer, Double> b) {
+        Map<Integer, Double> menor = a.size() <= b.size() ? a : b;
+        Map<Integer, Double> mayor = menor == a ? b : a;
+        Map<Integer, Double> resultado = new HashMap<>();
+        for (Map.Entry<Integer, Double> e : menor.entrySet()) {
+            Double otro = mayor.get(e.getKey());
+            if (otro != null) {
+                resultado.put(e.getKey(), e.getValue() + otro);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Selecciona los mejores resultados con un montículo acotado (top-k).
+     */
+    private static List<Integer> mejores(Map<Integer, Double> puntos, int limite) {
+        PriorityQueue<Map.Entry<Integer, Double>> monticulo = new PriorityQueue<>(limite + 1,
+                (x, y) -> {
+                    int c = Double.compare(x.getValue(), y.getValue());
+                    return c != 0 ? c : Integer.compare(y.getKey(), x.getKey());
+                });
+        for (Map.Entry<Integer, Double> e : puntos.entrySet()) {
+            monticulo.offer(e);
+            if (monticulo.size() > limite) {
+                monticulo.poll();
+            }
+        }
+        List<Integer> ids = new ArrayList<>(monticulo.size());
+        while (!monticulo.isEmpty()) {
+            ids.add(monticulo.poll().getKey());
+        }
+        Collections.reverse(ids);
+        return ids;
+    }
+}
@@ -0,0 +1,358 @@
+package com.inventario.service;
+
+import com.inventario.cache.CacheProductos;
+import com.inventario.cache.VersionCatalogo;
+import com.inventario.dto.ResultadoReconstruccion;
+import com.inventario.model.MovimientoStock;
+import com.inventario.repository.MovimientoStockRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Libro de movimientos de stock (sólo inserción) y su reconstrucción.
+ *
+ * Cada cambio de stock se anota como una fila (producto, delta, motivo,
+ * usuario, fecha) en la misma transacción que el cambio, con un lote JDBC
+ * por operación (un pedido, un bloque de importación). El stock de la tabla
+ * de productos queda como instantánea materializada del libro.
+ *
+ * Los puntos de control guardan el stock acumulado de cada producto hasta
+ * un movimiento dado; la reconstrucción sólo suma los movimientos
+ * posteriores y procesa en paralelo particiones de ids de producto, cada
+ * una en su propia transacción. Los puntos de control se avanzan
+ * periódicamente y sólo con movimientos más antiguos que un margen, para no
+ * saltarse movimientos de transacciones que todavía no confirmaron.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Service
+public class LibroMovimientosStock {
+
+    /**
+     * Rango de ids de producto que procesa cada tarea de la reconstrucción.
+     */
+    static final int TAMANO_PARTICION = 5000;
+
+    /**
+     * Antigüedad mínima de un movimiento para entrar en un punto de control.
+     */
+    static final long MARGEN_PUNTO_CONTROL_SEGUNDOS = 60;
+
+    private static final String SQL_INSERTAR =
+            "INSERT INTO movimientos_stock (producto_id, delta, motivo, username, fecha) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SQL_PUNTOS_CONTROL_INICIALES =
+            "INSERT INTO puntos_control_stock (producto_id, stock, ultimo_movimiento_id, fecha)"
+            + " SELECT p.id, p.stock, 0, ? FROM productos p"
+            + " WHERE NOT EXISTS (SELECT 1 FROM puntos_control_stock c WHERE c.producto_id = p.id)"
+            + " AND NOT EXISTS (SELECT 1 FROM movimientos_stock m WHERE m.producto_id = p.id)";
+
+    private static final String SQL_PUNTOS_CONTROL =
+            "SELECT producto_id, stock, ultimo_movimiento_id FROM puntos_control_stock"
+            + " WHERE producto_id BETWEEN ? AND ?";
+
+    // Suma todos los movimientos posteriores al punto de control y, aparte,
+    // la parte que entra en el siguiente punto de control. El límite de ese
+    // punto (w) es el último id anterior al corte, y la suma consolidable va
+    // por id hasta ese límite, no por fecha: así el punto de control cubre
+    // exactamente los ids que la siguiente pasada salta (m.id > límite),
+    // aunque un movimiento con id menor tenga una fecha posterior al corte
+    // (relojes desfasados entre nodos, transacciones largas)
+    private static final String SQL_SUMAS =
+            "SELECT m.producto_id, SUM(m.delta) AS suma, COUNT(*) AS movimientos,"
+            + " SUM(CASE WHEN m.id <= w.ultimo_consolidable THEN m.delta ELSE 0 END) AS suma_consolidable,"
+            + " MAX(w.ultimo_consolidable) AS ultimo_consolidable"
+            + " FROM movimientos_stock m LEFT JOIN puntos_control_stock c ON c.producto_id = m.producto_id"
+            + " LEFT JOIN (SELECT m2.producto_id, MAX(m2.id) AS ultimo_consolidable"
+            + "   FROM movimientos_stock m2 LEFT JOIN puntos_control_stock c2 ON c2.producto_id = m2.producto_id"
+            + "   WHERE m2.producto_id BETWEEN ? AND ? AND m2.id > COALESCE(c2.ultimo_movimiento_id, 0)"
+            + "   AND m2.fecha <= ? GROUP BY m2.producto_id) w ON w.producto_id = m.producto_id"
+            + " WHERE m.producto_id BETWEEN ? AND ? AND m.id > COALESCE(c.ultimo_movimiento_id, 0)"
+            + " GROUP BY m.producto_id";
+
+    private static final String SQL_STOCK_ACTUAL =
+            "SELECT id, stock FROM productos WHERE id BETWEEN ? AND ?";
+
+    private static final String SQL_STOCK_ACTUAL_BLOQUEANDO = SQL_STOCK_ACTUAL + " FOR UPDATE";
+
+    private static final String SQL_GUARDAR_PUNTO_CONTROL =
+            "INSERT INTO puntos_control_stock (producto_id, stock, ultimo_movimiento_id, fecha) VALUES (?, ?, ?, ?)"
+            + " ON DUPLICATE KEY UPDATE stock = VALUES(stock), ultimo_movimiento_id = VALUES(ultimo_movimiento_id),"
+            + " fecha = VALUES(fecha)";
+
+    private static final String SQL_CORREGIR_STOCK = "UPDATE productos SET stock = ?, version = version + 1 WHERE id = ?";
+
+    private final Logger registrador = LoggerFactory.getLogger(LibroMovimientosStock.class);
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transacciones;
+    private final MovimientoStockRepository movimientoRepository;
+    private final CacheProductos cacheProductos;
+    private final RankingsProductos rankings;
+    private final PublicadorEventosProductos eventos;
+    private final VersionCatalogo versionCatalogo;
+    private final int hilosReconstruccion;
+    private final long puntoControlMinutos;
+
+    private ScheduledExecutorService planificador;
+
+    public LibroMovimientosStock(JdbcTemplate jdbc, TransactionTemplate transacciones,
+                                 MovimientoStockRepository movimientoRepository, CacheProductos cacheProductos,
+                                 RankingsProductos rankings, PublicadorEventosProductos eventos,
+                                 VersionCatalogo versionCatalogo,
+                                 @Value("${inventario.movimientos.hilos-reconstruccion:4}") int hilosReconstruccion,
+                                 @Value("${inventario.movimientos.punto-control-minutos:60}") long puntoControlMinutos) {
+        this.jdbc = jdbc;
+        this.transacciones = transacciones;
+        this.movimientoRepository = movimientoRepository;
+        this.cacheProductos = cacheProductos;
+        this.rankings = rankings;
+        this.eventos = eventos;
+        this.versionCatalogo = versionCatalogo;
+        this.hilosReconstruccion = hilosReconstruccion;
+        this.puntoControlMinutos = puntoControlMinutos;
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        planificador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "libro-movimientos");
+            t.setDaemon(true);
+            return t;
+        });
+        planificador.scheduleWithFixedDelay(this::avanzarPuntosControl,
+                puntoControlMinutos, puntoControlMinutos, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (planificador != null) {
+            planificador.shutdownNow();
+        }
+    }
+
+    // ==================== ESCRITURA ====================
+
+    /**
+     * Anota movimientos en el libro con un único lote JDBC.
+     * Debe llamarse dentro de la transacción que modifica el stock, para que
+     * el movimiento y el cambio se confirmen o se reviertan juntos.
+     * Los movimientos con delta 0 se ignoran y el usuario vacío se completa
+     * con el usuario autenticado.
+     *
+     * @param movimientos Movimientos a anotar
+     */
+    public void registrar(List<MovimientoStock> movimientos) {
+        List<Object[]> filas = new ArrayList<>(movimientos.size());
+        String usuario = null;
+        for (MovimientoStock m : movimientos) {
+            if (m.getDelta() == null || m.getDelta() == 0) {
+                continue;
+            }
+            if (m.getUsername() == null) {
+                if (usuario == null) {
+                    usuario = usuarioActual();
+                }
+                m.setUsername(usuario);
+            }
+            LocalDateTime fecha = m.getFecha() != null ? m.getFecha() : LocalDateTime.now();
+            filas.add(new Object[]{m.getProductoId(), m.getDelta(), m.getMotivo().name(), m.getUsername(),
+                    Timestamp.valueOf(fecha)});
+        }
+        if (!filas.isEmpty()) {
+            jdbc.batchUpdate(SQL_INSERTAR, filas);
+        }
+    }
+
+    /**
+     * Anota un único movimiento (ver {@link #registrar(List)}).
+     *
+     * @param productoId Producto afectado
+     * @param delta Diferencia de stock (positiva o negativa)
+     * @param motivo Motivo del movimiento
+     */
+    public void registrar(Integer productoId, int delta, MovimientoStock.Motivo motivo) {
+        registrar(List.of(new MovimientoStock(productoId, delta, motivo, null, null)));
+    }
+
+    // ==================== CONSULTA ====================
+
+    /**
+     * Obtiene los últimos movimientos de un producto. Sólo lee el libro.
+     *
+     * @param productoId Identificador del producto
+     * @param limite Número máximo de movimientos
+     * @return Movimientos del más reciente al más antiguo
+     */
+    public List<MovimientoStock> historial(Integer productoId, int limite) {
+        return movimientoRepository.findByProductoIdOrderByIdDesc(productoId, PageRequest.of(0, limite));
+    }
+
+    // ==================== PUNTOS DE CONTROL Y RECONSTRUCCIÓN ====================
+
+    /**
+     * Crea el punto de control de los productos que existían antes del libro
+     * (sin punto de control ni movimientos), tomando su stock actual como base.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void crearPuntosControlIniciales() {
+        int creados = jdbc.update(SQL_PUNTOS_CONTROL_INICIALES, Timestamp.valueOf(LocalDateTime.now()));
+        if (creados > 0) {
+            registrador.info("Libro de movimientos: {} productos existentes tomados como punto de control", creados);
+        }
+    }
+
+    /**
+     * Tarea periódica: avanza los puntos de control sin corregir el stock.
+     */
+    void avanzarPuntosControl() {
+        try {
+            ResultadoReconstruccion r = reconstruir(false);
+            registrador.info("Puntos de control avanzados: {} productos, {} movimientos, {} diferencias, {} ms",
+                    r.getProductosRevisados(), r.getMovimientosAplicados(), r.getDiferencias(), r.getMilisegundos());
+        } catch (Exception e) {
+            registrador.error("Error al avanzar los puntos de control del libro de movimientos", e);
+        }
+    }
+
+    /**
+     * Reconstruye el stock de todos los productos desde el último punto de
+     * control, en paralelo por particiones de ids, y avanza los puntos de control.
+     *
+     * Con {@code corregir} el stock de la tabla se reemplaza por el del libro
+     * donde no coinciden; las filas de cada partición se bloquean antes de
+     * sumar el libro para que un pedido concurrente no produzca una falsa
+     * diferencia. Sin {@code corregir} sólo se informan las diferencias.
+     *
+     * @param corregir true para corregir el stock de la tabla
+     * @return Informe de la reconstrucción
+     * @throws Exception Si alguna partición falla
+     */
+    public ResultadoReconstruccion reconstruir(boolean corregir) throws Exception {
+        long inicio = System.nanoTime();
+        Integer maximoId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM productos", Integer.class);
+        LocalDateTime corte = LocalDateTime.now().minusSeconds(MARGEN_PUNTO_CONTROL_SEGUNDOS);
+
+        ExecutorService pool = Executors.newFixedThreadPool(hilosReconstruccion);
+        ResultadoReconstruccion total = new ResultadoReconstruccion();
+        try {
+            List<Future<ResultadoReconstruccion>> tareas = new ArrayList<>();
+            for (int desde = 1; desde <= maximoId; desde += TAMANO_PARTICION) {
+                int inicioParticion = desde;
+                int finParticion = desde + TAMANO_PARTICION - 1;
+                tareas.add(pool.submit(() -> transacciones.execute(
+                        estado -> reconstruirParticion(inicioParticion, finParticion, corte, corregir))));
+            }
+            for (Future<ResultadoReconstruccion> tarea : tareas) {
+                total.sumar(tarea.get());
+            }
+        } catch (ExecutionException e) {
+            throw new Exception("Error al reconstruir el stock: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        if (total.getCorregidos() > 0) {
+            rankings.recargar();
+            eventos.publicarResincronizar();
+            versionCatalogo.incrementar();
+        }
+        total.setMilisegundos((System.nanoTime() - inicio) / 1_000_000);
+        return total;
+    }
+
+    private ResultadoReconstruccion reconstruirParticion(int desde, int hasta, LocalDateTime corte, boolean corregir) {
+        ResultadoReconstruccion resultado = new ResultadoReconstruccion();
+
+        // Con corrección se bloquean primero las filas: ningún pedido puede
+        // cambiar el stock entre esta lectura y la suma del libro
+        Map<Integer, Integer> stockActual = new HashMap<>();
+        jdbc.query(corregir ? SQL_STOCK_ACTUAL_BLOQUEANDO : SQL_STOCK_ACTUAL,
+                rs -> { stockActual.put(rs.getInt("id"), rs.getInt("stock")); }, desde, hasta);
+
+        Map<Integer, long[]> puntos = new HashMap<>();
+        jdbc.query(SQL_PUNTOS_CONTROL, rs -> {
+            puntos.put(rs.getInt("producto_id"), new long[]{rs.getInt("stock"), rs.getLong("ultimo_movimiento_id")});
+        }, desde, hasta);
+
+        Timestamp corteSql = Timestamp.valueOf(corte);
+        LocalDateTime ahora = LocalDateTime.now();
+        Map<Integer, Integer> reconstruido = new HashMap<>();
+        List<Object[]> nuevosPuntos = new ArrayList<>();
+        jdbc.query(SQL_SUMAS, rs -> {
+            int productoId = rs.getInt("producto_id");
+            long[] punto = puntos.get(productoId);
+            long base = punto != null ? punto[0] : 0;
+            reconstruido.put(productoId, (int) (base + rs.getLong("suma")));
+            resultado.sumarMovimientosAplicados(rs.getLong("movimientos"));
+            long ultimoConsolidable = rs.getLong("ultimo_consolidable");
+            if (!rs.wasNull()) {
+                nuevosPuntos.add(new Object[]{productoId, (int) (base + rs.getLong("suma_consolidable")),
+                        ultimoConsolidable, Timestamp.valueOf(ahora)});
+            }
+        }, desde, hasta, corteSql, desde, hasta);
+
+        List<Object[]> correcciones = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> e : stockActual.entrySet()) {
+            Integer productoId = e.getKey();
+            Integer esperado = reconstruido.get(productoId);
+            if (esperado == null) {
+                long[] punto = puntos.get(productoId);
+                if (punto == null) {
+                    // Producto sin historial (creado fuera de la aplicación): su stock actual es la base
+                    nuevosPuntos.add(new Object[]{productoId, e.getValue(), 0L, Timestamp.valueOf(ahora)});
+                    esperado = e.getValue();
+                } else {
+                    esperado = (int) punto[0];
+                }
+            }
+            resultado.sumarProductosRevisados(1);
+            if (!esperado.equals(e.getValue())) {
+                resultado.sumarDiferencias(1);
+                if (corregir) {
+                    correcciones.add(new Object[]{esperado, productoId});
+                }
+            }
+        }
+
+        if (!nuevosPuntos.isEmpty()) {
+            jdbc.batchUpdate(SQL_GUARDAR_PUNTO_CONTROL, nuevosPuntos);
+        }
+        if (!correcciones.isEmpty()) {
+            jdbc.batchUpdate(SQL_CORREGIR_STOCK, correcciones);
+            for (Object[] c : correcciones) {
+                cacheProductos.invalidar((Integer) c[1]);
+            }
+            resultado.sumarCorregidos(correcciones.size());
+        }
+        return resultado;
+    }
+
+    private static String usuarioActual() {
+        Authentication autenticacion = SecurityContextHolder.getContext().getAuthentication();
+        return autenticacion != null && autenticacion.getName() != null ? autenticacion.getName() : "sistema";
+    }
+}
@@ -0,0 +1,499 @@
+package com.inventario.service;
+
+import com.inventario.dto.ResumenProducto;
+import com.inventario.repository.ProductoRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Motor de reservas temporales de stock para los carritos.
+ *
+ * Al añadir un producto al carrito se aparta la cantidad durante un tiempo
+ * limitado (TTL), de modo que dos usuarios no puedan reservar la misma
+ * última unidad. Estructura:
+ *
+ * - Franjas: los productos se reparten en N franjas (id mod N), cada una con
+ *   su propio cerrojo; operaciones sobre productos de franjas distintas
+ *   nunca compiten entre sí.
+ * - Por producto se guarda el último stock conocido y el total reservado,
+ *   así "disponible = stock - reservado" se lee en O(1).
+ * - Rueda de tiempo: las reservas se registran en la ranura del segundo en
+ *   que expiran; cada tic sólo recorre la ranura actual, nunca todos los
+ *   carritos. Renovar una reserva la vuelve a registrar y la entrada vieja
+ *   se descarta por su generación.
+ * - Conciliación periódica: se relee de una vez el stock de los productos
+ *   con reservas activas y se olvidan los productos sin reservas.
+ *
+ * El checkout sólo vende lo que la sesión tiene reservado: antes del UPDATE
+ * condicional en la base de datos, {@link #asegurarReservas} comprueba que
+ * la reserva de la sesión cubre cada línea del carrito y, si venció, la
+ * vuelve a pedir; si esas unidades ya las reservó otra sesión, el checkout
+ * falla en lugar de quitárselas.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Component
+public class MotorReservas {
+
+    private static final int FRANJAS = 64;
+    private static final int RANURAS = 512;
+
+    private final Logger registrador = LoggerFactory.getLogger(MotorReservas.class);
+
+    private final ProductoRepository productoRepository;
+    private final long ttlSegundos;
+    private final long conciliacionSegundos;
+
+    private final Franja[] franjas = new Franja[FRANJAS];
+    @SuppressWarnings("unchecked")
+    private final Queue<EntradaRueda>[] rueda = new Queue[RANURAS];
+    private final AtomicLong ticActual = new AtomicLong();
+
+    private final LongAdder reservasCreadas = new LongAdder();
+    private final LongAdder reservasRechazadas = new LongAdder();
+    private final LongAdder reservasExpiradas = new LongAdder();
+
+    private ScheduledExecutorService planificador;
+
+    public MotorReservas(ProductoRepository productoRepository,
+                         @Value("${inventario.reservas.ttl-segundos:900}") long ttlSegundos,
+                         @Value("${inventario.reservas.conciliacion-segundos:30}") long conciliacionSegundos) {
+        this.productoRepository = productoRepository;
+        this.ttlSegundos = ttlSegundos;
+        this.conciliacionSegundos = conciliacionSegundos;
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new Franja();
+        }
+        for (int i = 0; i < RANURAS; i++) {
+            rueda[i] = new ConcurrentLinkedQueue<>();
+        }
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        planificador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "motor-reservas");
+            t.setDaemon(true);
+            return t;
+        });
+        planificador.scheduleAtFixedRate(this::tic, 1, 1, TimeUnit.SECONDS);
+        planificador.scheduleWithFixedDelay(this::conciliar, conciliacionSegundos, conciliacionSegundos, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void detener() {
+        if (planificador != null) {
+            planificador.shutdownNow();
+        }
+    }
+
+    /**
+     * Reserva (o amplía la reserva de) una cantidad de un producto para una sesión.
+     * También renueva el TTL de la reserva de esa sesión sobre el producto.
+     *
+     * @param sesion Identificador de la sesión HTTP
+     * @param productoId Producto a reservar
+     * @param cantidad Unidades adicionales a reservar
+     * @throws Exception Si el producto no existe, no está activo o no hay unidades disponibles
+     */
+    public void reservar(String sesion, Integer productoId, int cantidad) throws Exception {
+        if (cantidad <= 0) {
+            throw new Exception("La cantidad debe ser mayor a 0");
+        }
+        Franja franja = franja(productoId);
+        EntradaRueda entrada = null;
+        while (entrada == null) {
+            if (estadoCargado(franja, productoId) == null) {
+                throw new Exception("Producto no disponible");
+            }
+            franja.cerrojo.lock();
+            try {
+                // La conciliación olvida los productos sin reservas; si lo hizo
+                // entre la carga y este cerrojo, se vuelve a cargar el stock
+                EstadoProducto estado = franja.productos.get(productoId);
+                if (estado != null) {
+                    entrada = reservarEn(estado, sesion, productoId, cantidad);
+                }
+            } finally {
+                franja.cerrojo.unlock();
+            }
+        }
+        programar(entrada);
+        reservasCreadas.increment();
+    }
+
+    /**
+     * Aplica la reserva sobre el estado del producto. Se llama con el cerrojo
+     * de su franja tomado.
+     *
+     * @return Entrada de la rueda que hará expirar la reserva
+     */
+    private EntradaRueda reservarEn(EstadoProducto estado, String sesion, Integer productoId, int cantidad)
+            throws Exception {
+        int disponible = estado.stock - estado.reservado;
+        if (cantidad > disponible) {
+            reservasRechazadas.increment();
+            throw new Exception("Sólo quedan " + Math.max(disponible, 0) + " unidades disponibles");
+        }
+        Reserva r = estado.reservas.get(sesion);
+        if (r == null) {
+            r = new Reserva(sesion, productoId);
+            estado.reservas.put(sesion, r);
+        }
+        r.cantidad += cantidad;
+        estado.reservado += cantidad;
+        return renovar(r);
+    }
+
+    /**
+     * Renueva el TTL de una reserva. Se llama con el cerrojo de su franja tomado.
+     *
+     * @return Entrada de la rueda con el nuevo vencimiento
+     */
+    private EntradaRueda renovar(Reserva r) {
+        r.generacion++;
+        r.expiraEnTic = ticActual.get() + ttlSegundos;
+        return new EntradaRueda(r, r.generacion, r.expiraEnTic);
+    }
+
+    /**
+     * Comprueba, antes del checkout, que la sesión tiene reservadas las
+     * unidades de cada línea del carrito y renueva esas reservas. Si una
+     * reserva venció (el carrito dura más que su TTL) se vuelve a reservar
+     * lo que falta, siempre que esas unidades no las haya reservado otra sesión.
+     *
+     * @param sesion Identificador de la sesión HTTP
+     * @param carrito Mapa productoId -> cantidad de la sesión
+     * @throws Exception Si un producto ya no está disponible o sus unidades las reservó otra sesión
+     */
+    public void asegurarReservas(String sesion, Map<Integer, Integer> carrito) throws Exception {
+        for (Map.Entry<Integer, Integer> linea : carrito.entrySet()) {
+            Integer productoId = linea.getKey();
+            Integer cantidad = linea.getValue();
+            if (cantidad == null || cantidad <= 0) {
+                continue; // PedidoService rechaza la línea
+            }
+            Franja franja = franja(productoId);
+            EntradaRueda entrada = null;
+            while (entrada == null) {
+                if (estadoCargado(franja, productoId) == null) {
+                    throw new Exception("Producto no disponible (id " + productoId + ")");
+                }
+                franja.cerrojo.lock();
+                try {
+                    EstadoProducto estado = franja.productos.get(productoId);
+                    if (estado != null) {
+                        Reserva r = estado.reservas.get(sesion);
+                        int reservada = r != null ? r.cantidad : 0;
+                        if (reservada >= cantidad) {
+                            entrada = renovar(r);
+                        } else {
+                            try {
+                                entrada = reservarEn(estado, sesion, productoId, cantidad - reservada);
+                            } catch (Exception e) {
+                                throw new Exception("La reserva del producto id " + productoId
+                                        + " venció y otro usuario tiene esas unidades: " + e.getMessage());
+                            }
+                        }
+                    }
+                } finally {
+                    franja.cerrojo.unlock();
+                }
+            }
+            programar(entrada);
+        }
+    }
+
+    /**
+     * Libera la reserva de una sesión sobre un producto.
+     *
+     * @param sesion Identificador de la sesión HTTP
+     * @param productoId Producto a liberar
+     */
+    public void liberar(String sesion, Integer productoId) {
+        Franja franja = franja(productoId);
+        franja.cerrojo.lock();
+        try {
+            EstadoProducto estado = franja.productos.get(productoId);
+            if (estado != null) {
+                Reserva r = estado.reservas.remove(sesion);
+                if (r != null) {
+                    estado.reservado -= r.cantidad;
+                }
+            }
+        } finally {
+            franja.cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Libera las reservas de una sesión (carrito vaciado o sesión expirada).
+     *
+     * @param sesion Identificador de la sesión HTTP
+     * @param productoIds Productos del carrito de la sesión
+     */
+    public void liberarSesion(String sesion, Iterable<Integer> productoIds) {
+        for (Integer id : productoIds) {
+            liberar(sesion, id);
+        }
+    }
+
+    /**
+     * Convierte las reservas de una sesión en ventas tras un checkout correcto:
+     * las libera y descuenta las unidades del stock conocido en memoria, sin
+     * esperar a la siguiente conciliación.
+     *
+     * @param sesion Identificador de la sesión HTTP
+     * @param vendidas Mapa productoId -> unidades vendidas
+     */
+    public void confirmarVenta(String sesion, Map<Integer, Integer> vendidas) {
+        for (Map.Entry<Integer, Integer> e : vendidas.entrySet()) {
+            Franja franja = franja(e.getKey());
+            franja.cerrojo.lock();
+            try {
+                EstadoProducto estado = franja.productos.get(e.getKey());
+                if (estado != null) {
+                    Reserva r = estado.reservas.remove(sesion);
+                    if (r != null) {
+                        estado.reservado -= r.cantidad;
+                    }
+                    estado.stock = Math.max(0, estado.stock - e.getValue());
+                }
+            } finally {
+                franja.cerrojo.unlock();
+            }
+        }
+    }
+
+    /**
+     * Unidades disponibles para reservar: stock conocido menos reservado (O(1)).
+     *
+     * @param productoId Producto
+     * @return Unidades disponibles, o -1 si el producto no tiene estado en memoria
+     */
+    public int disponible(Integer productoId) {
+        Franja franja = franja(productoId);
+        franja.cerrojo.lock();
+        try {
+            EstadoProducto estado = franja.productos.get(productoId);
+            return estado == null ? -1 : Math.max(0, estado.stock - estado.reservado);
+        } finally {
+            franja.cerrojo.unlock();
+        }
+    }
+
+    /**
+     * Obtiene las métricas del motor de reservas.
+     *
+     * @return Mapa nombre -> valor con contadores y reservas activas
+     */
+    public Map<String, Long> metricas() {
+        long activas = 0;
+        long unidades = 0;
+        for (Franja f : franjas) {
+            f.cerrojo.lock();
+            try {
+                for (EstadoProducto e : f.productos.values()) {
+                    activas += e.reservas.size();
+                    unidades += e.reservado;
+                }
+            } finally {
+                f.cerrojo.unlock();
+            }
+        }
+        Map<String, Long> m = new HashMap<>();
+        m.put("creadas", reservasCreadas.sum());
+        m.put("rechazadas", reservasRechazadas.sum());
+        m.put("expiradas", reservasExpiradas.sum());
+        m.put("activas", activas);
+        m.put("unidadesReservadas", unidades);
+        return m;
+    }
+
+    // ==================== RUEDA DE TIEMPO ====================
+
+    private void programar(EntradaRueda entrada) {
+        rueda[(int) (entrada.expiraEnTic % RANURAS)].add(entrada);
+    }
+
+    /**
+     * Avanza un segundo y procesa sólo la ranura correspondiente.
+     */
+    void tic() {
+        try {
+            long tic = ticActual.incrementAndGet();
+            Queue<EntradaRueda> ranura = rueda[(int) (tic % RANURAS)];
+            List<EntradaRueda> futuras = new ArrayList<>();
+            EntradaRueda entrada;
+            while ((entrada = ranura.poll()) != null) {
+                if (entrada.expiraEnTic > tic) {
+                    // Vence en una vuelta posterior de la rueda
+                    futuras.add(entrada);
+                } else {
+                    expirar(entrada);
+                }
+            }
+            ranura.addAll(futuras);
+        } catch (RuntimeException e) {
+            registrador.error("Error al procesar la rueda de reservas", e);
+        }
+    }
+
+    private void expirar(EntradaRueda entrada) {
+        Reserva r = entrada.reserva;
+        Franja franja = franja(r.productoId);
+        franja.cerrojo.lock();
+        try {
+            EstadoProducto estado = franja.productos.get(r.productoId);
+            // Si la reserva se renovó o liberó, la entrada está obsoleta
+            if (estado != null && estado.reservas.get(r.sesion) == r && r.generacion == entrada.generacion) {
+                estado.reservas.remove(r.sesion);
+                estado.reservado -= r.cantidad;
+                reservasExpiradas.increment();
+            }
+        } finally {
+            franja.cerrojo.unlock();
+        }
+    }
+
+    // ==================== CONCILIACIÓN ====================
+
+    /**
+     * Relee el stock de los productos con reservas y olvida los que no tienen.
+     */
+    void conciliar() {
+        try {
+            for (Franja franja : franjas) {
+                List<Integer> ids = new ArrayList<>();
+                franja.cerrojo.lock();
+                try {
+                    Iterator<Map.Entry<Integer, EstadoProducto>> it = franja.productos.entrySet().iterator();
+                    while (it.hasNext()) {
+                        Map.Entry<Integer, EstadoProducto> e = it.next();
+                        if (e.getValue().reservas.isEmpty()) {
+                            it.remove();
+                        } else {
+                            ids.add(e.getKey());
+                        }
+                    }
+                } finally {
+                    franja.cerrojo.unlock();
+                }
+                if (ids.isEmpty()) {
+                    continue;
+                }
+                // Consulta fuera del cerrojo: una por franja con reservas activas
+                Map<Integer, Integer> stock = new HashMap<>();
+                for (ResumenProducto p : productoRepository.buscarResumenesPorIds(ids)) {
+                    stock.put(p.getId(), Boolean.TRUE.equals(p.getActivo()) ? p.getStock() : 0);
+                }
+                franja.cerrojo.lock();
+                try {
+                    for (Integer id : ids) {
+                        EstadoProducto estado = franja.productos.get(id);
+                        if (estado != null) {
+                            estado.stock = stock.getOrDefault(id, 0);
+                        }
+                    }
+                } finally {
+                    franja.cerrojo.unlock();
+                }
+            }
+        } catch (RuntimeException e) {
+            registrador.error("Error al conciliar las reservas con la base de datos", e);
+        }
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private Franja franja(Integer productoId) {
+        return franjas[Math.floorMod(productoId, FRANJAS)];
+    }
+
+    /**
+     * Devuelve el estado del producto, cargando su stock de la base de datos
+     * (fuera del cerrojo) si todavía no está en memoria.
+     *
+     * @return Estado del producto o null si no existe o está inactivo
+     */
+    private EstadoProducto estadoCargado(Franja franja, Integer productoId) {
+        franja.cerrojo.lock();
+        try {
+            EstadoProducto estado = franja.productos.get(productoId);
+            if (estado != null) {
+                return estado;
+            }
+        } finally {
+            franja.cerrojo.unlock();
+        }
+        List<ResumenProducto> encontrados = productoRepository.buscarResumenesPorIds(List.of(productoId));
+        if (encontrados.isEmpty() || !Boolean.TRUE.equals(encontrados.get(0).getActivo())) {
+            return null;
+        }
+        int stock = encontrados.get(0).getStock();
+        franja.cerrojo.lock();
+        try {
+            return franja.productos.computeIfAbsent(productoId, k -> new EstadoProducto(stock));
+        } finally {
+            franja.cerrojo.unlock();
+        }
+    }
+
+    private static final class Franja {
+        private final ReentrantLock cerrojo = new ReentrantLock();
+        private final Map<Integer, EstadoProducto> productos = new HashMap<>();
+    }
+
+    private static final class EstadoProducto {
+        private int stock;
+        private int reservado;
+        private final Map<String, Reserva> reservas = new HashMap<>();
+
+        private EstadoProducto(int stock) {
+            this.stock = stock;
+        }
+    }
+
+    private static final class Reserva {
+        private final String sesion;
+        private final Integer productoId;
+        private int cantidad;
+        private long generacion;
+        private long expiraEnTic;
+
+        private Reserva(String sesion, Integer productoId) {
+            this.sesion = sesion;
+            this.productoId = productoId;
+        }
+    }
+
+    private static final class EntradaRueda {
+        private final Reserva reserva;
+        private final long generacion;
+        private final long expiraEnTic;
+
+        private EntradaRueda(Reserva reserva, long generacion, long expiraEnTic) {
+            this.reserva = reserva;
+            this.generacion = generacion;
+            this.expiraEnTic = expiraEnTic;
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.inventario.service;
+
+import com.inventario.cache.CacheProductos;
+import com.inventario.cache.VersionCatalogo;
+import com.inventario.dto.ResumenProducto;
+import com.inventario.model.LineaPedido;
+import com.inventario.model.MovimientoStock;
+import com.inventario.model.Pedido;
+import com.inventario.repository.PedidoRepository;
+import com.inventario.repository.ProductoRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Servicio que confirma el carrito como un pedido y descuenta el stock.
+ *
+ * Todas las líneas se procesan en una sola transacción y en orden
+ * ascendente de id de producto, para que dos compras concurrentes bloqueen
+ * las filas siempre en el mismo orden y no puedan provocar un interbloqueo.
+ * Cada descuento es un UPDATE condicional (stock >= cantidad): si alguna
+ * línea no tiene stock suficiente, se revierte el pedido completo.
+ * Los descuentos se anotan en el libro de movimientos con un único lote
+ * dentro de la misma transacción.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Service
+public class PedidoService {
+
+    private final ProductoRepository productoRepository;
+    private final PedidoRepository pedidoRepository;
+    private final TransactionTemplate transacciones;
+    private final CacheProductos cacheProductos;
+    private final LibroMovimientosStock libroMovimientos;
+    private final RankingsProductos rankings;
+    private final PublicadorEventosProductos eventos;
+    private final VersionCatalogo versionCatalogo;
+
+    public PedidoService(ProductoRepository productoRepository, PedidoRepository pedidoRepository,
+                         TransactionTemplate transacciones, CacheProductos cacheProductos,
+                         LibroMovimientosStock libroMovimientos, RankingsProductos rankings,
+                         PublicadorEventosProductos eventos, VersionCatalogo versionCatalogo) {
+        this.productoRepository = productoRepository;
+        this.pedidoRepository = pedidoRepository;
+        this.transacciones = transacciones;
+        this.cacheProductos = cacheProductos;
+        this.libroMovimientos = libroMovimientos;
+        this.rankings = rankings;
+        this.eventos = eventos;
+        this.versionCatalogo = versionCatalogo;
+    }
+
+    /**
+     * Confirma el carrito: descuenta el stock de todas las líneas y guarda el pedido.
+     *
+     * @param carrito Mapa productoId -> cantidad de la sesión
+     * @param username Usuario que confirma el pedido
+     * @return Pedido guardado
+     * @throws Exception Si el carrito está vacío o alguna línea no tiene stock suficiente
+     */
+    public Pedido confirmar(Map<Integer, Integer> carrito, String username) throws Exception {
+        if (carrito == null || carrito.isEmpty()) {
+            throw new Exception("El carrito está vacío");
+        }
+        // Orden determinista de bloqueo: id de producto ascendente
+        TreeMap<Integer, Integer> lineas = new TreeMap<>();
+        for (Map.Entry<Integer, Integer> e : carrito.entrySet()) {
+            if (e.getValue() == null || e.getValue() <= 0) {
+                throw new Exception("Cantidad inválida para el producto " + e.getKey());
+            }
+            lineas.put(e.getKey(), e.getValue());
+        }
+
+        Pedido pedido;
+        List<ResumenProducto> descontados = new ArrayList<>(lineas.size());
+        try {
+            pedido = transacciones.execute(estado -> descontarYGuardar(lineas, username, descontados));
+        } catch (StockNoDisponible e) {
+            throw new Exception(e.getMessage());
+        } finally {
+            // El stock cambió (o pudo cambiar) en la base de datos
+            for (Integer id : lineas.keySet()) {
+                cacheProductos.invalidar(id);
+            }
+        }
+        // Tras confirmar: rankings y listados abiertos reciben el stock ya descontado
+        for (ResumenProducto p : descontados) {
+            rankings.actualizar(p);
+            eventos.publicarStock(p, p.getStock() + lineas.get(p.getId()));
+        }
+        versionCatalogo.incrementar();
+        return pedido;
+    }
+
+    private Pedido descontarYGuardar(TreeMap<Integer, Integer> lineas, String username,
+                                     List<ResumenProducto> descontados) {
+        for (Map.Entry<Integer, Integer> e : lineas.entrySet()) {
+            if (productoRepository.descontarStock(e.getKey(), e.getValue()) == 0) {
+                // La excepción revierte la transacción completa
+                throw new StockNoDisponible("Stock insuficiente o producto no disponible (id " + e.getKey() + ")");
+            }
+        }
+        // Las filas ya están bloqueadas por los UPDATE: los precios leídos son consistentes
+        Map<Integer, ResumenProducto> porId = new HashMap<>();
+        for (ResumenProducto p : productoRepository.buscarResumenesPorIds(lineas.keySet())) {
+            porId.put(p.getId(), p);
+            descontados.add(p);
+        }
+        LocalDateTime ahora = LocalDateTime.now();
+        Pedido pedido = new Pedido(username, ahora);
+        List<MovimientoStock> movimientos = new ArrayList<>(lineas.size());
+        for (Map.Entry<Integer, Integer> e : lineas.entrySet()) {
+            ResumenProducto p = porId.get(e.getKey());
+            pedido.agregarLinea(new LineaPedido(p.getId(), p.getCodigo(), p.getNombre(), p.getPrecio(), e.getValue()));
+            movimientos.add(new MovimientoStock(p.getId(), -e.getValue(), MovimientoStock.Motivo.VENTA, username, ahora));
+        }
+        libroMovimientos.registrar(movimientos);
+        return pedidoRepository.save(pedido);
+    }
+
+    /**
+     * Señala dentro de la transacción que una línea no pudo descontarse.
+     */
+    private static class StockNoDisponible extends RuntimeException {
+        StockNoDisponible(String mensaje) {
+            super(mensaje);
+        }
+    }
+}
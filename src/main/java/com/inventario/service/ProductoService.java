@@ -1,12 +1,33 @@
 package com.inventario.service;
 
+import com.inventario.cache.CacheProductos;
+import com.inventario.cache.VersionCatalogo;
+import com.inventario.dto.FiltroProductos;
+import com.inventario.dto.PaginaProductos;
+import com.inventario.dto.ResumenProducto;
+import com.inventario.dto.VersionProducto;
+import com.inventario.model.MovimientoStock;
 import com.inventario.model.Producto;
 import com.inventario.repository.ProductoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 /**
  * Servicio para gestionar operaciones de Producto.
@@ -28,13 +49,68 @@ public class ProductoService {
      */
     private final ProductoRepository repository;
 
+    /**
+     * Caché en memoria de productos por id y por código.
+     * Se invalida tras el commit de cada escritura.
+     */
+    private final CacheProductos cache;
+
+    /**
+     * Índice invertido en memoria para la búsqueda de productos.
+     * Se actualiza de forma incremental tras el commit de cada escritura.
+     */
+    private final IndiceBusquedaProductos indiceBusqueda;
+
+    /**
+     * Libro de movimientos donde se anota cada cambio de stock.
+     */
+    private final LibroMovimientosStock libroMovimientos;
+
+    /**
+     * Rankings por precio y stock mantenidos en memoria.
+     * Se actualizan de forma incremental tras el commit de cada escritura.
+     */
+    private final RankingsProductos rankings;
+
+    /**
+     * Canal SSE hacia los listados abiertos; recibe cada cambio tras el commit.
+     */
+    private final PublicadorEventosProductos eventos;
+
+    /**
+     * Versión global del catálogo; invalida las tablas renderizadas en caché.
+     */
+    private final VersionCatalogo versionCatalogo;
+
+    private final Logger registrador = LoggerFactory.getLogger(ProductoService.class);
+
+    /**
+     * Número de productos leídos por consulta al construir el índice.
+     */
+    private static final int LOTE_INDEXACION = 1000;
+
     /**
      * Constructor para inyección por constructor.
      *
      * @param repository Repositorio de productos
+     * @param cache Caché de productos por id y código
+     * @param indiceBusqueda Índice de búsqueda de productos
+     * @param libroMovimientos Libro de movimientos de stock
+     * @param rankings Rankings de productos en memoria
+     * @param eventos Publicador de eventos de productos (SSE)
+     * @param versionCatalogo Versión global del catálogo
      */
-    public ProductoService(ProductoRepository repository) {
+    public ProductoService(ProductoRepository repository, CacheProductos cache,
+                           IndiceBusquedaProductos indiceBusqueda, LibroMovimientosStock libroMovimientos,
+                           RankingsProductos rankings, PublicadorEventosProductos eventos,
+                           VersionCatalogo versionCatalogo) {
         this.repository = repository;
+        this.cache = cache;
+        this.indiceBusqueda = indiceBusqueda;
+        this.libroMovimientos = libroMovimientos;
+        this.rankings = rankings;
+        this.eventos = eventos;
+        this.versionCatalogo = versionCatalogo;
     }
 
     /**
@@ -48,6 +124,102 @@ public class ProductoService {
         return repository.findAll();
     }
 
+    /**
+     * Lista una página de productos usando paginación por cursor (keyset).
+     *
+     * Sólo se lee de la base de datos la página solicitada (más una fila
+     * extra para saber si existe una página siguiente). El cursor devuelto
+     * codifica la última clave de ordenamiento de la página.
+     *
+     * @param filtro Filtros, orden, cursor y tamaño de página
+     * @return Página de productos con el cursor de la página siguiente
+     */
+    public PaginaProductos listarPagina(FiltroProductos filtro) {
+        int tamano = filtro.getTamanoEfectivo();
+        String orden = filtro.getOrdenEfectivo();
+        String categoria = textoONulo(filtro.getCategoria());
+        String nombre = patronPrefijo(filtro.getNombre());
+        Boolean activo = filtro.getActivo();
+        // Se pide una fila más para saber si hay página siguiente
+        Pageable limite = PageRequest.of(0, tamano + 1);
+
+        String[] cursor = decodificarCursor(filtro.getCursor(), orden);
+        Integer despuesDeId = cursor != null ? Integer.valueOf(cursor[2]) : 0;
+
+        List<Producto> filas;
+        if ("precio".equals(orden)) {
+            // Los precios nunca son negativos, -1 sirve como clave inicial
+            Double despuesDePrecio = cursor != null ? Double.valueOf(cursor[1]) : -1.0;
+            filas = repository.buscarPaginaPorPrecio(despuesDePrecio, despuesDeId, categoria, activo, nombre, limite);
+        } else if ("nombre".equals(orden)) {
+            String despuesDeNombre = cursor != null ? cursor[1] : "";
+            filas = repository.buscarPaginaPorNombre(despuesDeNombre, despuesDeId, categoria, activo, nombre, limite);
+        } else {
+            filas = repository.buscarPaginaPorId(despuesDeId, categoria, activo, nombre, limite);
+        }
+
+        String siguiente = null;
+        if (filas.size() > tamano) {
+            filas = filas.subList(0, tamano);
+            siguiente = codificarCursor(orden, filas.get(tamano - 1));
+        }
+        return new PaginaProductos(filas, siguiente, tamano);
+    }
+
+    /**
+     * Busca productos por código, nombre o categoría usando el índice en memoria.
+     * 
+     * El índice devuelve los ids ordenados por relevancia y sólo esos
+     * productos se leen de la base de datos (una consulta por lista de ids).
+     * 
+     * @param texto Texto de búsqueda (sin distinguir mayúsculas ni tildes)
+     * @param limite Número máximo de resultados
+     * @return Productos encontrados, del más relevante al menos relevante
+     */
+    public List<Producto> buscar(String texto, int limite) {
+        List<Integer> ids = indiceBusqueda.buscar(texto, limite);
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, Producto> porId = new HashMap<>(ids.size() * 2);
+        for (Producto p : repository.findAllById(ids)) {
+            porId.put(p.getId(), p);
+        }
+        List<Producto> resultado = new ArrayList<>(ids.size());
+        for (Integer id : ids) {
+            Producto p = porId.get(id);
+            if (p != null) {
+                resultado.add(p);
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Construye el índice de búsqueda al iniciar la aplicación.
+     * 
+     * Recorre el catálogo por lotes usando la paginación por id, de modo
+     * que nunca se carga la tabla completa en memoria a la vez.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void construirIndiceBusqueda() {
+        long inicio = System.nanoTime();
+        indiceBusqueda.limpiar();
+        int despuesDeId = 0;
+        List<Producto> lote;
+        do {
+            lote = repository.buscarPaginaPorId(despuesDeId, null, null, null, PageRequest.of(0, LOTE_INDEXACION));
+            for (Producto p : lote) {
+                indiceBusqueda.indexar(p);
+            }
+            if (!lote.isEmpty()) {
+                despuesDeId = lote.get(lote.size() - 1).getId();
+            }
+        } while (lote.size() == LOTE_INDEXACION);
+        registrador.info("Índice de búsqueda construido: {} productos en {} ms",
+                indiceBusqueda.tamano(), (System.nanoTime() - inicio) / 1_000_000);
+    }
+
     /**
      * Obtiene un producto específico por su identificador.
      * 
@@ -55,7 +227,151 @@ public class ProductoService {
      * @return Optional que contiene el producto si existe, vacío si no existe
      */
     public Optional<Producto> obtenerPorId(Integer id) {
-        return repository.findById(id);
+        Producto enCache = cache.obtenerPorId(id);
+        if (enCache != null) {
+            return Optional.of(enCache);
+        }
+        long generacion = cache.generacion();
+        Optional<Producto> p = repository.findById(id);
+        p.ifPresent(producto -> cache.guardarLeido(producto, generacion));
+        return p;
+    }
+
+    /**
+     * Obtiene un producto por su código único.
+     * 
+     * Usa la caché de códigos; si el código en caché apunta a un producto
+     * que ya no existe o cambió de código, se consulta la base de datos.
+     * 
+     * @param codigo Código del producto a buscar
+     * @return Optional que contiene el producto si existe, vacío si no existe
+     */
+    public Optional<Producto> obtenerPorCodigo(String codigo) {
+        Integer id = cache.obtenerIdPorCodigo(codigo);
+        if (id != null) {
+            Optional<Producto> p = obtenerPorId(id);
+            if (p.isPresent() && codigo.equals(p.get().getCodigo())) {
+                return p;
+            }
+            cache.invalidarCodigo(codigo);
+        }
+        long generacion = cache.generacion();
+        Optional<Producto> p = repository.findByCodigo(codigo);
+        p.ifPresent(producto -> cache.guardarLeido(producto, generacion));
+        return p;
+    }
+
+    /**
+     * Obtiene varios productos por id: primero de la caché y los que falten
+     * con una sola consulta.
+     * 
+     * @param ids Identificadores de los productos
+     * @return Productos encontrados, ordenados por id
+     */
+    public List<Producto> obtenerPorIds(Collection<Integer> ids) {
+        List<Producto> encontrados = new ArrayList<>(ids.size());
+        List<Integer> faltantes = new ArrayList<>();
+        for (Integer id : ids) {
+            Producto enCache = cache.obtenerPorId(id);
+            if (enCache != null) {
+                encontrados.add(enCache);
+            } else {
+                faltantes.add(id);
+            }
+        }
+        if (!faltantes.isEmpty()) {
+            long generacion = cache.generacion();
+            for (Producto p : repository.findAllById(faltantes)) {
+                cache.guardarLeido(p, generacion);
+                encontrados.add(p);
+            }
+        }
+        encontrados.sort(Comparator.comparing(Producto::getId));
+        return encontrados;
+    }
+
+    /**
+     * Obtiene un producto asegurando que la copia no sea anterior a la
+     * versión sondeada: si la caché tiene otra versión se descarta y se lee
+     * de la base de datos. Así el cuerpo y el ETag de la API coinciden con la
+     * versión que comparan las peticiones condicionales.
+     * 
+     * @param id Identificador del producto
+     * @param version Versión leída con {@link #obtenerVersion(Integer)}
+     * @return Optional con el producto, vacío si ya no existe
+     */
+    public Optional<Producto> obtenerPorIdConVersion(Integer id, long version) {
+        Optional<Producto> p = obtenerPorId(id);
+        if (p.isPresent() && !Long.valueOf(version).equals(p.get().getVersion())) {
+            cache.invalidar(id);
+            p = obtenerPorId(id);
+        }
+        return p;
+    }
+
+    /**
+     * Como {@link #obtenerPorIds(Collection)}, pero vuelve a leer de la base
+     * de datos los productos cuya copia en caché no tiene la versión sondeada.
+     * 
+     * @param versiones Id y versión de los productos (de {@link #obtenerVersiones(Collection)})
+     * @return Productos encontrados, ordenados por id
+     */
+    public List<Producto> obtenerPorVersiones(List<VersionProducto> versiones) {
+        Map<Integer, Long> esperadas = new HashMap<>();
+        for (VersionProducto v : versiones) {
+            esperadas.put(v.getId(), v.getVersion());
+        }
+        List<Producto> productos = obtenerPorIds(esperadas.keySet());
+        boolean desactualizados = false;
+        for (Producto p : productos) {
+            if (!esperadas.get(p.getId()).equals(p.getVersion())) {
+                cache.invalidar(p.getId());
+                desactualizados = true;
+            }
+        }
+        return desactualizados ? obtenerPorIds(esperadas.keySet()) : productos;
+    }
+
+    // ==================== VERSIONES (ETAG) ====================
+
+    /**
+     * Obtiene sólo la versión de un producto (sondeo por clave primaria).
+     * 
+     * @param id Identificador del producto
+     * @return Versión, vacío si el producto no existe
+     */
+    public Optional<Long> obtenerVersion(Integer id) {
+        return repository.buscarVersion(id);
+    }
+
+    /**
+     * Obtiene id y versión de un producto por su código (índice único).
+     */
+    public Optional<VersionProducto> obtenerVersionPorCodigo(String codigo) {
+        return repository.buscarVersionPorCodigo(codigo);
+    }
+
+    /**
+     * Obtiene id y versión de varios productos, ordenados por id.
+     */
+    public List<VersionProducto> obtenerVersiones(Collection<Integer> ids) {
+        return repository.buscarVersionesPorIds(ids);
+    }
+
+    /**
+     * Versiones de la página que devolvería {@link #listarPagina(FiltroProductos)}
+     * con orden por id: hasta {@code tamano + 1} filas, la última sólo indica
+     * que hay página siguiente.
+     * 
+     * @param filtro Filtros y cursor (el orden se ignora: siempre por id)
+     * @return Id y versión de las filas de la página
+     */
+    public List<VersionProducto> listarVersionesPagina(FiltroProductos filtro) {
+        String[] cursor = decodificarCursor(filtro.getCursor(), "id");
+        Integer despuesDeId = cursor != null ? Integer.valueOf(cursor[2]) : 0;
+        return repository.buscarVersionesPaginaPorId(despuesDeId, textoONulo(filtro.getCategoria()),
+                filtro.getActivo(), patronPrefijo(filtro.getNombre()),
+                PageRequest.of(0, filtro.getTamanoEfectivo() + 1));
     }
 
     /**
@@ -67,42 +383,96 @@ public class ProductoService {
      * - Precio debe ser mayor a 0
      * - Código debe ser único en el sistema
      * 
+     * El stock inicial se anota en el libro de movimientos en la misma transacción.
+     * 
      * @param p Objeto Producto a crear
      * @return El producto creado y guardado en la BD
      * @throws Exception Si alguna validación falla
      */
+    @Transactional(rollbackFor = Exception.class)
     public Producto crear(Producto p) throws Exception {
+        validarDatos(p);
+
+        // Verificar que el código sea único
+        if (repository.findByCodigo(p.getCodigo()).isPresent()) {
+            throw new Exception("Código ya existe");
+        }
+
+        Producto guardado = repository.save(p);
+        libroMovimientos.registrar(guardado.getId(), guardado.getStock(), MovimientoStock.Motivo.INICIAL);
+        trasCommit(() -> {
+            cache.invalidar(guardado.getId());
+            indiceBusqueda.indexar(guardado);
+            rankings.actualizar(guardado);
+        });
+        eventos.publicarCreado(guardado);
+        versionCatalogo.incrementar();
+        return guardado;
+    }
+
+    /**
+     * Valida los datos de un producto nuevo (sin comprobar unicidad del código).
+     * 
+     * Son las mismas reglas que aplica {@link #crear(Producto)}, incluidas las
+     * longitudes máximas de las columnas; la importación masiva también las
+     * usa para validar cada fila.
+     * 
+     * @param p Producto a validar
+     * @throws Exception Si alguna validación falla
+     */
+    static void validarDatos(Producto p) throws Exception {
         // Validar código
         if (p.getCodigo() == null || p.getCodigo().trim().length() < 3) {
             throw new Exception("Código debe tener al menos 3 caracteres");
         }
+        if (p.getCodigo().length() > 50) {
+            throw new Exception("Código no puede exceder 50 caracteres");
+        }
         
         // Validar nombre
         if (p.getNombre() == null || p.getNombre().trim().length() < 5) {
             throw new Exception("Nombre debe tener al menos 5 caracteres");
         }
-        
-        // Validar precio
-        if (p.getPrecio() == null || p.getPrecio() <= 0) {
-            throw new Exception("Precio debe ser mayor a 0");
+        if (p.getNombre().length() > 120) {
+            throw new Exception("Nombre no puede exceder 120 caracteres");
         }
 
-        // Verificar que el código sea único
-        if (repository.findByCodigo(p.getCodigo()).isPresent()) {
-            throw new Exception("Código ya existe");
+        // Validar categoría (opcional)
+        if (p.getCategoria() != null && p.getCategoria().length() > 50) {
+            throw new Exception("Categoría no puede exceder 50 caracteres");
         }
-
-        // Verificar que el precio sea mayor a 0
+        
+        // Validar precio
         if (p.getPrecio() == null || p.getPrecio() <= 0) {
-            throw new Exception("Precio inválido: el precio debe ser mayor a 0");
+            throw new Exception("Precio debe ser mayor a 0");
         }
 
         // Verificar que el stock ingresado sea no-negativo y sea numérico
         if (p.getStock() == null || p.getStock() < 0) {
             throw new Exception("Stock inválido: debe ser un número igual o mayor a 0");
         }
+    }
 
-        return repository.save(p);
+    /**
+     * Sincroniza la caché y el índice de búsqueda con productos escritos
+     * fuera de este servicio (por ejemplo, por la importación masiva JDBC).
+     * 
+     * @param productos Productos tal como quedaron en la base de datos
+     * @param stockAnterior Stock previo por id de los productos que ya existían
+     */
+    public void registrarCambiosExternos(List<Producto> productos, Map<Integer, Integer> stockAnterior) {
+        for (Producto p : productos) {
+            cache.invalidar(p.getId());
+            indiceBusqueda.indexar(p);
+            rankings.actualizar(p);
+            Integer anterior = stockAnterior.get(p.getId());
+            if (anterior == null) {
+                eventos.publicarCreado(p);
+            } else {
+                eventos.publicarActualizado(p, anterior);
+            }
+        }
+        versionCatalogo.incrementar();
     }
 
     /**
@@ -110,14 +480,17 @@ public class ProductoService {
      * 
     * Busca el producto por ID y actualiza solo los campos que no sean null.
     * Si se recibe un nuevo `codigo`, se actualizará solo si no existe en otro producto.
+     * La fila se bloquea (SELECT ... FOR UPDATE) durante la transacción para
+     * que dos actualizaciones concurrentes no se pisen entre sí.
      * 
      * @param id Identificador del producto a actualizar
      * @param p Objeto Producto con los nuevos datos
      * @return El producto actualizado
      * @throws Exception Si el producto no existe
      */
+    @Transactional(rollbackFor = Exception.class)
     public Producto actualizar(Integer id, Producto p) throws Exception {
-        Optional<Producto> existente = repository.findById(id);
+        Optional<Producto> existente = repository.buscarParaActualizar(id);
         
         // Verificar que el producto exista
         if (!existente.isPresent()) {
@@ -125,6 +498,7 @@ public class ProductoService {
         }
 
         Producto producto = existente.get();
+        int stockAnterior = producto.getStock() != null ? producto.getStock() : 0;
         
         // Actualizar solo los campos que no sean null
         if (p.getNombre() != null) producto.setNombre(p.getNombre());
@@ -160,35 +534,57 @@ public class ProductoService {
             }
         }
 
-        return repository.save(producto);
+        Producto guardado = repository.save(producto);
+        // El cambio de stock (si lo hay) queda anotado en la misma transacción
+        libroMovimientos.registrar(id, guardado.getStock() - stockAnterior, MovimientoStock.Motivo.AJUSTE);
+        trasCommit(() -> {
+            cache.invalidar(id);
+            indiceBusqueda.indexar(guardado);
+            rankings.actualizar(guardado);
+        });
+        eventos.publicarActualizado(guardado, stockAnterior);
+        versionCatalogo.incrementar();
+        return guardado;
     }
 
     /**
      * Elimina un producto de la base de datos.
      * 
+     * El stock que le quedaba se anota en el libro de movimientos como baja
+     * en la misma transacción, para que no desaparezca sin registro.
+     * 
      * @param id Identificador del producto a eliminar
      * @throws Exception Si el producto no existe
      */
+    @Transactional(rollbackFor = Exception.class)
     public void eliminar(Integer id) throws Exception {
-        // Verificar que el producto exista
-        if (!repository.existsById(id)) {
-            throw new Exception("Producto no encontrado");
-        }
-        
+        // Bloquea la fila: el stock anotado es el que se elimina
+        Producto existente = repository.buscarParaActualizar(id)
+                .orElseThrow(() -> new Exception("Producto no encontrado"));
+
+        libroMovimientos.registrar(id, -existente.getStock(), MovimientoStock.Motivo.BAJA);
         repository.deleteById(id);
+        trasCommit(() -> {
+            cache.invalidar(id);
+            indiceBusqueda.eliminar(id);
+            rankings.eliminar(id);
+        });
+        eventos.publicarEliminado(id);
+        versionCatalogo.incrementar();
     }
 
     /**
      * Obtiene una lista con los productos más costosos.
      *
+     * Se sirve desde los rankings en memoria (como máximo su capacidad,
+     * 50 por defecto); la base de datos sólo se consulta si el ranking
+     * se quedó sin entradas suficientes.
+     *
      * @param limite Número máximo de resultados a retornar
      * @return Lista de productos ordenados por precio descendente
      */
-    public List<Producto> obtenerMasCostosos(int limite) {
-        return repository.findAll(Sort.by(Sort.Direction.DESC, "precio"))
-                .stream()
-                .limit(limite)
-                .collect(Collectors.toList());
+    public List<ResumenProducto> obtenerMasCostosos(int limite) {
+        return rankings.obtenerMasCostosos(limite);
     }
 
     /**
@@ -197,11 +593,8 @@ public class ProductoService {
      * @param limite Número máximo de resultados a retornar
      * @return Lista de productos ordenados por precio ascendente
      */
-    public List<Producto> obtenerMasBaratos(int limite) {
-        return repository.findAll(Sort.by(Sort.Direction.ASC, "precio"))
-                .stream()
-                .limit(limite)
-                .collect(Collectors.toList());
+    public List<ResumenProducto> obtenerMasBaratos(int limite) {
+        return rankings.obtenerMasBaratos(limite);
     }
 
     /**
@@ -210,11 +603,8 @@ public class ProductoService {
      * @param limite Número máximo de resultados a retornar
      * @return Lista de productos ordenados por stock descendente
      */
-    public List<Producto> obtenerMayorStock(int limite) {
-        return repository.findAll(Sort.by(Sort.Direction.DESC, "stock"))
-                .stream()
-                .limit(limite)
-                .collect(Collectors.toList());
+    public List<ResumenProducto> obtenerMayorStock(int limite) {
+        return rankings.obtenerMayorStock(limite);
     }
 
     /**
@@ -223,10 +613,96 @@ public class ProductoService {
      * @param limite Número máximo de resultados a retornar
      * @return Lista de productos ordenados por stock ascendente
      */
-    public List<Producto> obtenerMenorStock(int limite) {
-        return repository.findAll(Sort.by(Sort.Direction.ASC, "stock"))
-                .stream()
-                .limit(limite)
-                .collect(Collectors.toList());
+    public List<ResumenProducto> obtenerMenorStock(int limite) {
+        return rankings.obtenerMenorStock(limite);
+    }
+
+    /**
+     * Ejecuta la acción tras el commit de la transacción activa (o en el acto
+     * si no hay ninguna). La caché, el índice y los rankings sólo reflejan
+     * datos confirmados: una escritura revertida no deja rastro en ellos, y
+     * una lectura concurrente no puede recargar la fila anterior después de
+     * la invalidación (ver {@link CacheProductos#guardarLeido}).
+     */
+    private void trasCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    // ==================== UTILIDADES DE PAGINACIÓN ====================
+
+    /**
+     * Codifica el cursor "orden|clave|id" en Base64 apto para URL.
+     */
+    private String codificarCursor(String orden, Producto ultimo) {
+        String clave;
+        if ("precio".equals(orden)) {
+            clave = String.valueOf(ultimo.getPrecio());
+        } else if ("nombre".equals(orden)) {
+            clave = ultimo.getNombre();
+        } else {
+            clave = "";
+        }
+        String crudo = orden + "|" + clave + "|" + ultimo.getId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(crudo.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decodifica un cursor. Si el cursor es inválido o pertenece a otro orden
+     * se ignora y se empieza desde la primera página.
+     *
+     * @return Arreglo [orden, clave, id] o null si no hay cursor válido
+     */
+    private String[] decodificarCursor(String cursor, String orden) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String crudo = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int primero = crudo.indexOf('|');
+            int ultimo = crudo.lastIndexOf('|');
+            if (primero < 0 || ultimo == primero) {
+                return null;
+            }
+            String[] partes = {
+                    crudo.substring(0, primero),
+                    crudo.substring(primero + 1, ultimo),
+                    crudo.substring(ultimo + 1)
+            };
+            if (!orden.equals(partes[0])) {
+                return null;
+            }
+            Integer.parseInt(partes[2]);
+            if ("precio".equals(orden)) {
+                Double.parseDouble(partes[1]);
+            }
+            return partes;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Convierte un prefijo de nombre en patrón LIKE, escapando comodines.
+     */
+    private String patronPrefijo(String prefijo) {
+        String texto = textoONulo(prefijo);
+        if (texto == null) {
+            return null;
+        }
+        return texto.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    private String textoONulo(String texto) {
+        return texto == null || texto.isBlank() ? null : texto.trim();
     }
 }
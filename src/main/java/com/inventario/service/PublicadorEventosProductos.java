@@ -0,0 +1,339 @@
+package com.inventario.service;
+
+import com.inventario.dto.EventoProducto;
+import com.inventario.dto.ResumenProducto;
+import com.inventario.model.Producto;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Difusión de cambios de productos a los listados abiertos mediante
+ * Server-Sent Events.
+ *
+ * Quien publica (ProductoService, PedidoService) nunca escribe en la red:
+ * sólo deja el evento en el búfer de cada suscriptor y, si el búfer no
+ * estaba ya programado, encarga su envío a un pool pequeño. Cada búfer:
+ * - agrupa por clave (tipo de evento + id): si un producto cambia varias
+ *   veces antes del envío, sólo se manda su último estado;
+ * - está acotado: si se llena (cliente lento o desconectado), se vacía y
+ *   se envía un único evento "resincronizar" para que la página se recargue.
+ * Los eventos publicados dentro de una transacción se difunden tras el commit.
+ *
+ * Eventos: "producto" (creado, actualizado, eliminado), "bajo-stock" (cruce
+ * del umbral de {@link Producto#tieneBajoStock()}, sólo para ROLE_ADMIN) y
+ * "resincronizar". Un latido periódico mantiene abiertas las conexiones.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Component
+public class PublicadorEventosProductos {
+
+    static final String EVENTO_PRODUCTO = "producto";
+    static final String EVENTO_BAJO_STOCK = "bajo-stock";
+    static final String EVENTO_RESINCRONIZAR = "resincronizar";
+
+    private final Logger registrador = LoggerFactory.getLogger(PublicadorEventosProductos.class);
+
+    private final Set<Suscriptor> suscriptores = ConcurrentHashMap.newKeySet();
+    private final int capacidadBuffer;
+    private final int hilos;
+    private final long latidoSegundos;
+    private final long timeoutMillis;
+
+    private final LongAdder publicados = new LongAdder();
+    private final LongAdder agrupados = new LongAdder();
+    private final LongAdder desbordes = new LongAdder();
+
+    private ExecutorService envios;
+    private ScheduledExecutorService latidos;
+
+    public PublicadorEventosProductos(@Value("${inventario.eventos.capacidad-buffer:256}") int capacidadBuffer,
+                                      @Value("${inventario.eventos.hilos:2}") int hilos,
+                                      @Value("${inventario.eventos.latido-segundos:25}") long latidoSegundos,
+                                      @Value("${inventario.eventos.timeout-minutos:30}") long timeoutMinutos) {
+        this.capacidadBuffer = capacidadBuffer;
+        this.hilos = hilos;
+        this.latidoSegundos = latidoSegundos;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutos);
+    }
+
+    @PostConstruct
+    public void iniciar() {
+        AtomicInteger contador = new AtomicInteger();
+        envios = Executors.newFixedThreadPool(hilos, r -> {
+            Thread t = new Thread(r, "eventos-sse-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        latidos = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "eventos-sse-latido");
+            t.setDaemon(true);
+            return t;
+        });
+        latidos.scheduleAtFixedRate(this::latir, latidoSegundos, latidoSegundos, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void detener() {
+        latidos.shutdownNow();
+        envios.shutdownNow();
+        for (Suscriptor s : suscriptores) {
+            s.emisor.complete();
+        }
+    }
+
+    /**
+     * Registra un nuevo suscriptor.
+     *
+     * @param incluirStock true si el suscriptor puede ver el stock (ROLE_ADMIN)
+     * @return Emisor SSE que Spring MVC mantiene abierto
+     */
+    public SseEmitter suscribir(boolean incluirStock) {
+        SseEmitter emisor = new SseEmitter(timeoutMillis);
+        Suscriptor s = new Suscriptor(emisor, incluirStock);
+        emisor.onCompletion(() -> suscriptores.remove(s));
+        emisor.onTimeout(() -> suscriptores.remove(s));
+        emisor.onError(e -> suscriptores.remove(s));
+        suscriptores.add(s);
+        return emisor;
+    }
+
+    // ==================== PUBLICACIÓN ====================
+
+    public void publicarCreado(Producto p) {
+        publicar(evento(EventoProducto.CREADO, p), null);
+    }
+
+    /**
+     * @param p Producto tal como quedó
+     * @param stockAnterior Stock antes del cambio (null si se desconoce)
+     */
+    public void publicarActualizado(Producto p, Integer stockAnterior) {
+        publicar(evento(EventoProducto.ACTUALIZADO, p), stockAnterior);
+    }
+
+    public void publicarEliminado(Integer id) {
+        publicar(new EventoProducto(EventoProducto.ELIMINADO, id, null, null, null, null, null, null, null), null);
+    }
+
+    /**
+     * Publica un cambio de stock a partir de la proyección del producto (checkout).
+     */
+    public void publicarStock(ResumenProducto p, Integer stockAnterior) {
+        publicar(new EventoProducto(EventoProducto.ACTUALIZADO, p.getId(), p.getCodigo(), p.getNombre(), null,
+                p.getPrecio(), p.getStock(), p.getActivo(), p.getStock() < Producto.UMBRAL_BAJO_STOCK), stockAnterior);
+    }
+
+    /**
+     * Pide a todos los listados abiertos que se recarguen (cambios masivos).
+     */
+    public void publicarResincronizar() {
+        despuesDelCommit(() -> {
+            for (Suscriptor s : suscriptores) {
+                if (s.pedirResincronizar()) {
+                    programar(s);
+                }
+            }
+        });
+    }
+
+    private EventoProducto evento(String tipo, Producto p) {
+        return new EventoProducto(tipo, p.getId(), p.getCodigo(), p.getNombre(), p.getCategoria(),
+                p.getPrecio(), p.getStock(), p.getActivo(), p.tieneBajoStock());
+    }
+
+    private void publicar(EventoProducto evento, Integer stockAnterior) {
+        boolean cruce = evento.getBajoStock() != null
+                && (stockAnterior == null
+                        ? EventoProducto.CREADO.equals(evento.getTipo()) && evento.getBajoStock()
+                        : (stockAnterior < Producto.UMBRAL_BAJO_STOCK) != evento.getBajoStock());
+        despuesDelCommit(() -> difundir(evento, cruce));
+    }
+
+    private void difundir(EventoProducto evento, boolean cruce) {
+        publicados.increment();
+        EventoProducto publico = evento.sinStock();
+        for (Suscriptor s : suscriptores) {
+            boolean programar = s.encolar(EVENTO_PRODUCTO + ":" + evento.getId(),
+                    EVENTO_PRODUCTO, s.incluirStock ? evento : publico);
+            if (cruce && s.incluirStock) {
+                programar |= s.encolar(EVENTO_BAJO_STOCK + ":" + evento.getId(), EVENTO_BAJO_STOCK, evento);
+            }
+            if (programar) {
+                programar(s);
+            }
+        }
+    }
+
+    private void latir() {
+        for (Suscriptor s : suscriptores) {
+            if (s.encolar("latido", null, null)) {
+                programar(s);
+            }
+        }
+    }
+
+    private void despuesDelCommit(Runnable accion) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    accion.run();
+                }
+            });
+        } else {
+            accion.run();
+        }
+    }
+
+    // ==================== ENVÍO ====================
+
+    private void programar(Suscriptor s) {
+        try {
+            envios.execute(() -> drenar(s));
+        } catch (RuntimeException e) {
+            // Pool detenido (cierre de la aplicación)
+            s.liberar();
+        }
+    }
+
+    /**
+     * Envía el contenido del búfer de un suscriptor. Sólo un hilo drena un
+     * mismo suscriptor a la vez, por lo que los envíos nunca se intercalan.
+     */
+    private void drenar(Suscriptor s) {
+        List<Object[]> lote;
+        while ((lote = s.tomar()) != null) {
+            try {
+                for (Object[] e : lote) {
+                    if (e[0] == null) {
+                        s.emisor.send(SseEmitter.event().comment("latido"));
+                    } else {
+                        s.emisor.send(SseEmitter.event().name((String) e[0]).data(e[1], MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Cliente desconectado
+                registrador.debug("Suscriptor SSE desconectado: {}", e.getMessage());
+                suscriptores.remove(s);
+                s.emisor.completeWithError(e);
+                s.liberar();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Métricas del canal de eventos.
+     *
+     * @return Mapa nombre -> valor
+     */
+    public Map<String, Long> metricas() {
+        Map<String, Long> m = new LinkedHashMap<>();
+        m.put("suscriptores", (long) suscriptores.size());
+        m.put("publicados", publicados.sum());
+        m.put("agrupados", agrupados.sum());
+        m.put("desbordes", desbordes.sum());
+        return m;
+    }
+
+    /**
+     * Suscriptor con su búfer acotado y agrupado por clave.
+     */
+    private final class Suscriptor {
+
+        private final SseEmitter emisor;
+        private final boolean incluirStock;
+        private final LinkedHashMap<String, Object[]> buffer = new LinkedHashMap<>();
+        private boolean resincronizar;
+        private boolean programado;
+
+        private Suscriptor(SseEmitter emisor, boolean incluirStock) {
+            this.emisor = emisor;
+            this.incluirStock = incluirStock;
+        }
+
+        /**
+         * @return true si hay que programar el envío (no estaba programado)
+         */
+        synchronized boolean encolar(String clave, String nombre, Object datos) {
+            if (buffer.remove(clave) != null) {
+                agrupados.increment();
+            } else if (buffer.size() >= capacidadBuffer) {
+                return pedirResincronizar();
+            }
+            // Al reinsertar, la clave pasa al final: se conserva el orden del último cambio
+            buffer.put(clave, new Object[]{nombre, datos});
+            return marcarProgramado();
+        }
+
+        /**
+         * Descarta los eventos pendientes y deja un único "resincronizar".
+         *
+         * @return true si hay que programar el envío (no estaba programado)
+         */
+        synchronized boolean pedirResincronizar() {
+            buffer.clear();
+            if (!resincronizar) {
+                resincronizar = true;
+                desbordes.increment();
+            }
+            return marcarProgramado();
+        }
+
+        private boolean marcarProgramado() {
+            if (programado) {
+                return false;
+            }
+            programado = true;
+            return true;
+        }
+
+        /**
+         * @return Eventos pendientes, o null (y deja de estar programado) si no hay
+         */
+        synchronized List<Object[]> tomar() {
+            if (resincronizar) {
+                resincronizar = false;
+                buffer.clear();
+                List<Object[]> lote = new ArrayList<>(1);
+                lote.add(new Object[]{EVENTO_RESINCRONIZAR, Map.of()});
+                return lote;
+            }
+            if (buffer.isEmpty()) {
+                programado = false;
+                return null;
+            }
+            List<Object[]> lote = new ArrayList<>(buffer.values());
+            buffer.clear();
+            return lote;
+        }
+
+        synchronized void liberar() {
+            buffer.clear();
+            programado = false;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package com.inventario.service;
+
+import com.inventario.dto.ResumenProducto;
+import com.inventario.model.Producto;
+import com.inventario.repository.ProductoRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Rankings de productos (más costosos, más baratos, mayor y menor stock)
+ * mantenidos en memoria y actualizados de forma incremental.
+ *
+ * Cada ranking es un conjunto ordenado acotado a {@code capacidad} entradas
+ * con su "frontera": el peor valor que se sabe que supera a todos los
+ * productos que quedaron fuera. Cada cambio cuesta O(log capacidad):
+ * - un producto que mejora la frontera entra (y si sobra, sale el último,
+ *   que pasa a ser la nueva frontera);
+ * - un miembro que empeora por debajo de la frontera sale, porque algún
+ *   producto de fuera podría superarlo.
+ * Sólo si un ranking queda con menos entradas de las pedidas se recarga
+ * con una consulta limitada; el resto de lecturas no tocan la base de datos.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Component
+public class RankingsProductos {
+
+    private final Ranking masCostosos;
+    private final Ranking masBaratos;
+    private final Ranking mayorStock;
+    private final Ranking menorStock;
+    private final int capacidad;
+
+    public RankingsProductos(ProductoRepository repository,
+                             @Value("${inventario.rankings.capacidad:50}") int capacidad) {
+        this.capacidad = capacidad;
+        // Mismo orden y desempate por id que las consultas del repositorio
+        Comparator<EntradaRanking> porPrecio = Comparator.comparingDouble(EntradaRanking::getPrecio)
+                .thenComparing(EntradaRanking::getId);
+        Comparator<EntradaRanking> porStock = Comparator.comparingInt(EntradaRanking::getStock)
+                .thenComparing(EntradaRanking::getId);
+        this.masCostosos = new Ranking(porPrecio.reversed(), capacidad, repository::buscarMasCostosos);
+        this.masBaratos = new Ranking(porPrecio, capacidad, repository::buscarMasBaratos);
+        this.mayorStock = new Ranking(porStock.reversed(), capacidad, repository::buscarMayorStock);
+        this.menorStock = new Ranking(porStock, capacidad, repository::buscarMenorStock);
+    }
+
+    /**
+     * Carga los cuatro rankings al iniciar la aplicación (una consulta limitada por ranking).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void recargar() {
+        masCostosos.recargar();
+        masBaratos.recargar();
+        mayorStock.recargar();
+        menorStock.recargar();
+    }
+
+    /**
+     * Registra el estado actual de un producto creado o modificado.
+     *
+     * @param p Producto tal como quedó en la base de datos
+     */
+    public void actualizar(Producto p) {
+        if (p.getId() == null || p.getPrecio() == null || p.getStock() == null) {
+            return;
+        }
+        actualizar(new EntradaRanking(p.getId(), p.getCodigo(), p.getNombre(), p.getPrecio(), p.getStock(), p.getActivo()));
+    }
+
+    /**
+     * Registra el estado actual de un producto a partir de su proyección.
+     *
+     * @param p Proyección del producto tal como quedó en la base de datos
+     */
+    public void actualizar(ResumenProducto p) {
+        actualizar(EntradaRanking.de(p));
+    }
+
+    private void actualizar(EntradaRanking entrada) {
+        masCostosos.actualizar(entrada);
+        masBaratos.actualizar(entrada);
+        mayorStock.actualizar(entrada);
+        menorStock.actualizar(entrada);
+    }
+
+    /**
+     * Quita un producto eliminado de todos los rankings.
+     *
+     * @param id Identificador del producto
+     */
+    public void eliminar(Integer id) {
+        masCostosos.eliminar(id);
+        masBaratos.eliminar(id);
+        mayorStock.eliminar(id);
+        menorStock.eliminar(id);
+    }
+
+    public List<ResumenProducto> obtenerMasCostosos(int limite) {
+        return masCostosos.obtener(acotar(limite));
+    }
+
+    public List<ResumenProducto> obtenerMasBaratos(int limite) {
+        return masBaratos.obtener(acotar(limite));
+    }
+
+    public List<ResumenProducto> obtenerMayorStock(int limite) {
+        return mayorStock.obtener(acotar(limite));
+    }
+
+    public List<ResumenProducto> obtenerMenorStock(int limite) {
+        return menorStock.obtener(acotar(limite));
+    }
+
+    /**
+     * Número máximo de entradas que puede devolver cada ranking.
+     */
+    public int getCapacidad() {
+        return capacidad;
+    }
+
+    private int acotar(int limite) {
+        return Math.max(0, Math.min(limite, capacidad));
+    }
+
+    /**
+     * Ranking acotado con frontera. Todas las operaciones se serializan con
+     * un cerrojo propio; son O(log capacidad) salvo la recarga. Se usa
+     * {@link ReentrantLock} y no {@code synchronized} porque la recarga consulta
+     * la base de datos y no debe fijar un hilo virtual a su portador.
+     */
+    private static final class Ranking {
+
+        private final Comparator<EntradaRanking> orden;
+        private final int capacidad;
+        private final Function<Pageable, List<ResumenProducto>> consulta;
+        private final TreeSet<EntradaRanking> ordenados;
+        private final Map<Integer, EntradaRanking> porId = new HashMap<>();
+        private final ReentrantLock cerrojo = new ReentrantLock();
+
+        /**
+         * Todos los productos fuera del ranking son iguales o peores que la
+         * frontera. null significa que el ranking contiene todo el catálogo.
+         */
+        private EntradaRanking frontera;
+
+        /**
+         * true hasta la primera carga desde la base de datos.
+         */
+        private boolean sinCargar = true;
+
+        private Ranking(Comparator<EntradaRanking> orden, int capacidad,
+                        Function<Pageable, List<ResumenProducto>> consulta) {
+            this.orden = orden;
+            this.capacidad = capacidad;
+            this.consulta = consulta;
+            this.ordenados = new TreeSet<>(orden);
+        }
+
+        void recargar() {
+            cerrojo.lock();
+            try {
+                recargarBloqueado();
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        void actualizar(EntradaRanking entrada) {
+            cerrojo.lock();
+            try {
+                quitar(entrada.getId());
+                if (frontera == null || orden.compare(entrada, frontera) <= 0) {
+                    ordenados.add(entrada);
+                    porId.put(entrada.getId(), entrada);
+                    if (ordenados.size() > capacidad) {
+                        EntradaRanking ultimo = ordenados.pollLast();
+                        porId.remove(ultimo.getId());
+                        frontera = ultimo;
+                    }
+                }
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        void eliminar(Integer id) {
+            cerrojo.lock();
+            try {
+                quitar(id);
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        List<ResumenProducto> obtener(int limite) {
+            cerrojo.lock();
+            try {
+                // Si salieron miembros y no quedan suficientes, los siguientes están fuera
+                if (sinCargar || (frontera != null && ordenados.size() < limite)) {
+                    recargarBloqueado();
+                }
+                List<ResumenProducto> resultado = new ArrayList<>(Math.min(limite, ordenados.size()));
+                Iterator<EntradaRanking> it = ordenados.iterator();
+                while (it.hasNext() && resultado.size() < limite) {
+                    resultado.add(it.next());
+                }
+                return resultado;
+            } finally {
+                cerrojo.unlock();
+            }
+        }
+
+        private void recargarBloqueado() {
+            List<ResumenProducto> filas = consulta.apply(PageRequest.of(0, capacidad));
+            ordenados.clear();
+            porId.clear();
+            for (ResumenProducto p : filas) {
+                EntradaRanking e = EntradaRanking.de(p);
+                ordenados.add(e);
+                porId.put(e.getId(), e);
+            }
+            frontera = filas.size() < capacidad ? null : ordenados.last();
+            sinCargar = false;
+        }
+
+        private void quitar(Integer id) {
+            EntradaRanking anterior = porId.remove(id);
+            if (anterior != null) {
+                ordenados.remove(anterior);
+            }
+        }
+    }
+
+    /**
+     * Entrada inmutable de un ranking (copia de la proyección del producto).
+     */
+    public static final class EntradaRanking implements ResumenProducto {
+
+        private final Integer id;
+        private final String codigo;
+        private final String nombre;
+        private final Double precio;
+        private final Integer stock;
+        private final Boolean activo;
+
+        EntradaRanking(Integer id, String codigo, String nombre, Double precio, Integer stock, Boolean activo) {
+            this.id = id;
+            this.codigo = codigo;
+            this.nombre = nombre;
+            this.precio = precio;
+            this.stock = stock;
+            this.activo = activo;
+        }
+
+        static EntradaRanking de(ResumenProducto p) {
+            return new EntradaRanking(p.getId(), p.getCodigo(), p.getNombre(), p.getPrecio(), p.getStock(), p.getActivo());
+        }
+
+        @Override
+        public Integer getId() {
+            return id;
+        }
+
+        @Override
+        public String getCodigo() {
+            return codigo;
+        }
+
+        @Override
+        public String getNombre() {
+            return nombre;
+        }
+
+        @Override
+        public Double getPrecio() {
+            return precio;
+        }
+
+        @Override
+        public Integer getStock() {
+            return stock;
+        }
+
+        @Override
+        public Boolean getActivo() {
+            return activo;
+        }
+    }
+}
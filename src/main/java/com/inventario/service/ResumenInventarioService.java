@@ -0,0 +1,35 @@
+package com.inventario.service;
+
+import com.inventario.dto.ResumenInventario;
+import com.inventario.repository.ProductoRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Servicio que calcula el resumen del inventario para el panel de administración.
+ *
+ * Todas las cifras (productos, activos, categorías, valor total y bajo stock)
+ * se obtienen con una única consulta agregada, en lugar de cargar las tablas
+ * completas para contar sus filas.
+ *
+ * @author Sistema de Inventario - Sexto Semestre
+ */
+@Service
+public class ResumenInventarioService {
+
+    private final ProductoRepository productoRepository;
+
+    public ResumenInventarioService(ProductoRepository productoRepository) {
+        this.productoRepository = productoRepository;
+    }
+
+    /**
+     * Obtiene las cifras agregadas del inventario.
+     *
+     * @return Resumen con totales, valor del inventario y productos con bajo stock
+     */
+    @Transactional(readOnly = true)
+    public ResumenInventario obtenerResumen() {
+        return productoRepository.calcularResumen();
+    }
+}
@@ -1,11 +1,13 @@
 package com.inventario.service;
 
+import com.inventario.cache.CacheUsuarios;
 import com.inventario.model.Usuario;
 import com.inventario.repository.UsuarioRepository;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -16,7 +18,10 @@ import java.util.Optional;
 /**
  * Servicio que carga los detalles de un usuario para Spring Security.
  *
- * Implementa UserDetailsService (método requerido `loadUserByUsername`).
+ * Implementa UserDetailsService (método requerido `loadUserByUsername`) y
+ * UserDetailsPasswordService, que Spring Security usa para guardar el hash
+ * actualizado cuando la contraseña de un usuario se codificó con un formato
+ * o una fuerza de BCrypt anterior a la configurada.
  * Además provee métodos en español para buscar usuarios por nombre o email.
  * 
  * @author Sistema de Inventario - Sexto Semestre
@@ -24,20 +29,27 @@ import java.util.Optional;
  * @since 2025
  */
 @Service
-public class ServicioDetallesUsuario implements UserDetailsService {
+public class ServicioDetallesUsuario implements UserDetailsService, UserDetailsPasswordService {
 
     /**
      * Repositorio de usuarios para acceder a la base de datos.
      */
     private final UsuarioRepository usuarioRepositorio;
 
+    /**
+     * Caché de UserDetails usada por el proveedor de autenticación.
+     */
+    private final CacheUsuarios cacheUsuarios;
+
     /**
      * Constructor para inyección por constructor del repositorio.
      * 
      * @param usuarioRepositorio Repositorio de usuarios
+     * @param cacheUsuarios Caché de UserDetails del login
      */
-    public ServicioDetallesUsuario(UsuarioRepository usuarioRepositorio) {
+    public ServicioDetallesUsuario(UsuarioRepository usuarioRepositorio, CacheUsuarios cacheUsuarios) {
         this.usuarioRepositorio = usuarioRepositorio;
+        this.cacheUsuarios = cacheUsuarios;
     }
 
     /**
@@ -71,6 +83,26 @@ public class ServicioDetallesUsuario implements UserDetailsService {
         );
     }
 
+    /**
+     * Guarda el nuevo hash de la contraseña tras un login correcto.
+     *
+     * Spring Security lo invoca cuando el codificador indica que el hash
+     * almacenado debe actualizarse (formato antiguo o fuerza menor).
+     *
+     * @param user Usuario autenticado
+     * @param newPassword Nuevo hash de la contraseña (ya codificado)
+     * @return UserDetails con la contraseña actualizada
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        Usuario usuario = usuarioRepositorio.findByUsername(user.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado: " + user.getUsername()));
+        usuario.setPassword(newPassword);
+        usuarioRepositorio.save(usuario);
+        cacheUsuarios.removeUserFromCache(user.getUsername());
+        return User.withUserDetails(user).password(newPassword).build();
+    }
+
     /**
      * Método en español que devuelve el Optional<Usuario> por nombre.
      *
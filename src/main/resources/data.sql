@@ -7,7 +7,9 @@
  * Usuario admin: admin / admin123
  * Usuario user: user / user123
  * 
- * Nota: Las contraseñas están encriptadas con BCrypt (fuerza 10)
+ * Nota: Las contraseñas están encriptadas con BCrypt (fuerza 10) sin el
+ * prefijo {bcrypt}. Se aceptan igualmente y se vuelven a codificar con la
+ * fuerza configurada (inventario.seguridad.bcrypt) en el primer login.
  * 
  * @author Sistema de Inventario
  * @version 1.0
@@ -0,0 +1,6 @@
+-- Sólo H2 (perfil "carga"): H2 no recorre un índice en sentido inverso, así
+-- que los rankings "más costosos" y "mayor stock" (ORDER BY ... DESC) leerían
+-- la tabla entera. MySQL usa idx_productos_precio_id e idx_productos_stock_id
+-- hacia atrás (Backward index scan) y no necesita estos índices.
+create index if not exists idx_productos_precio_id_desc on productos (precio desc, id desc);
+create index if not exists idx_productos_stock_id_desc on productos (stock desc, id desc);
@@ -0,0 +1,38 @@
+-- Esquema original: el que generaba Hibernate (ddl-auto: update) a partir de
+-- las entidades Categoria, Producto y Usuario, con los mismos nombres de
+-- restricciones. Las bases existentes ya lo tienen y se toman como versión 1
+-- (spring.flyway.baseline-on-migrate); sólo reciben las migraciones siguientes.
+
+create table categorias (
+    id integer not null auto_increment,
+    nombre varchar(50) not null,
+    descripcion varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table productos (
+    activo bit not null,
+    id integer not null auto_increment,
+    precio float(53) not null,
+    stock integer not null,
+    categoria varchar(50),
+    codigo varchar(50) not null,
+    nombre varchar(120) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table usuarios (
+    activo bit not null,
+    id integer not null auto_increment,
+    rol varchar(50) not null,
+    username varchar(50) not null,
+    email varchar(100) not null,
+    nombre_completo varchar(100),
+    password varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table categorias add constraint UK_qcog8b7hps1hioi9onqwjdt6y unique (nombre);
+alter table productos add constraint UK_h04wpyqwddobltuqq56cp6s05 unique (codigo);
+alter table usuarios add constraint UK_m2dvbwfge291euvmk6vkkocao unique (username);
+alter table usuarios add constraint UK_kfsp0s1tflm1cwlj8idhqsad0 unique (email);
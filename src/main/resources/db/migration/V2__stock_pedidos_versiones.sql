@@ -0,0 +1,53 @@
+-- Versión de productos (ETag de la API y bloqueo optimista), índices de los
+-- rankings, libro de movimientos de stock con sus puntos de control, y pedidos.
+-- ${tipo_motivo} es enum en MySQL y varchar en H2 (perfil "carga"), como espera
+-- el dialecto de Hibernate de cada base.
+
+alter table productos add column version bigint default 0 not null;
+
+-- Rankings por precio y stock (ORDER BY ... LIMIT)
+create index idx_productos_precio_id on productos (precio, id);
+create index idx_productos_stock_id on productos (stock, id);
+
+create table movimientos_stock (
+    delta integer not null,
+    producto_id integer not null,
+    fecha datetime(6) not null,
+    id bigint not null auto_increment,
+    username varchar(50) not null,
+    motivo ${tipo_motivo} not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_movimientos_producto_id on movimientos_stock (producto_id, id);
+
+create table puntos_control_stock (
+    producto_id integer not null,
+    stock integer not null,
+    fecha datetime(6) not null,
+    ultimo_movimiento_id bigint not null,
+    primary key (producto_id)
+) engine=InnoDB;
+
+create table pedidos (
+    id integer not null auto_increment,
+    total float(53) not null,
+    fecha datetime(6) not null,
+    username varchar(50) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table pedido_lineas (
+    cantidad integer not null,
+    id integer not null auto_increment,
+    pedido_id integer not null,
+    precio_unitario float(53) not null,
+    producto_id integer not null,
+    subtotal float(53) not null,
+    codigo varchar(50) not null,
+    nombre varchar(120) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table pedido_lineas add constraint FK5fl7ty1sc7ib2cwgbajqsnris
+    foreign key (pedido_id) references pedidos (id);
@@ -0,0 +1,18 @@
+-- Índices compuestos para las consultas calientes de ProductoRepository.
+-- Se comprueban con el perfil "verificacion" (VerificadorPlanesConsulta),
+-- que pide el plan de cada consulta y falla si alguna recorre la tabla entera.
+
+-- Listado y ETag filtrados por categoría, en orden de id (keyset). Incluye
+-- activo y version para que la página de versiones se resuelva sólo con el índice.
+create index idx_productos_categoria_id on productos (categoria, id, activo, version);
+
+-- Listado filtrado por categoría en orden de precio o de nombre (keyset)
+create index idx_productos_categoria_precio_id on productos (categoria, precio, id);
+create index idx_productos_categoria_nombre_id on productos (categoria, nombre, id);
+
+-- Listado en orden de nombre y búsqueda por prefijo (nombre LIKE 'abc%')
+create index idx_productos_nombre_id on productos (nombre, id);
+
+-- Resumen del panel (calcularResumen): cuenta, suma y filtra sólo con
+-- activo, stock y precio, así se lee este índice en lugar de las filas
+create index idx_productos_resumen on productos (activo, stock, precio);
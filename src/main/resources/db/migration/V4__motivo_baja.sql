@@ -0,0 +1,5 @@
+-- Motivo BAJA del libro de movimientos: el stock que desaparece al eliminar
+-- un producto. ${tipo_motivo} ya incluye BAJA, así que en MySQL esto amplía
+-- el enum de las bases creadas con V2; en H2 la columna es varchar y no cambia.
+
+alter table movimientos_stock modify motivo ${tipo_motivo} not null;